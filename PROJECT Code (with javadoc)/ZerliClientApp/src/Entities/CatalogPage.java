@@ -0,0 +1,106 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The Class CatalogPage is the response of a catalog query,
+ * it holds a single page of the matching items along with the facet counts of the query.
+ * The count of each facet value is the number of items that would match if that value was chosen
+ * (the other filters stay applied).
+ */
+public class CatalogPage implements Serializable {
+
+	/** The items of the page. */
+	private ArrayList<Item> items;
+
+	/** The total number of matching items. */
+	private int total;
+
+	/** The cursor of the next page, -1 if this is the last page. */
+	private int nextCursor;
+
+	/** The count of items of each color. */
+	private HashMap<Color, Integer> colorCounts;
+
+	/** The count of items of each item type. */
+	private HashMap<ItemType, Integer> itemTypeCounts;
+
+	/** The count of items on sale. */
+	private int onSaleCount;
+
+	/**
+	 * Instantiates a new catalog page.
+	 *
+	 * @param items the items of the page
+	 * @param total the total number of matching items
+	 * @param nextCursor the cursor of the next page, -1 if last
+	 * @param colorCounts the count of items of each color
+	 * @param itemTypeCounts the count of items of each item type
+	 * @param onSaleCount the count of items on sale
+	 */
+	public CatalogPage(ArrayList<Item> items, int total, int nextCursor, HashMap<Color, Integer> colorCounts,
+			HashMap<ItemType, Integer> itemTypeCounts, int onSaleCount) {
+		this.items = items;
+		this.total = total;
+		this.nextCursor = nextCursor;
+		this.colorCounts = colorCounts;
+		this.itemTypeCounts = itemTypeCounts;
+		this.onSaleCount = onSaleCount;
+	}
+
+	/**
+	 * Gets the items.
+	 *
+	 * @return the items of the page
+	 */
+	public ArrayList<Item> getItems() {
+		return items;
+	}
+
+	/**
+	 * Gets the total.
+	 *
+	 * @return the total number of matching items
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the next cursor.
+	 *
+	 * @return the cursor of the next page, -1 if this is the last page
+	 */
+	public int getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Gets the color counts.
+	 *
+	 * @return the count of items of each color
+	 */
+	public HashMap<Color, Integer> getColorCounts() {
+		return colorCounts;
+	}
+
+	/**
+	 * Gets the item type counts.
+	 *
+	 * @return the count of items of each item type
+	 */
+	public HashMap<ItemType, Integer> getItemTypeCounts() {
+		return itemTypeCounts;
+	}
+
+	/**
+	 * Gets the on sale count.
+	 *
+	 * @return the count of items on sale
+	 */
+	public int getOnSaleCount() {
+		return onSaleCount;
+	}
+}
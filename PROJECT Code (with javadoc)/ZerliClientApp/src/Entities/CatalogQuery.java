@@ -0,0 +1,235 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The Class CatalogQuery holds the filters, sort order and page position
+ * of a single catalog page request.
+ * A null filter means the filter is not applied.
+ */
+public class CatalogQuery implements Serializable {
+
+	/** The catalog types to search in. */
+	private ArrayList<CatalogType> catalogTypes = new ArrayList<CatalogType>();
+
+	/** The lowest current price (inclusive), null for no lower bound. */
+	private Integer minPrice;
+
+	/** The highest current price (inclusive), null for no upper bound. */
+	private Integer maxPrice;
+
+	/** The item color. */
+	private Color color;
+
+	/** The item type. */
+	private ItemType itemType;
+
+	/** The on sale flag. */
+	private Boolean onSale;
+
+	/** The item ids to search in (search results, best match first), null for all items. */
+	private ArrayList<Integer> itemIds;
+
+	/** The sort order. */
+	private CatalogSort sort = CatalogSort.catalog;
+
+	/** The cursor - the position of the first item of the page in the sorted results. */
+	private int cursor = 0;
+
+	/** The page size. */
+	private int pageSize;
+
+	/**
+	 * Instantiates a new catalog query.
+	 *
+	 * @param pageSize the page size
+	 * @param catalogTypes the catalog types to search in
+	 */
+	public CatalogQuery(int pageSize, CatalogType... catalogTypes) {
+		this.pageSize = pageSize;
+		for (CatalogType catalogType : catalogTypes)
+			this.catalogTypes.add(catalogType);
+	}
+
+	/**
+	 * Instantiates a copy of a catalog query at another cursor.
+	 *
+	 * @param query the catalog query to copy
+	 * @param cursor the position of the first item of the page
+	 */
+	public CatalogQuery(CatalogQuery query, int cursor) {
+		this.pageSize = query.pageSize;
+		this.catalogTypes.addAll(query.catalogTypes);
+		this.minPrice = query.minPrice;
+		this.maxPrice = query.maxPrice;
+		this.color = query.color;
+		this.itemType = query.itemType;
+		this.onSale = query.onSale;
+		this.itemIds = query.itemIds;
+		this.sort = query.sort;
+		this.cursor = cursor;
+	}
+
+	/**
+	 * Gets the catalog types.
+	 *
+	 * @return the catalog types
+	 */
+	public ArrayList<CatalogType> getCatalogTypes() {
+		return catalogTypes;
+	}
+
+	/**
+	 * Gets the lowest price.
+	 *
+	 * @return the lowest price, null for no lower bound
+	 */
+	public Integer getMinPrice() {
+		return minPrice;
+	}
+
+	/**
+	 * Sets the lowest price.
+	 *
+	 * @param minPrice the new lowest price, null for no lower bound
+	 */
+	public void setMinPrice(Integer minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	/**
+	 * Gets the highest price.
+	 *
+	 * @return the highest price, null for no upper bound
+	 */
+	public Integer getMaxPrice() {
+		return maxPrice;
+	}
+
+	/**
+	 * Sets the highest price.
+	 *
+	 * @param maxPrice the new highest price, null for no upper bound
+	 */
+	public void setMaxPrice(Integer maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	/**
+	 * Gets the color.
+	 *
+	 * @return the color
+	 */
+	public Color getColor() {
+		return color;
+	}
+
+	/**
+	 * Sets the color.
+	 *
+	 * @param color the new color
+	 */
+	public void setColor(Color color) {
+		this.color = color;
+	}
+
+	/**
+	 * Gets the item type.
+	 *
+	 * @return the item type
+	 */
+	public ItemType getItemType() {
+		return itemType;
+	}
+
+	/**
+	 * Sets the item type.
+	 *
+	 * @param itemType the new item type
+	 */
+	public void setItemType(ItemType itemType) {
+		this.itemType = itemType;
+	}
+
+	/**
+	 * Gets the on sale flag.
+	 *
+	 * @return the on sale flag
+	 */
+	public Boolean getOnSale() {
+		return onSale;
+	}
+
+	/**
+	 * Sets the on sale flag.
+	 *
+	 * @param onSale the new on sale flag
+	 */
+	public void setOnSale(Boolean onSale) {
+		this.onSale = onSale;
+	}
+
+	/**
+	 * Gets the item ids.
+	 *
+	 * @return the item ids to search in, null for all items
+	 */
+	public ArrayList<Integer> getItemIds() {
+		return itemIds;
+	}
+
+	/**
+	 * Sets the item ids.
+	 *
+	 * @param itemIds the item ids to search in, null for all items
+	 */
+	public void setItemIds(ArrayList<Integer> itemIds) {
+		this.itemIds = itemIds;
+	}
+
+	/**
+	 * Gets the sort order.
+	 *
+	 * @return the sort order
+	 */
+	public CatalogSort getSort() {
+		return sort;
+	}
+
+	/**
+	 * Sets the sort order.
+	 *
+	 * @param sort the new sort order
+	 */
+	public void setSort(CatalogSort sort) {
+		this.sort = sort;
+	}
+
+	/**
+	 * Gets the cursor.
+	 *
+	 * @return the position of the first item of the page
+	 */
+	public int getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Sets the cursor.
+	 *
+	 * @param cursor the position of the first item of the page
+	 */
+	public void setCursor(int cursor) {
+		this.cursor = cursor;
+	}
+
+	/**
+	 * Gets the page size.
+	 *
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+}
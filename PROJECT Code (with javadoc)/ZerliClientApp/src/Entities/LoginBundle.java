@@ -0,0 +1,159 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The Class LoginBundle holds everything the home screen of a role needs right after the login,
+ * so the client gets it in a single response instead of a round trip per value.
+ * Only the values of the user's role are filled, the others are left empty.
+ */
+public class LoginBundle implements Serializable {
+
+	/** The role the bundle was built for. */
+	private Roles role;
+
+	/** The branch of the employee (manager, delivery), null for the other roles. */
+	private String branch;
+
+	/** The branches (customer, service, ceo), null for the other roles. */
+	private ArrayList<String> branches;
+
+	/** The currency of the customer in its raw form (credit card, cvv, expiration, zerli coins, new customer). */
+	private String[] currency;
+
+	/** The number of unread notifications of the customer. */
+	private int unreadNotifications;
+
+	/** The total quantity of the items in the customer's cart. */
+	private int cartQuantity;
+
+	/** The number of orders waiting on the branch board (manager: confirm or cancel, delivery: ship). */
+	private int pendingOrders;
+
+	/**
+	 * Instantiates a new login bundle.
+	 *
+	 * @param role the role the bundle is built for
+	 */
+	public LoginBundle(Roles role) {
+		this.role = role;
+	}
+
+	/**
+	 * Gets the role.
+	 *
+	 * @return the role the bundle was built for
+	 */
+	public Roles getRole() {
+		return role;
+	}
+
+	/**
+	 * Gets the branch.
+	 *
+	 * @return the branch of the employee
+	 */
+	public String getBranch() {
+		return branch;
+	}
+
+	/**
+	 * Sets the branch.
+	 *
+	 * @param branch the branch of the employee
+	 */
+	public void setBranch(String branch) {
+		this.branch = branch;
+	}
+
+	/**
+	 * Gets the branches.
+	 *
+	 * @return the branches
+	 */
+	public ArrayList<String> getBranches() {
+		return branches;
+	}
+
+	/**
+	 * Sets the branches.
+	 *
+	 * @param branches the branches
+	 */
+	public void setBranches(ArrayList<String> branches) {
+		this.branches = branches;
+	}
+
+	/**
+	 * Gets the currency.
+	 *
+	 * @return the currency of the customer in its raw form
+	 */
+	public String[] getCurrency() {
+		return currency;
+	}
+
+	/**
+	 * Sets the currency.
+	 *
+	 * @param currency the currency of the customer in its raw form
+	 */
+	public void setCurrency(String[] currency) {
+		this.currency = currency;
+	}
+
+	/**
+	 * Gets the unread notifications.
+	 *
+	 * @return the number of unread notifications
+	 */
+	public int getUnreadNotifications() {
+		return unreadNotifications;
+	}
+
+	/**
+	 * Sets the unread notifications.
+	 *
+	 * @param unreadNotifications the number of unread notifications
+	 */
+	public void setUnreadNotifications(int unreadNotifications) {
+		this.unreadNotifications = unreadNotifications;
+	}
+
+	/**
+	 * Gets the cart quantity.
+	 *
+	 * @return the total quantity of the items in the cart
+	 */
+	public int getCartQuantity() {
+		return cartQuantity;
+	}
+
+	/**
+	 * Sets the cart quantity.
+	 *
+	 * @param cartQuantity the total quantity of the items in the cart
+	 */
+	public void setCartQuantity(int cartQuantity) {
+		this.cartQuantity = cartQuantity;
+	}
+
+	/**
+	 * Gets the pending orders.
+	 *
+	 * @return the number of orders waiting on the branch board
+	 */
+	public int getPendingOrders() {
+		return pendingOrders;
+	}
+
+	/**
+	 * Sets the pending orders.
+	 *
+	 * @param pendingOrders the number of orders waiting on the branch board
+	 */
+	public void setPendingOrders(int pendingOrders) {
+		this.pendingOrders = pendingOrders;
+	}
+}
@@ -0,0 +1,112 @@
+package Entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * The Class ReportPreview represents a lightweight listing entry of a report,
+ * holding a small image of the report's first page and its key figures
+ * instead of the actual pdf file.
+ */
+public class ReportPreview implements Serializable {
+
+	/** The report type. */
+	private ReportType reportType;
+
+	/** true: monthly, false: quarterly. */
+	private boolean isMonthly;
+
+	/** The branch the report was made on. */
+	private String branch;
+
+	/** The report date (if quarterly then the month part is the quarter). */
+	private LocalDate date;
+
+	/** The first page preview as a png byte stream. */
+	private byte[] preview;
+
+	/** The key figures (totals) of the report. */
+	private String totals;
+
+	/**
+	 * Instantiates a new report preview.
+	 *
+	 * @param reportType the report type
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch the report was made on
+	 * @param date the report date
+	 * @param preview the first page preview png
+	 * @param totals the key figures of the report
+	 */
+	public ReportPreview(ReportType reportType, boolean isMonthly, String branch, LocalDate date, byte[] preview, String totals) {
+		this.reportType = reportType;
+		this.isMonthly = isMonthly;
+		this.branch = branch;
+		this.date = date;
+		this.preview = preview;
+		this.totals = totals;
+	}
+
+	/**
+	 * Gets the report type.
+	 *
+	 * @return the report type
+	 */
+	public ReportType getReportType() {
+		return reportType;
+	}
+
+	/**
+	 * Checks if the report is monthly.
+	 *
+	 * @return true if monthly, false if quarterly
+	 */
+	public boolean isMonthly() {
+		return isMonthly;
+	}
+
+	/**
+	 * Gets the branch.
+	 *
+	 * @return the branch
+	 */
+	public String getBranch() {
+		return branch;
+	}
+
+	/**
+	 * Gets the report date.
+	 *
+	 * @return the report date
+	 */
+	public LocalDate getDate() {
+		return date;
+	}
+
+	/**
+	 * Gets the first page preview.
+	 *
+	 * @return the preview as a png byte stream
+	 */
+	public byte[] getPreview() {
+		return preview;
+	}
+
+	/**
+	 * Sets the first page preview.
+	 *
+	 * @param preview the new preview
+	 */
+	public void setPreview(byte[] preview) {
+		this.preview = preview;
+	}
+
+	/**
+	 * Gets the key figures of the report.
+	 *
+	 * @return the totals
+	 */
+	public String getTotals() {
+		return totals;
+	}
+}
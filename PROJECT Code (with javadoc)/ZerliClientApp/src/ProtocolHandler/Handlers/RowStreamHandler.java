@@ -0,0 +1,101 @@
+package ProtocolHandler.Handlers;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+import Entities.RowBatch;
+import ProtocolHandler.IHandler;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The Class RowStreamHandler is a handler which receives a list batch by batch (see RowBatch)
+ * and appends every batch to an observable collection as it arrives.
+ * A collection opened by Open is shown while it fills, its rows are appended on the FX thread.
+ * Otherwise a new collection is filled, and is handed over once the last batch arrived.
+ * A collection is opened for the ticket of its exchange, so only the batches of that exchange are appended to it,
+ * whichever other exchanges of the same request are made meanwhile.
+ */
+public class RowStreamHandler implements IHandler {
+
+	/** The opened collections whose lists were asked for and did not start arriving yet, mapped by the ticket of their exchange. */
+	private final TreeMap<Long, ObservableList<Object>> opened = new TreeMap<>();
+
+	/** The collection the batches are appended to, null until the first batch of a list. */
+	private ObservableList<Object> target;
+
+	/** The ticket of the exchange whose list is appended to the target. */
+	private long targetTicket;
+
+	/** Whether the collection is shown while it fills. */
+	private boolean live;
+
+	/**
+	 * Opens the collection the list of an exchange is appended to.
+	 *
+	 * @param ticket the ticket of the exchange
+	 * @param rows the collection, shown while it fills
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized void Open(long ticket, ObservableList<?> rows)
+	{
+		opened.put(ticket, (ObservableList<Object>)rows);
+	}
+
+	/**
+	 * Withdraws the collection of an exchange that failed or was given up on, the rest of its list is not appended.
+	 *
+	 * @param ticket the ticket of the exchange
+	 */
+	public synchronized void Withdraw(long ticket)
+	{
+		opened.remove(ticket);
+		if(target != null && targetTicket == ticket)
+			target = null;
+	}
+
+	/**
+	 * Handle response, without the ticket of its exchange the batches are collected into a new collection.
+	 *
+	 * @param response a batch of the list
+	 * @return the collection the batch was appended to
+	 */
+	@Override
+	public Object HandleResponse(Object response) {
+		return HandleResponse(response, 0);
+	}
+
+	/**
+	 * Handle response.
+	 *
+	 * @param response a batch of the list
+	 * @param ticket the ticket of the exchange the batch belongs to
+	 * @return the collection the batch was appended to
+	 */
+	public synchronized Object HandleResponse(Object response, long ticket) {
+		if(!(response instanceof RowBatch))
+			return null;
+		RowBatch batch = (RowBatch)response;
+		if(target == null || targetTicket != ticket)
+		{
+			/*** exchanges are answered in order, the collections of older tickets were given up on ***/
+			opened.headMap(ticket).clear();
+			target = opened.remove(ticket);
+			targetTicket = ticket;
+			live = target != null;
+			if(!live)
+				target = FXCollections.observableArrayList();
+		}
+		ObservableList<Object> rows = target;
+		ArrayList<?> added = batch.getRows();
+		if(live)
+			Platform.runLater(() -> rows.addAll(added));
+		else
+			rows.addAll(added);
+		if(batch.isLast())
+			target = null;
+		return rows;
+	}
+
+}
@@ -3,6 +3,7 @@ package ProtocolHandler;
 import ProtocolHandler.Handlers.ArrayListToObservableHandler;
 import ProtocolHandler.Handlers.CreditParserHandler;
 import ProtocolHandler.Handlers.PingHandler;
+import ProtocolHandler.Handlers.RowStreamHandler;
 import ProtocolHandler.Handlers.ImageFromServerHandler;
 
 /**
@@ -33,7 +34,7 @@ public class HandlersRegisterer {
 		Protocol.RegisterHandler(RequestType.GetItemsOfOrder, new ArrayListToObservableHandler());
 		Protocol.RegisterHandler(RequestType.ConfirmOrder, null);
 		Protocol.RegisterHandler(RequestType.AddToCart, null);
-		Protocol.RegisterHandler(RequestType.GetAllCustomerOrders, new ArrayListToObservableHandler());
+		Protocol.RegisterHandler(RequestType.GetAllCustomerOrders, new RowStreamHandler());
 		Protocol.RegisterHandler(RequestType.DeleteItemFromCart, null);
 		Protocol.RegisterHandler(RequestType.GetNotification, new ArrayListToObservableHandler());
 		Protocol.RegisterHandler(RequestType.UpdateNotification,null);
@@ -49,12 +50,12 @@ public class HandlersRegisterer {
 		Protocol.RegisterHandler(RequestType.UpdateItem, null);
 		Protocol.RegisterHandler(RequestType.AddItem, null);
 		Protocol.RegisterHandler(RequestType.ComplaintResponse, null);
-		Protocol.RegisterHandler(RequestType.GetComplaints, new ArrayListToObservableHandler());
+		Protocol.RegisterHandler(RequestType.GetComplaints, new RowStreamHandler());
 		Protocol.RegisterHandler(RequestType.MakeComplaint, null);
 		Protocol.RegisterHandler(RequestType.GetPendingClient, null);
 		Protocol.RegisterHandler(RequestType.RegisterClient, null);
-		Protocol.RegisterHandler(RequestType.GetAllCustomersInfo, new ArrayListToObservableHandler());
-		Protocol.RegisterHandler(RequestType.GetAllEmployeesInfo, new ArrayListToObservableHandler());
+		Protocol.RegisterHandler(RequestType.GetAllCustomersInfo, new RowStreamHandler());
+		Protocol.RegisterHandler(RequestType.GetAllEmployeesInfo, new RowStreamHandler());
 		Protocol.RegisterHandler(RequestType.UpdateAccountAccess, null);
 		Protocol.RegisterHandler(RequestType.UpdateEmployeeRole, null);
 		Protocol.RegisterHandler(RequestType.SaveSurvey, null);
@@ -63,10 +64,21 @@ public class HandlersRegisterer {
 		Protocol.RegisterHandler(RequestType.GetReport, null);
 		Protocol.RegisterHandler(RequestType.SendNotification, null);
 		Protocol.RegisterHandler(RequestType.GetCustomerInfo, null);
-		Protocol.RegisterHandler(RequestType.GetSurveyHistogram, new ImageFromServerHandler ());
+		Protocol.RegisterHandler(RequestType.GetSurveyHistogram, null);
+		Protocol.RegisterHandler(RequestType.GetSurveyHistogramImages, new ImageFromServerHandler ());
+		Protocol.RegisterHandler(RequestType.ReadStream, null);
+		Protocol.RegisterHandler(RequestType.OpenUpload, null);
+		Protocol.RegisterHandler(RequestType.WriteUpload, null);
+		Protocol.RegisterHandler(RequestType.SearchAccounts, null);
 		Protocol.RegisterHandler(RequestType.SavePDF, null);
 		Protocol.RegisterHandler(RequestType.GetReportByBranch, null);
 		Protocol.RegisterHandler(RequestType.SetComplaintAlerted, null);
 		Protocol.RegisterHandler(RequestType.GetReadySurveys, null);
+		Protocol.RegisterHandler(RequestType.GetReportPreviews, new ArrayListToObservableHandler());
+		Protocol.RegisterHandler(RequestType.QueryCatalog, null);
+		Protocol.RegisterHandler(RequestType.SearchItems, null);
+		Protocol.RegisterHandler(RequestType.GetLoginBundle, null);
+		Protocol.RegisterHandler(RequestType.SyncNotifications, null);
+		Protocol.RegisterHandler(RequestType.Heartbeat, null);
 	}
 }
@@ -2,10 +2,17 @@ package ProtocolHandler;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
 
+import Entities.RowBatch;
+import ProtocolHandler.Handlers.RowStreamHandler;
 import client.ClientApp;
 import controllers.LoginController;
 import javafx.animation.PauseTransition;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -41,19 +48,39 @@ public class Protocol {
 	 *   when the Protocol-Handler has identified a response it will perform the mapped handler (if exists such). */
 	static HashMap<RequestType,IHandler> Handlers = new HashMap<>();
 	
-	/**  This HashMap is used to map every requestType to the designated response
+	/**  This HashMap is used to map the ticket of every exchange to its response
 	 *   when the Protocol-Handler has identified a response it will load the response into the hashmap
-	 *   this in turns enable multi-transactioning when multiple commands can be sent
-	 *   and only then be read sequentally */
-	static HashMap<RequestType,Object> Responses = new HashMap<>();
+	 *   and the caller that waits on that ticket takes it out, so a later exchange of the same request type
+	 *   never hands its response to an earlier caller that did not read its own yet */
+	static HashMap<Long,Object> Responses = new HashMap<>();
 	
 	/** A Mutex monitor object. */
 	Object waiter = new Object();
 	
+	/** The send lock - a single transaction is written to the connection at a time,
+	 *  the heartbeat and the fire and forget commands are sent alongside the exchanges. */
+	final Object sendLock = new Object();
+	
 	/** The on hold flag is used to determine whether a blocking command was sent previously
 	 * and is yet to be answered. */
 	boolean onHold = false;
 	
+	/** The number of exchanges (requests expecting a response) that were sent. */
+	long sent = 0;
+	
+	/** The number of exchanges that were answered, the server answers in order. */
+	long answered = 0;
+	
+	/** The ticket - the number of the last exchange sent by the current thread. */
+	final ThreadLocal<Long> ticket = ThreadLocal.withInitial(() -> 0L);
+	
+	/** The async worker - runs the exchanges of InvokeAsync one after the other, off the FX thread. */
+	final ExecutorService asyncWorker = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "protocol-async");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
 	/**
 	 * Register handler, registers a functional handler into a specific request type.
 	 *
@@ -67,32 +94,94 @@ public class Protocol {
 	
 	/**
 	 *  Gets the response of a certain request that was sent earlier
+	 *  the response is the one of the exchange last sent by the calling thread, waited for by its ticket
 	 *  this is a blocking operation (for max of TIMEOUT milliseconds)
+	 *  an exchange that timed out is given up on, its response is discarded by its ticket once it arrives.
 	 *
 	 * @param requestType the request type we seek its response
 	 * @return the response
 	 */
 	public synchronized Object GetResponse(RequestType requestType)
 	{
-			//OnLoading();
-			int time = 0;
+			long deadline = System.currentTimeMillis() + TIMEOUT;
 			
-			while(onHold && time < TIMEOUT) {
+			while(answered < ticket.get()) {
+					long time = deadline - System.currentTimeMillis();
+					if(time <= 0)
+					{
+						onHold = false;
+						answered = sent;
+						notifyAll();
+						throw new TimeoutException("Command " + requestType.toString() + "did not respond!");
+					}
 					try {
-						wait();
+						wait(time);
 					} catch (InterruptedException e) {
 						// TODO Auto-generated catch block
 						e.printStackTrace();
 					}
 			}
-			onHold = false;
-			if(time > TIMEOUT)
-			{
-				//System.out.println("timeOut");
-				throw new TimeoutException("Command " + requestType.toString() + "did not respond!");
+			return Responses.remove(ticket.get());
+	}
+	
+	/**
+	 * Invoke async sends a command and waits for its response on a background thread,
+	 * so the FX thread is never blocked by the network and the database.
+	 * The returned future completes off the FX thread, use Platform::runLater (or a RequestScope) to touch the GUI.
+	 * An exchange whose future was cancelled before its turn is not sent at all.
+	 *
+	 * @param <T> the response type
+	 * @param requestType the request type, the actual command to be sent
+	 * @param data the data that is being sent to the server
+	 * @param params the params constraints that are being sent to the server
+	 * @return the future response
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> InvokeAsync(RequestType requestType,Object data,Object params)
+	{
+		CompletableFuture<T> response = new CompletableFuture<>();
+		asyncWorker.execute(() -> {
+			if(response.isDone()) return;
+			try {
+				if(!Invoke(requestType, data, params, true))
+					throw new IOException("Command " + requestType.toString() + " could not be sent");
+				response.complete((T)GetResponse(requestType));
+			} catch (Exception e) {
+				response.completeExceptionally(e);
 			}
-			//EndLoading();
-			return Responses.get(requestType);
+		});
+		return response;
+	}
+	
+	/**
+	 * Invoke stream sends a command whose response is a list sent batch by batch (see RowStreamHandler),
+	 * the rows are appended to the given collection on the FX thread as they arrive, so it can be shown right away.
+	 * The collection is opened for the ticket of this exchange only, and withdrawn if the exchange fails or times out.
+	 *
+	 * @param <T> the row type
+	 * @param requestType the request type, the actual command to be sent
+	 * @param data the data that is being sent to the server
+	 * @param params the params constraints that are being sent to the server
+	 * @param rows the collection the rows are appended to
+	 * @return the future collection, completed once the last batch arrived
+	 */
+	public <T> CompletableFuture<ObservableList<T>> InvokeStream(RequestType requestType,Object data,Object params,ObservableList<T> rows)
+	{
+		CompletableFuture<ObservableList<T>> response = new CompletableFuture<>();
+		asyncWorker.execute(() -> {
+			if(response.isDone()) return;
+			RowStreamHandler handler = (RowStreamHandler)Handlers.get(requestType);
+			try {
+				if(!Invoke(requestType, data, params, true, sentTicket -> handler.Open(sentTicket, rows)))
+					throw new IOException("Command " + requestType.toString() + " could not be sent");
+				GetResponse(requestType);
+				response.complete(rows);
+			} catch (Exception e) {
+				handler.Withdraw(ticket.get());
+				response.completeExceptionally(e);
+			}
+		});
+		return response;
 	}
 	
 	/**
@@ -114,15 +203,53 @@ public class Protocol {
 	 * @return true, if successful
 	 */
 	public boolean Invoke(RequestType requestType,Object data,Object params,boolean expectingResponse)
+	{
+		return Invoke(requestType, data, params, expectingResponse, null);
+	}
+
+	/**
+	 * Invoke is used to initiate an actual command to the server,
+	 * the ticket of the exchange is handed over before the command is sent, so nothing of its response can arrive before.
+	 *
+	 * @param requestType the request type, the actual command to be sent
+	 * @param data the data that is being sent to the server
+	 * @param params the params constraints that are being sent to the server
+	 * @param expectingResponse true, if a response is awaited
+	 * @param ticketed called with the ticket of the exchange [can be null]
+	 * @return true, if successful
+	 */
+	private boolean Invoke(RequestType requestType,Object data,Object params,boolean expectingResponse,LongConsumer ticketed)
 	{
 		//waiting for another response
-		while(onHold);
-		onHold = expectingResponse;
+		synchronized (this) {
+			while(onHold) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+			onHold = expectingResponse;
+			if(expectingResponse)
+				ticket.set(++sent);
+			if(expectingResponse && ticketed != null)
+				ticketed.accept(ticket.get());
+		}
 		Transaction transaction = new Transaction(requestType,ClientApp.UserID,data,params,expectingResponse);
+		if(expectingResponse)
+			transaction.setTicket(ticket.get());
 		try {
-			ClientApp.ClientConnection.sendToServer(transaction);
+			synchronized (sendLock) {
+				ClientApp.ClientConnection.sendToServer(transaction);
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
+			if(expectingResponse)
+				synchronized (this) {
+					onHold = false;
+					answered = sent;
+					notifyAll();
+				}
 			return FAIL;
 		}
 		
@@ -132,7 +259,8 @@ public class Protocol {
 	/**
 	 * Handles an incoming data from the server
 	 * declines communication if a response for previous request has not been received
-	 * or the transmission is not the type of transaction.
+	 * or the transmission is not the type of transaction,
+	 * a response (or frame) of an exchange that was given up on carries an older ticket and is discarded.
 	 *
 	 * @param msg the msg
 	 * @return true, if successful
@@ -141,11 +269,18 @@ public class Protocol {
 		
 		if(!onHold || !(msg instanceof Transaction)) return false;
 		Transaction response = (Transaction)msg;
-		if(Handlers.get(response.getRequestType()) != null)
-			Responses.put(response.requestType, Handlers.get(response.getRequestType()).HandleResponse(response.getResponse()));
+		if(response.getTicket() != answered + 1) return false;
+		if(Handlers.get(response.getRequestType()) instanceof RowStreamHandler)
+			Responses.put(response.getTicket(), ((RowStreamHandler)Handlers.get(response.getRequestType())).HandleResponse(response.getResponse(), response.getTicket()));
+		else if(Handlers.get(response.getRequestType()) != null)
+			Responses.put(response.getTicket(), Handlers.get(response.getRequestType()).HandleResponse(response.getResponse()));
 		else
-			Responses.put(response.requestType, response.getResponse());
+			Responses.put(response.getTicket(), response.getResponse());
+		/*** a batch sent ahead of the response, the exchange stays open ***/
+		if(response.getResponse() instanceof RowBatch && !((RowBatch)response.getResponse()).isLast())
+			return PASS;
 		onHold = false;
+		answered++;
 		notifyAll();
 		return PASS;
 		
@@ -0,0 +1,81 @@
+package ProtocolHandler;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import client.ClientApp;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The Class RequestScope groups the async requests of a single view.
+ * Responses are handed to the view on the FX thread, and all the requests that are still pending
+ * are cancelled when the view is left (UserControl.onExit), so a late response never touches a view that is gone.
+ */
+public class RequestScope {
+
+	/** The pending requests of the view. */
+	private final ArrayList<CompletableFuture<?>> pending = new ArrayList<>();
+
+	/**
+	 * Sends a request, the response is handed to the view on the FX thread.
+	 *
+	 * @param <T> the response type
+	 * @param requestType the request type, the actual command to be sent
+	 * @param data the data that is being sent to the server
+	 * @param params the params constraints that are being sent to the server
+	 * @param onResponse receives the response on the FX thread, not called if the scope was cancelled
+	 * @return the future response
+	 */
+	public synchronized <T> CompletableFuture<T> Request(RequestType requestType, Object data, Object params, Consumer<T> onResponse)
+	{
+		CompletableFuture<T> response = ClientApp.ProtocolHandler.InvokeAsync(requestType, data, params);
+		pending.removeIf(CompletableFuture::isDone);
+		pending.add(response);
+		response.thenAcceptAsync(result -> {
+			if(!response.isCancelled())
+				onResponse.accept(result);
+		}, Platform::runLater).exceptionally(e -> {
+			if(!response.isCancelled())
+				e.printStackTrace();
+			return null;
+		});
+		return response;
+	}
+
+	/**
+	 * Sends a request whose response is a list sent batch by batch,
+	 * the returned collection is filled on the FX thread as the batches arrive so it can be shown right away.
+	 *
+	 * @param <T> the row type
+	 * @param requestType the request type, the actual command to be sent
+	 * @param data the data that is being sent to the server
+	 * @param params the params constraints that are being sent to the server
+	 * @return the collection the rows are appended to
+	 */
+	public synchronized <T> ObservableList<T> Stream(RequestType requestType, Object data, Object params)
+	{
+		ObservableList<T> rows = FXCollections.observableArrayList();
+		CompletableFuture<ObservableList<T>> response = ClientApp.ProtocolHandler.InvokeStream(requestType, data, params, rows);
+		pending.removeIf(CompletableFuture::isDone);
+		pending.add(response);
+		response.exceptionally(e -> {
+			if(!response.isCancelled())
+				e.printStackTrace();
+			return null;
+		});
+		return rows;
+	}
+
+	/**
+	 * Cancels all the pending requests of the view.
+	 */
+	public synchronized void CancelAll()
+	{
+		for(CompletableFuture<?> response : pending)
+			response.cancel(false);
+		pending.clear();
+	}
+}
@@ -151,7 +151,7 @@ public enum RequestType {
 	/** The Save survey answers is used to store a survey answer */
 	SaveSurveyAnswers,
 	
-	/** The Get survey histogram is used to get a survey in histogram form */
+	/** The Get survey histogram is used to get the answer counts of a survey, drawn as histograms by the client */
 	GetSurveyHistogram,
 	
 	/** The Save PDF is used to store the survey expert report as pdf */
@@ -168,6 +168,39 @@ public enum RequestType {
 	/** The Get report by branch is used to get a report by branch */
 	GetReportByBranch,
 	
-	/** The Get ready surveys is used to get all surveys which have expert report loaded */
+	/** The Get ready surveys is used to list all surveys which have expert report loaded, without their pdf files */
 	GetReadySurveys,
+	
+	/** The Get report previews is used to list the previews and key figures of the reports of a branch within a period */
+	GetReportPreviews,
+	
+	/** The Query catalog is used to get a single filtered and sorted page of the catalog along with its facet counts */
+	QueryCatalog,
+	
+	/** The Search items is used to search the available items by text, returns the matching item ids best match first */
+	SearchItems,
+	
+	/** The Get login bundle is used right after the login to get everything the home screen of the role needs in one response */
+	GetLoginBundle,
+	
+	/** The Sync notifications is used to get only the notifications and status changes since the last sync, along with the unread count */
+	SyncNotifications,
+	
+	/** The Heartbeat is sent periodically by a connected client so the server can tell a live connection from a dead one */
+	Heartbeat,
+	
+	/** The Get survey histogram images is used by the PDF export of the expert to get the histograms rendered as images */
+	GetSurveyHistogramImages,
+	
+	/** The Read stream is used to download a part of a large file (report, survey pdf) without sending the whole file at once */
+	ReadStream,
+	
+	/** The Open upload is used to start uploading a large file in parts, returns the upload id */
+	OpenUpload,
+	
+	/** The Write upload is used to upload the next part of a large file, answered once the part is stored */
+	WriteUpload,
+	
+	/** The Search accounts is used to get a page of the customer or employee accounts matching a search (see AccountQuery) */
+	SearchAccounts,
 }
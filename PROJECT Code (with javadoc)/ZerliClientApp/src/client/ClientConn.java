@@ -1,6 +1,8 @@
 package client;
 
 import java.io.IOException;
+
+import ProtocolHandler.RequestType;
 import ocsf.client.*;
 
 
@@ -9,6 +11,9 @@ import ocsf.client.*;
  */
 public class ClientConn extends AbstractClient{
 	
+	/** The HEARTBEAT_INTERVAL - Const time in milliseconds between two heartbeats, the server drops a connection that was silent for a few of them. */
+	private static final long HEARTBEAT_INTERVAL = 15000;
+	
 	/**
 	 * Instantiates a new client conn.
 	 *
@@ -19,9 +24,29 @@ public class ClientConn extends AbstractClient{
 		super(host, port);
 		try {
 			openConnection();
+			startHeartbeat();
 		} catch (IOException e) {e.printStackTrace();}
 	}
 
+	/**
+	 * Starts the heartbeat thread, it tells the server the client is still alive for as long as the connection is open.
+	 */
+	private void startHeartbeat() {
+		Thread heartbeat = new Thread(() -> {
+			while(isConnected()) {
+				try {
+					Thread.sleep(HEARTBEAT_INTERVAL);
+				} catch (InterruptedException e) {
+					return;
+				}
+				if(isConnected())
+					ClientApp.ProtocolHandler.Invoke(RequestType.Heartbeat, null, null, false);
+			}
+		}, "heartbeat");
+		heartbeat.setDaemon(true);
+		heartbeat.start();
+	}
+
 	/**
 	 * Handle message from server.
 	 *
@@ -0,0 +1,210 @@
+package client;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import Entities.ReportFile;
+import Entities.ReportType;
+import Entities.StreamTarget;
+import ProtocolHandler.RequestType;
+
+/**
+ * The Class ReportCache keeps reports of past periods on the local disk,
+ * a stored report never changes, so a cached copy is only re-downloaded when the
+ * server reports a different checksum for it.
+ * The checksum of a cached report is stored next to it when it is written, so a cached report is never hashed again.
+ * Cached reports are memory mapped instead of being read into the heap.
+ * A report whose branch is not known is not cached.
+ */
+public class ReportCache {
+
+	/** The directory the reports are cached in. */
+	private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".zerli", "reports");
+
+	/**
+	 * Fetches a report, using the cached copy when the server confirms it is up to date.
+	 *
+	 * @param requestType the request type [GetReport, GetReportByBranch]
+	 * @param reportType the report type [income,order,service,ceo]
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param date the report date (if quarterly then the month part is the quarter)
+	 * @param branch the branch of the report, for GetReport the branch of the requester's session [null: not cached]
+	 * @return the report as a read only buffer, null if there is no such report
+	 */
+	public static ByteBuffer Fetch(RequestType requestType, ReportType reportType, boolean isMonthly, LocalDate date, String branch)
+	{
+		Path file = branch == null ? null : CACHE_DIR.resolve(FileName(reportType, isMonthly, date, branch));
+		String checksum = file == null ? null : StoredChecksum(file);
+		ByteBuffer cached = checksum == null ? null : Map(file);
+		ClientApp.ProtocolHandler.Invoke(requestType, null,
+				new Object[] {
+							  reportType,
+							  isMonthly,
+							  date,
+							  requestType == RequestType.GetReportByBranch ? branch : null,
+							  cached == null ? null : checksum
+						     },
+				true);
+		ReportFile response = (ReportFile)ClientApp.ProtocolHandler.GetResponse(requestType);
+		if(response == null)
+			return null;
+		if(response.isUnchanged())
+			return cached;
+		Object[] key = new Object[] {reportType, isMonthly, branch, date};
+		if(file == null)
+		{
+			byte[] report = response.isStreamed() ? StreamTransfer.Download(StreamTarget.Report, key, response.getSize()) : response.getReport();
+			return report == null ? null : ByteBuffer.wrap(report).asReadOnlyBuffer();
+		}
+		if(response.isStreamed())
+			return Stream(file, key, response.getChecksum());
+		return Store(file, response.getReport(), response.getChecksum());
+	}
+
+	/**
+	 * Streams a report straight into the cache and maps the stored copy,
+	 * the report is written to a temporary file first so a partial download is never mapped.
+	 *
+	 * @param file the cached report file
+	 * @param key the key of the report [report type, is monthly, branch, date]
+	 * @param checksum the checksum of the report, as the server reported it
+	 * @return the mapped report, null if it could not be downloaded
+	 */
+	private static ByteBuffer Stream(Path file, Object[] key, String checksum)
+	{
+		try {
+			Files.createDirectories(CACHE_DIR);
+			Path temp = Files.createTempFile(CACHE_DIR, "report", ".tmp");
+			boolean downloaded;
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+				downloaded = StreamTransfer.Download(StreamTarget.Report, key, out);
+			}
+			if(!downloaded)
+			{
+				Files.deleteIfExists(temp);
+				return null;
+			}
+			Replace(file, temp, checksum);
+			return Map(file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Memory maps a cached report.
+	 *
+	 * @param file the cached report file
+	 * @return the mapped report, null if it is not cached
+	 */
+	private static ByteBuffer Map(Path file)
+	{
+		if(!Files.isRegularFile(file))
+			return null;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a report in the cache and maps the stored copy,
+	 * the report is written to a temporary file first so a partial write is never mapped.
+	 *
+	 * @param file the cached report file
+	 * @param report the pdf file
+	 * @param checksum the checksum of the report, as the server reported it
+	 * @return the mapped report, or the report itself if it could not be cached
+	 */
+	private static ByteBuffer Store(Path file, byte[] report, String checksum)
+	{
+		try {
+			Files.createDirectories(CACHE_DIR);
+			Path temp = Files.createTempFile(CACHE_DIR, "report", ".tmp");
+			Files.write(temp, report);
+			Replace(file, temp, checksum);
+			ByteBuffer mapped = Map(file);
+			if(mapped != null)
+				return mapped;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return ByteBuffer.wrap(report).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Replaces a cached report with a written one and stores its checksum next to it.
+	 * The old checksum is removed first, so a report is never taken for another report's checksum.
+	 *
+	 * @param file the cached report file
+	 * @param temp the written report
+	 * @param checksum the checksum of the written report
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void Replace(Path file, Path temp, String checksum) throws IOException
+	{
+		Path stored = ChecksumFile(file);
+		Files.deleteIfExists(stored);
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Path tempChecksum = Files.createTempFile(CACHE_DIR, "report", ".tmp");
+		Files.write(tempChecksum, checksum.getBytes(StandardCharsets.US_ASCII));
+		Files.move(tempChecksum, stored, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the checksum stored with a cached report.
+	 *
+	 * @param file the cached report file
+	 * @return the SHA-256 of the report as hex, null if the report is not cached (or its checksum was not stored)
+	 */
+	private static String StoredChecksum(Path file)
+	{
+		Path stored = ChecksumFile(file);
+		if(!Files.isRegularFile(stored) || !Files.isRegularFile(file))
+			return null;
+		try {
+			return new String(Files.readAllBytes(stored), StandardCharsets.US_ASCII).trim();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the file the checksum of a cached report is stored in.
+	 *
+	 * @param file the cached report file
+	 * @return the checksum file
+	 */
+	private static Path ChecksumFile(Path file)
+	{
+		return file.resolveSibling(file.getFileName() + ".sha256");
+	}
+
+	/**
+	 * Builds the cache file name of a report.
+	 *
+	 * @param reportType the report type
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param date the report date
+	 * @param branch the branch of the report
+	 * @return the file name
+	 */
+	private static String FileName(ReportType reportType, boolean isMonthly, LocalDate date, String branch)
+	{
+		return String.format("%s_%s_%s_%s.pdf", reportType, branch.replaceAll("[^A-Za-z0-9]", "_"), isMonthly ? "M" : "Q", date);
+	}
+}
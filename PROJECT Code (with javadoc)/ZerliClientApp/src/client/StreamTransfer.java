@@ -0,0 +1,107 @@
+package client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import Entities.StreamTarget;
+import ProtocolHandler.RequestType;
+
+/**
+ * The Class StreamTransfer is the client side of the transfer of large files in parts.
+ * Every part is a request of its own and the next part is only sent (or asked for) once the previous one was answered,
+ * so the server is never sent more than a single part ahead and other requests go out between the parts.
+ */
+public class StreamTransfer {
+
+	/** The CHUNK_SIZE - Const size in bytes of a single part. */
+	private static final int CHUNK_SIZE = 256 * 1024;
+
+	/**
+	 * Downloads a large file part by part into a stream.
+	 *
+	 * @param target the file kind
+	 * @param key the key of the file, see StreamTarget
+	 * @param out the stream the file is written to
+	 * @return true, if the whole file was downloaded
+	 */
+	public static boolean Download(StreamTarget target, Object[] key, OutputStream out)
+	{
+		long offset = 0;
+		while(true)
+		{
+			ClientApp.ProtocolHandler.Invoke(RequestType.ReadStream, target, new Object[] {key, offset, CHUNK_SIZE}, true);
+			byte[] chunk = (byte[])ClientApp.ProtocolHandler.GetResponse(RequestType.ReadStream);
+			if(chunk == null)
+				return false;
+			try {
+				out.write(chunk);
+			} catch (IOException e) {
+				e.printStackTrace();
+				return false;
+			}
+			offset += chunk.length;
+			if(chunk.length < CHUNK_SIZE)
+				return true;
+		}
+	}
+
+	/**
+	 * Downloads a large file part by part.
+	 *
+	 * @param target the file kind
+	 * @param key the key of the file, see StreamTarget
+	 * @param size the size of the file, if known
+	 * @return the file, null if it could not be downloaded
+	 */
+	public static byte[] Download(StreamTarget target, Object[] key, int size)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(size, 32));
+		return Download(target, key, out) ? out.toByteArray() : null;
+	}
+
+	/**
+	 * Uploads a large file part by part, the file is read from the stream as it is sent.
+	 *
+	 * @param in the stream of the file, closed once read
+	 * @param size the size in bytes of the file
+	 * @return the upload id to pass to the request the file was uploaded for, null if failed
+	 */
+	public static Integer Upload(InputStream in, long size)
+	{
+		try (InputStream file = in) {
+			ClientApp.ProtocolHandler.Invoke(RequestType.OpenUpload, null, size, true);
+			Integer id = (Integer)ClientApp.ProtocolHandler.GetResponse(RequestType.OpenUpload);
+			if(id == null || id < 0)
+				return null;
+			long offset = 0;
+			while(offset < size)
+			{
+				byte[] chunk = file.readNBytes((int)Math.min(CHUNK_SIZE, size - offset));
+				if(chunk.length == 0)
+					return null;
+				ClientApp.ProtocolHandler.Invoke(RequestType.WriteUpload, chunk, new Object[] {id, offset}, true);
+				if(!Boolean.TRUE.equals(ClientApp.ProtocolHandler.GetResponse(RequestType.WriteUpload)))
+					return null;
+				offset += chunk.length;
+			}
+			return id;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Uploads a large file that is held in memory part by part.
+	 *
+	 * @param data the file
+	 * @return the upload id to pass to the request the file was uploaded for, null if failed
+	 */
+	public static Integer Upload(byte[] data)
+	{
+		return Upload(new ByteArrayInputStream(data), data.length);
+	}
+}
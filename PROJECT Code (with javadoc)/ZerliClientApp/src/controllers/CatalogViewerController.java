@@ -6,14 +6,17 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import Entities.CatalogPage;
+import Entities.CatalogQuery;
+import Entities.CatalogSort;
 import Entities.CatalogType;
 import Entities.Item;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -35,21 +38,37 @@ import javafx.scene.layout.GridPane;
  */
 public class CatalogViewerController implements UserControl {
 
+	/** The TILE_IMAGE_SIZE - Const size of the item image on a tile (see ItemHBox.fxml). */
+	private static final double TILE_IMAGE_SIZE = 170;
+
 	
     @FXML
     private TextField rangeNumber;
     
-    /** The item list. */
-	private ObservableList<Item> itemRangeList;
+    /** The search text. */
+    @FXML
+    private TextField searchText;
+    
+    /** The catalog query of the shown catalog, the pages are requested from the server one at a time. */
+	private CatalogQuery query;
 	
-	/** The item list. */
-	private ObservableList<Item> itemList;
+	/** The catalog pages - the pages of the current query around the shown page. */
+	private Map< Integer ,ArrayList<Item>> catalogPages = new HashMap<>();
 	
-	/** The catalog pages. */
-	private Map< Integer ,ArrayList<Item>> catalogPages;
+	/** The requested pages - the pages of the current query requested in the background and not received yet. */
+	private final HashSet<Integer> requestedPages = new HashSet<>();
+	
+	/** The requests - the background page requests of the current query. */
+	private final RequestScope requests = new RequestScope();
 	
     /** The catalog type. */
     private CatalogType catalogType;
+    
+    /** The tile pool - item tiles built once and rebound to the items of the shown page. */
+    private final ArrayList<Parent> tilePool = new ArrayList<>();
+    
+    /** The tile controllers - the controllers of the pooled tiles, by the same index. */
+    private final ArrayList<ItemHBoxController> tileControllers = new ArrayList<>();
 	
     /** The Grid pane. */
     @FXML
@@ -94,19 +113,41 @@ public class CatalogViewerController implements UserControl {
 			return;
 		}
     	ValidNumberError.setVisible(false);
-    	itemRangeList = FXCollections.observableArrayList();
-    	for(Item item: itemList) {
-    		if(item.getPrice()<= number)
-    			itemRangeList.add(item);
+    	query.setMaxPrice(number);
+    	GridPane.getChildren().clear();
+    	CatalogBuilder();
+    }
+    
+    /**
+     * Search text pressed.
+     * Show the items matching the search text (by name, color or type), best match first
+     * @param event the event
+     */
+    @SuppressWarnings("unchecked")
+    @FXML
+    void searchTextPressed(ActionEvent event) {
+    	String text = searchText.getText().trim();
+    	if(text.isEmpty()) {
+    		query.setItemIds(null);
+    		query.setSort(CatalogSort.catalog);
+    	}
+    	else {
+    		ClientApp.ProtocolHandler.Invoke(RequestType.SearchItems, null, text, true);
+    		query.setItemIds((ArrayList<Integer>) ClientApp.ProtocolHandler.GetResponse(RequestType.SearchItems));
+    		query.setSort(CatalogSort.relevance);
     	}
     	GridPane.getChildren().clear();
-    	CatalogBuilder(itemRangeList);
+    	CatalogBuilder();
     }
     
     @FXML
     void showAllPressed(ActionEvent event) {
+    	query.setMaxPrice(null);
+    	query.setItemIds(null);
+    	query.setSort(CatalogSort.catalog);
+    	searchText.setText("");
     	GridPane.getChildren().clear();
-    	CatalogBuilder(itemList);
+    	CatalogBuilder();
     }
     
     /**
@@ -196,52 +237,29 @@ public class CatalogViewerController implements UserControl {
     	}
     }
     
-    public void CatalogBuilder(ObservableList<Item> itemList) {
-    	int maxpages = ((itemList.size())/(GridPane.getColumnCount()*GridPane.getRowCount()));
-		if((itemList.size())%(GridPane.getColumnCount()*GridPane.getRowCount())!=0) maxpages++;
-		if(maxpages == 0) {
+    /**
+     * Catalog builder.
+     * Request the first page of the current query and set the page count by the number of matching items
+     */
+    public void CatalogBuilder() {
+    	requests.CancelAll();
+    	requestedPages.clear();
+    	catalogPages.clear();
+    	int pageSize = GridPane.getColumnCount()*GridPane.getRowCount();
+    	query.setCursor(0);
+		ClientApp.ProtocolHandler.Invoke(RequestType.QueryCatalog, null, query, true);
+		CatalogPage first = (CatalogPage) ClientApp.ProtocolHandler.GetResponse(RequestType.QueryCatalog);
+		if(first == null || first.getTotal() == 0) {
 			maxPages.setText("0");
 			currentPage.setText("0");
 			return;
 		}
-		else {
-			maxPages.setText(String.valueOf(maxpages));
-			currentPage.setText("1");
-		}
-	
-		
-		catalogPages = new HashMap<>();
-		int currentpages = 1;
-		int columnIndex=0,rowIndex=0;
-		
-		for (Item item : itemList) {
-			
-			if (columnIndex==GridPane.getColumnCount())
-			{
-				columnIndex=0;
-				rowIndex++;
-			}
-			if (rowIndex==GridPane.getRowCount())
-			{
-				rowIndex=0;
-				columnIndex=0;
-				currentpages++;
-			}
-			
-			if(!catalogPages.containsKey(currentpages)) {
-				ArrayList<Item> newPage = new ArrayList<Item>();
-				newPage.add(item);
-				catalogPages.put(currentpages, newPage);
-			}
-			else {
-				ArrayList<Item> samePage = catalogPages.get(currentpages);
-				catalogPages.remove(currentpages);
-				samePage.add(item);
-				catalogPages.put(currentpages, samePage);
-			}
-			
-			columnIndex++;
-		}	
+		int total = first.getTotal();
+    	int maxpages = total/pageSize;
+		if(total%pageSize!=0) maxpages++;
+		maxPages.setText(String.valueOf(maxpages));
+		currentPage.setText("1");
+		catalogPages.put(1, first.getItems());
 		
 		ShowPage(1);
     }
@@ -250,22 +268,16 @@ public class CatalogViewerController implements UserControl {
 	/**
 	 * On enter.
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {	
     	ValidNumberError.setVisible(false);
 		noItemErrorLabel.setVisible(false);
 		catalogType = (CatalogType) LoginController.windowControl.peekPipe("catalog");
-		if(catalogType == CatalogType.new_item) {
-			ClientApp.ProtocolHandler.Invoke(RequestType.GetCatalog, null,CatalogType.pre_define, true);
-			itemList=(ObservableList<Item>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetCatalog);
-			ClientApp.ProtocolHandler.Invoke(RequestType.GetCatalog, null,CatalogType.custom, true);
-			itemList.addAll((ObservableList<Item>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetCatalog));		
-		}
-		else {
-			ClientApp.ProtocolHandler.Invoke(RequestType.GetCatalog, null,catalogType, true);
-			itemList=(ObservableList<Item>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetCatalog);
-		}
+		int pageSize = GridPane.getColumnCount()*GridPane.getRowCount();
+		if(catalogType == CatalogType.new_item)
+			query = new CatalogQuery(pageSize, CatalogType.pre_define, CatalogType.custom);
+		else
+			query = new CatalogQuery(pageSize, catalogType);
 	
 		if(catalogType== CatalogType.custom) {
 			catalogNameLbl.setText("Zerli items");
@@ -281,7 +293,7 @@ public class CatalogViewerController implements UserControl {
 			nextBtn.setVisible(true);
 		}
 		GridPane.getChildren().clear();
-		CatalogBuilder(itemList);
+		CatalogBuilder();
 		
 	}
 	
@@ -291,8 +303,35 @@ public class CatalogViewerController implements UserControl {
 	 */
 	@Override
 	public void onExit() {
+		requests.CancelAll();
+		requestedPages.clear();
 		GridPane.getChildren().clear();
+		catalogPages.clear();
 		rangeNumber.setText("");
+		searchText.setText("");
+	}
+	
+	/**
+	 * The catalog grid holds decoded item images, so it weighs more in the view cache.
+	 *
+	 * @return the weight of the screen
+	 */
+	@Override
+	public int getWeight() {
+		return 6;
+	}
+	
+	/**
+	 * On evict.
+	 * Release the pooled tiles and the received pages
+	 */
+	@Override
+	public void onEvict() {
+		GridPane.getChildren().clear();
+		tilePool.clear();
+		tileControllers.clear();
+		catalogPages.clear();
+		query = null;
 	}
 	
 	/**
@@ -306,15 +345,18 @@ public class CatalogViewerController implements UserControl {
 
 	/**
 	 * Show page.
-	 * Show the current catalog page
+	 * Show the current catalog page, the pooled tiles are rebound to the page items
+	 * and the next page is requested in the background, the images of the adjacent pages are decoded ahead of time
 	 * @param num the num
 	 */
 	public void ShowPage(int num) {
 		GridPane.getChildren().clear();
 		
-		ArrayList<Item> page = catalogPages.get(num);
+		ArrayList<Item> page = GetPage(num);
 		if(page == null) return;
-		int columnIndex=0,rowIndex=0;
+		/*** only the pages next to the shown page are kept ***/
+		catalogPages.keySet().removeIf(other -> Math.abs(other - num) > 1);
+		int columnIndex=0,rowIndex=0,tileIndex=0;
 		for (Item item : page) {
 		
 			if (columnIndex==GridPane.getColumnCount())
@@ -327,23 +369,84 @@ public class CatalogViewerController implements UserControl {
 				break;
 			}
 			
-			FXMLLoader loader=new FXMLLoader();
-			loader.setLocation(getClass().getResource("/gui/components/ItemHBox.fxml"));
-			Parent root;
-			try {
-				root = loader.load();
-			} catch (IOException e) {
-				e.printStackTrace();
-				continue;
-			}
+			ItemHBoxController itemHBoxController=GetTile(tileIndex);
+			if(itemHBoxController == null) continue;
+			itemHBoxController.init(item.getId(),item.getName(),String.valueOf(item.getCurrentPrice()) ,item.getImage(),item.isOnSale());
 			
-			ItemHBoxController itemHBoxController=loader.getController();
-			itemHBoxController.init(item.getId(),item.getName(),String.valueOf(item.getCurrentPrice()) ,item.getJXImage(),item.isOnSale());
-			
-			GridPane.add(root, columnIndex++, rowIndex);
+			GridPane.add(tilePool.get(tileIndex++), columnIndex++, rowIndex);
 		}
-	
 		
+		PrefetchPage(num-1);
+		RequestPage(num+1);
+	}
+	
+	/**
+	 * Request page.
+	 * Requests a page of the current query in the background, once received it is kept and its images are decoded,
+	 * unless the query was changed or the page is no longer next to the shown page
+	 * @param num the page number
+	 */
+	private void RequestPage(int num) {
+		if(catalogPages.containsKey(num)) {
+			PrefetchPage(num);
+			return;
+		}
+		if(num > Integer.parseInt(maxPages.getText()) || !requestedPages.add(num)) return;
+		requests.<CatalogPage>Request(RequestType.QueryCatalog, null, new CatalogQuery(query, (num-1)*query.getPageSize()), received -> {
+			requestedPages.remove(num);
+			if(received == null || received.getItems().isEmpty()) return;
+			if(Math.abs(num - Integer.parseInt(currentPage.getText())) > 1) return;
+			catalogPages.put(num, received.getItems());
+			PrefetchPage(num);
+		});
+	}
+	
+	/**
+	 * Gets a page of the current query, requesting it from the server if it was not received yet.
+	 * @param num the page number
+	 * @return the items of the page, null if there is no such page
+	 */
+	private ArrayList<Item> GetPage(int num) {
+		ArrayList<Item> page = catalogPages.get(num);
+		if(page != null || num < 1) return page;
+		query.setCursor((num-1)*query.getPageSize());
+		ClientApp.ProtocolHandler.Invoke(RequestType.QueryCatalog, null, query, true);
+		CatalogPage received = (CatalogPage) ClientApp.ProtocolHandler.GetResponse(RequestType.QueryCatalog);
+		if(received == null || received.getItems().isEmpty()) return null;
+		catalogPages.put(num, received.getItems());
+		return received.getItems();
+	}
+	
+	/**
+	 * Gets a pooled tile, the tile is built the first time it is needed.
+	 * @param index the tile index on the page
+	 * @return the tile controller, null if the tile could not be built
+	 */
+	private ItemHBoxController GetTile(int index) {
+		if(index < tileControllers.size())
+			return tileControllers.get(index);
+		FXMLLoader loader=new FXMLLoader();
+		loader.setLocation(getClass().getResource("/gui/components/ItemHBox.fxml"));
+		try {
+			tilePool.add(loader.load());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		tileControllers.add(loader.getController());
+		return loader.getController();
+	}
+	
+	/**
+	 * Prefetch page.
+	 * Decode the images of a received page that is not shown yet, so turning to it costs no decoding
+	 * @param num the num
+	 */
+	private void PrefetchPage(int num) {
+		ArrayList<Item> page = catalogPages.get(num);
+		if(page == null) return;
+		for (Item item : page)
+			ItemImageCache.load(item.getId(), item.getImage(), TILE_IMAGE_SIZE, TILE_IMAGE_SIZE, decoded -> {});
 	}
 	
 }
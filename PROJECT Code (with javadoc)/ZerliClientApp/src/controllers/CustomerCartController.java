@@ -9,6 +9,7 @@ import java.util.Optional;
 import Entities.Access;
 import Entities.ItemInList;
 import Entities.NewItem;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
 import javafx.collections.ObservableList;
@@ -37,6 +38,10 @@ public class CustomerCartController implements UserControl {
 	
 	/** The total cost. */
 	private int totalCost=0;
+	
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
+	
     
     /** The Vbox. */
     @FXML
@@ -91,9 +96,8 @@ public class CustomerCartController implements UserControl {
 	
 	/**
 	 * On enter.
-	 * The first action to run - set the items into the list in the cart GUI and calculate the cart cost
+	 * The first action to run - request the cart items, the cart is filled in once they arrive
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {
 		totalCostLabel.setText("0");
@@ -102,9 +106,20 @@ public class CustomerCartController implements UserControl {
 		totalCostLabel.setVisible(true);
 		currency.setVisible(true);
 		TotalCostText.setVisible(true);
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetCart, null, null, true);
-		itemList=(ObservableList<ItemInList>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetCart);
 		clearScreen();
+		nextBtn.setDisable(true);
+		requests.Request(RequestType.GetCart, null, null, this::ShowCart);
+	}
+	
+	/**
+	 * Show cart.
+	 * Set the items into the list in the cart GUI and calculate the cart cost
+	 * @param cart the cart items
+	 */
+	private void ShowCart(ObservableList<ItemInList> cart) {
+		itemList=cart;
+		clearScreen();
+		nextBtn.setDisable(false);
 		if(itemList.size()==0)
 		{
 			clearScreen();
@@ -171,7 +186,28 @@ public class CustomerCartController implements UserControl {
 	 */
 	@Override
 	public void onExit() {
+		requests.CancelAll();
+		clearScreen();
+	}
+	
+	/**
+	 * The cart rows hold item images, so it weighs more in the view cache.
+	 *
+	 * @return the weight of the screen
+	 */
+	@Override
+	public int getWeight() {
+		return 3;
+	}
+	
+	/**
+	 * On evict.
+	 * Release the cart items and their images
+	 */
+	@Override
+	public void onEvict() {
 		clearScreen();
+		itemList = null;
 	}
 }
 
@@ -9,13 +9,17 @@ import java.util.HashMap;
 import java.util.Map;
 import Entities.Access;
 import Entities.ItemInList;
+import Entities.LoginBundle;
 import Entities.NotificationInTable;
+import Entities.NotificationSync;
 import Entities.RedNotificationCircle;
 import ProtocolHandler.RequestType;
+import ProtocolHandler.Handlers.CreditParserHandler;
 import client.ClientApp;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -110,12 +114,23 @@ public class CustomerFrameController implements IContainable{
      *	Reset the notifications 
      */
     void init(){
-    	ClientApp.ProtocolHandler.Invoke(RequestType.GetCart, null, null, true);
-    	@SuppressWarnings("unchecked")
-		ObservableList<ItemInList> list=(ObservableList<ItemInList>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetCart);
-    	for (ItemInList itemInList : list) {
-    		cartNotificationsNumber+=itemInList.getQuantity();
-		}
+    	LoginBundle bundle = (LoginBundle)LoginController.windowControl.peekPipe("Login Bundle");
+    	if (bundle != null)
+    	{
+    		/* the cart count and the currency came along with the login */
+    		cartNotificationsNumber = bundle.getCartQuantity();
+    		if (bundle.getCurrency() != null)
+    			LoginController.windowControl.putPipe("Payment Info", new CreditParserHandler().HandleResponse(bundle.getCurrency()));
+    	}
+    	else
+    	{
+	    	ClientApp.ProtocolHandler.Invoke(RequestType.GetCart, null, null, true);
+	    	@SuppressWarnings("unchecked")
+			ObservableList<ItemInList> list=(ObservableList<ItemInList>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetCart);
+	    	for (ItemInList itemInList : list) {
+	    		cartNotificationsNumber+=itemInList.getQuantity();
+			}
+    	}
     	if (cartNotificationsNumber>0)
     	{
     		cartRedCircleImage.setVisible(true);
@@ -155,28 +170,33 @@ public class CustomerFrameController implements IContainable{
     	
     
      	   	
+    	if (bundle != null)
+    		bellRedCricleLable.setText(String.valueOf(bundle.getUnreadNotifications()));
+     	   	
 		thread =new Thread(new Runnable() {
 			@Override
 			public void run() {
+				NotificationSync cursor = new NotificationSync();
+				ObservableList<NotificationInTable> list = FXCollections.observableArrayList();
 				while(true){
-					ClientApp.ProtocolHandler.Invoke(RequestType.GetNotification, null, null, true);
-					@SuppressWarnings("unchecked")
-					ObservableList<NotificationInTable> list = (ObservableList<NotificationInTable>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetNotification);
-					LoginController.windowControl.putPipe("All Notification", list);
-					int cnt=0;
-					for(NotificationInTable not: list) {
-						if(not.getStatus().equals("unread")) cnt++;
+					ClientApp.ProtocolHandler.Invoke(RequestType.SyncNotifications, null, cursor, true);
+					NotificationSync sync = (NotificationSync) ClientApp.ProtocolHandler.GetResponse(RequestType.SyncNotifications);
+					if(sync != null)
+					{
+						list = applySync(list, sync);
+						cursor = sync.next();
+						LoginController.windowControl.putPipe("All Notification", list);
+						
+						String notificationNumber=String.valueOf(sync.getUnread());
+						Platform.runLater(new Runnable(){
+	
+							@Override
+							public void run() {
+								bellRedCricleLable.setText(notificationNumber);							
+							}
+				    		});
 					}
 					
-					String notificationNumber=String.valueOf(cnt);
-					Platform.runLater(new Runnable(){
-
-						@Override
-						public void run() {
-							bellRedCricleLable.setText(notificationNumber);							
-						}
-			    		});
-					
 					try {
 						Thread.sleep(5000);
 					} catch (InterruptedException e) {
@@ -189,6 +209,28 @@ public class CustomerFrameController implements IContainable{
     	
     }
 
+    /**
+     * Apply a notifications sync.
+     * The notifications that are shown are never changed, a changed notification is replaced by a new one
+     * @param list the notifications before the sync
+     * @param sync the sync response
+     * @return the notifications after the sync
+     */
+    private static ObservableList<NotificationInTable> applySync(ObservableList<NotificationInTable> list, NotificationSync sync) {
+    	if (sync.isFull())
+    		return FXCollections.observableArrayList(sync.getAdded());
+    	if (sync.getAdded().isEmpty() && sync.getChanged().isEmpty())
+    		return list;
+    	ObservableList<NotificationInTable> synced = FXCollections.observableArrayList();
+    	for (NotificationInTable notification : list) {
+    		String status = sync.getChanged().get(notification.getNotificationnumber());
+    		synced.add(status == null ? notification
+    				: new NotificationInTable(notification.getNotificationnumber(), notification.getFrom(), notification.getContent(), status));
+    	}
+    	synced.addAll(sync.getAdded());
+    	return synced;
+    }
+
     /**
      * Bell pressed.
      *	When the ball pressed go to the notifications window
@@ -8,7 +8,6 @@ import java.sql.Timestamp;
 import Entities.Complaint;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -104,13 +103,11 @@ public class CustomerServicePostComplaintController implements UserControl {
 	 * On enter.
 	 * The first action to run - get the branches to show in the comboBox
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {
 		// TODO Auto-generated method stub
 		errorLabel.setVisible(false);
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetBranches,  null, null, true);
-		branchField.setItems((ObservableList<String>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranches));
+		branchField.setItems(LoginController.getBranches());
 	}
 
 	/**
@@ -5,9 +5,8 @@ package controllers;
 
 import java.sql.Timestamp;
 import Entities.Complaint;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -23,6 +22,9 @@ import javafx.scene.input.MouseEvent;
  *The class implement user control interface to be able to insert into frame users GUI
  */
 public class CustomerServiceViewComplaintsController implements UserControl{
+	
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
 
     /** The Post button. */
     @FXML
@@ -87,14 +89,12 @@ public class CustomerServiceViewComplaintsController implements UserControl{
 	 * On enter.
 	 * The first action to run - initialize the table columns
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {
 		userIDColumn.setCellValueFactory(new PropertyValueFactory<>("user_id"));
 		postTimeColumn.setCellValueFactory(new PropertyValueFactory<>("Comp_date"));
 		branchColumn.setCellValueFactory(new PropertyValueFactory<>("branch"));
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetComplaints,  null, null, true);
-		complaintsTable.setItems((ObservableList<Complaint>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetComplaints));
+		complaintsTable.setItems(requests.Stream(RequestType.GetComplaints, null, null));
 	}
 
 	/**
@@ -102,8 +102,7 @@ public class CustomerServiceViewComplaintsController implements UserControl{
 	 */
 	@Override
 	public void onExit() {
-		// TODO Auto-generated method stub
-		
+		requests.CancelAll();
 	}
 
 }
@@ -4,8 +4,8 @@
 package controllers;
 
 import Entities.Order;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -22,6 +22,9 @@ import javafx.scene.input.MouseEvent;
  */
 public class CustomerViewOrdersController implements UserControl{
 	
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
+	
 	/** The order list. */
 	ObservableList<Order> orderList;
 	
@@ -89,17 +92,14 @@ public class CustomerViewOrdersController implements UserControl{
 	 * On enter.
 	 * The first action to run -  get the customer orders from the Data base and initialize the table columns
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetAllCustomerOrders, null, null, true);
-		orderList = (ObservableList<Order>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetAllCustomerOrders);
-		
 		OrderNumberCol.setCellValueFactory(new PropertyValueFactory<>("orderID"));	
 		priceCol.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));	
 	    OrderDateCol.setCellValueFactory(new PropertyValueFactory<>("order_date"));
 	    shippingDateCol.setCellValueFactory(new PropertyValueFactory<>("shipping_date"));
 	    statusCol.setCellValueFactory(new PropertyValueFactory<>("order_status"));
+	    orderList = requests.Stream(RequestType.GetAllCustomerOrders, null, null);
 	    OrderViewTable.setItems(orderList);
 	}
 
@@ -107,6 +107,8 @@ public class CustomerViewOrdersController implements UserControl{
 	 * On exit.
 	 */
 	@Override
-	public void onExit() {}
+	public void onExit() {
+		requests.CancelAll();
+	}
 
 }
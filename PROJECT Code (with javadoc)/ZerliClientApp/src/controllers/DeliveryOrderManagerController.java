@@ -4,8 +4,8 @@
 package controllers;
 
 import Entities.Order;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -21,6 +21,9 @@ import javafx.scene.input.MouseEvent;
  *The class implement user control interface to be able to insert into frame users GUI
  */
 public class DeliveryOrderManagerController implements UserControl{
+	
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
 
 	/** The observable list. */
 	private ObservableList<Order> observableList;
@@ -87,7 +90,6 @@ public class DeliveryOrderManagerController implements UserControl{
 		 * On enter.
 		 * The first action to run - initialize the table columns and get the branches names
 		 */
-		@SuppressWarnings("unchecked")
 		@Override
 		public void onEnter() {
 			branchName.setText((String) LoginController.windowControl.peekPipe("Branch"));
@@ -97,15 +99,19 @@ public class DeliveryOrderManagerController implements UserControl{
 			adressCol.setCellValueFactory(new PropertyValueFactory<>("address"));
 			cityCol.setCellValueFactory(new PropertyValueFactory<>("city"));
 			
-			ClientApp.ProtocolHandler.Invoke(RequestType.GetOrdersByBranch,  LoginController.windowControl.peekPipe("Branch"), "delivery", true);
-			observableList = (ObservableList<Order>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetOrdersByBranch);
-			ordersTable.setItems(observableList);
+			ordersTable.setItems(null);
+			requests.Request(RequestType.GetOrdersByBranch, LoginController.windowControl.peekPipe("Branch"), "delivery", (ObservableList<Order> orders) -> {
+				observableList = orders;
+				ordersTable.setItems(observableList);
+			});
 		}
 
 		/**
 		 * On exit.
 		 */
 		@Override
-		public void onExit() {}
+		public void onExit() {
+			requests.CancelAll();
+		}
 
 }
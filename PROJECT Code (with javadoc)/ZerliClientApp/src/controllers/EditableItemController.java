@@ -13,7 +13,6 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.ImagePattern;
@@ -85,12 +84,15 @@ public class EditableItemController {
      *
      * @param id the id
      * @param name the name
-     * @param image the image
+     * @param image the encoded image, decoded in the background at the tile size
      */
-    public void init(int id,String name,Image image) 
+    public void init(int id,String name,byte[] image) 
     {
     	this.id=id;
 		nameLabel.setText(name);
-		imageRec.setFill(new ImagePattern(image));
+		imageRec.setFill(ItemImageCache.PLACEHOLDER);
+		ItemImageCache.load(id, image, imageRec.getWidth(), imageRec.getHeight(), decoded -> {
+			if(this.id == id) imageRec.setFill(new ImagePattern(decoded));
+		});
     }
 }
@@ -6,7 +6,6 @@ package controllers;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.ArrayList;
 import Entities.CatalogType;
 import Entities.Color;
@@ -14,6 +13,7 @@ import Entities.Item;
 import Entities.ItemType;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
+import client.StreamTransfer;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -45,6 +45,9 @@ public class ItemDesignerController implements UserControl {
 	/** The image data. */
 	FileInputStream imagedata = null;
 	
+	/** The size in bytes of the image. */
+	long imagesize = 0;
+	
 	/** The new item. */
 	private Item newItem;
 	
@@ -119,18 +122,14 @@ public class ItemDesignerController implements UserControl {
      */
     @FXML
     void addBtn_Click(ActionEvent event) {
-    	byte[] buf = null;
+    	Integer imageUpload = null;
     	if(!inputValid()) return;
-    	if(ItemImage.getImage() != null)
+    	/*** the image is uploaded in parts as it is read from the disk ***/
+    	if(ItemImage.getImage() != null && imagedata != null)
     	{
-    		try {
-				buf = imagedata.readAllBytes();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+    		imageUpload = StreamTransfer.Upload(imagedata, imagesize);
+    		imagedata = null;
     	}
-    	else
-    		buf = null;
     	CatalogType ctype;
     	if(catalogTypes.getSelectedToggle().equals(ItemRB))
     	{
@@ -140,8 +139,8 @@ public class ItemDesignerController implements UserControl {
     	{
     		ctype = CatalogType.pre_define;
     	}
-    	newItem = new Item(0, name.getText(), Integer.parseInt(price.getText()), ctype, Utilities.GenericUtilties.StringToItemType(itemType.getValue()),Utilities.GenericUtilties.StringToColor(itemColor.getValue()), buf,onSaleCB.isSelected(),  Integer.parseInt(salePrice.getText()));
-    	ClientApp.ProtocolHandler.Invoke(RequestType.AddItem, newItem, null, false);
+    	newItem = new Item(0, name.getText(), Integer.parseInt(price.getText()), ctype, Utilities.GenericUtilties.StringToItemType(itemType.getValue()),Utilities.GenericUtilties.StringToColor(itemColor.getValue()), null,onSaleCB.isSelected(),  Integer.parseInt(salePrice.getText()));
+    	ClientApp.ProtocolHandler.Invoke(RequestType.AddItem, newItem, imageUpload, false);
     	cancelBtn_press(null);
     }
 
@@ -215,6 +214,7 @@ public class ItemDesignerController implements UserControl {
             ItemImage.setImage(image);
             try {
 				imagedata = new FileInputStream(file);
+				imagesize = file.length();
 			} catch (FileNotFoundException e) {
 				e.printStackTrace();
 			}
@@ -14,7 +14,6 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
@@ -156,20 +155,28 @@ public class ItemHBoxController extends HBox {
      * @param id the id
      * @param name the name
      * @param costLabel the cost label
-     * @param image the image
+     * @param image the encoded image, decoded in the background at the tile size
      * @param onSale the on sale
      */
-    public void init(int id,String name,String costLabel,Image image,boolean onSale) 
+    public void init(int id,String name,String costLabel,byte[] image,boolean onSale) 
     {
     	if(LoginController.windowControl.peekPipe("catalog") == CatalogType.new_item) {
     		addToCartBtn.setText("Add to"+"\n"+"private product");
     	}
+    	else {
+    		addToCartBtn.setText("Add to cart");
+    	}
     	this.id=id;
+    	counter=0;
     	addLbl.setVisible(false);
+    	addToCartBtn.setVisible(true);
 
     	CostLabel.setText(costLabel+ " " + Utilities.Constants.SHEKEL);
 		nameLabel.setText(name);
-		imageRec.setFill(new ImagePattern(image));
+		imageRec.setFill(ItemImageCache.PLACEHOLDER);
+		ItemImageCache.load(id, image, imageRec.getWidth(), imageRec.getHeight(), decoded -> {
+			if(this.id == id) imageRec.setFill(new ImagePattern(decoded));
+		});
 		quntityLabel.setText("0");
 		saleLabel2.setVisible(onSale);
     }
@@ -0,0 +1,222 @@
+package controllers;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+/**
+ * The Class ItemImageCache - shared cache of decoded item images for the catalog tiles.
+ * Images are decoded in the background at the size they are displayed in (not at full resolution),
+ * and kept by (item, image version, display size) so paging back and forth through a catalog costs no decoding.
+ * The image version is derived from the image content, an item whose image was edited gets a new entry.
+ * The version of a received image is computed once, in the background, and then looked up by the image array.
+ * The cache is bounded by the memory of the decoded bitmaps, the least recently used images are evicted first.
+ */
+public class ItemImageCache {
+
+	/** The MAX_BYTES - Const memory bound of all decoded images (32MB). */
+	private static final long MAX_BYTES = 32L * 1024 * 1024;
+
+	/** The PLACEHOLDER - Const fill shown on a tile until its image is decoded. */
+	public static final Paint PLACEHOLDER = Color.web("#EDEDED");
+
+	/** The decoder - background threads decoding the images. */
+	private static final ExecutorService decoder = Executors.newFixedThreadPool(2, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "image-decode");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/** The images - decoded images in access order (LRU first). */
+	private static final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+
+	/** The decoding - decodes in progress, so a tile shown twice does not decode twice. */
+	private static final ConcurrentHashMap<Key, CompletableFuture<Image>> decoding = new ConcurrentHashMap<>();
+
+	/** The versions - the content hash of every received image, by the image array (arrays hash by identity). */
+	private static final WeakHashMap<byte[], Integer> versions = new WeakHashMap<>();
+
+	/** The usedBytes - memory of all the decoded images. */
+	private static long usedBytes = 0;
+
+	/**
+	 * Loads the image of an item at its display size.
+	 * A cached image is handed over immediately, otherwise the image is decoded in the background
+	 * and handed over on the FX thread once ready.
+	 * @param itemId - the item id
+	 * @param image - the encoded image of the item
+	 * @param width - the display width
+	 * @param height - the display height
+	 * @param onReady - receives the decoded image on the FX thread
+	 * @return true, if the image was cached and onReady was already called
+	 */
+	public static boolean load(int itemId, byte[] image, double width, double height, Consumer<Image> onReady) {
+		if (image == null)
+			return false;
+		int w = (int) Math.ceil(width), h = (int) Math.ceil(height);
+		Integer version = knownVersion(image);
+		if (version != null) {
+			Image cached = get(new Key(itemId, version, w, h));
+			if (cached != null) {
+				onReady.accept(cached);
+				return true;
+			}
+		}
+		/*** an image seen for the first time is hashed off the FX thread ***/
+		CompletableFuture.supplyAsync(() -> version(image), decoder)
+				.thenCompose(v -> {
+					Key key = new Key(itemId, v, w, h);
+					Image cached = get(key);
+					return cached != null ? CompletableFuture.completedFuture(cached)
+							: decoding.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> decode(k, image), decoder));
+				})
+				.thenAccept(decoded -> {
+					if (decoded != null)
+						Platform.runLater(() -> onReady.accept(decoded));
+				});
+		return false;
+	}
+
+	/**
+	 * Gets the version of an image that was hashed already.
+	 * @param image - the encoded image
+	 * @return the version, null if the image was not hashed yet
+	 */
+	private static synchronized Integer knownVersion(byte[] image) {
+		return versions.get(image);
+	}
+
+	/**
+	 * Gets the version of an image, hashing the image the first time it is seen.
+	 * @param image - the encoded image
+	 * @return the version
+	 */
+	private static int version(byte[] image) {
+		Integer version = knownVersion(image);
+		if (version != null)
+			return version;
+		int hashed = Arrays.hashCode(image);
+		synchronized (ItemImageCache.class) {
+			versions.put(image, hashed);
+		}
+		return hashed;
+	}
+
+	/**
+	 * Decodes an image at its display size and stores it.
+	 * @param key - the image key
+	 * @param image - the encoded image
+	 * @return the decoded image, null if the image could not be decoded
+	 */
+	private static Image decode(Key key, byte[] image) {
+		try {
+			Image decoded = new Image(new ByteArrayInputStream(image), key.width, key.height, true, true);
+			if (decoded.isError())
+				return null;
+			put(key, decoded);
+			return decoded;
+		} finally {
+			decoding.remove(key);
+		}
+	}
+
+	/**
+	 * Gets a decoded image.
+	 * @param key - the image key
+	 * @return the image, null if not cached
+	 */
+	private static synchronized Image get(Key key) {
+		return images.get(key);
+	}
+
+	/**
+	 * Stores a decoded image, evicting the least recently used images beyond the memory bound.
+	 * @param key - the image key
+	 * @param image - the decoded image
+	 */
+	private static synchronized void put(Key key, Image image) {
+		Image previous = images.put(key, image);
+		if (previous != null)
+			usedBytes -= bytes(previous);
+		usedBytes += bytes(image);
+		Iterator<Image> lru = images.values().iterator();
+		while (usedBytes > MAX_BYTES && lru.hasNext()) {
+			Image evicted = lru.next();
+			if (evicted == image)
+				continue;
+			usedBytes -= bytes(evicted);
+			lru.remove();
+		}
+	}
+
+	/**
+	 * Memory of a decoded image (4 bytes a pixel).
+	 * @param image - the image
+	 * @return the bytes
+	 */
+	private static long bytes(Image image) {
+		return (long) image.getWidth() * (long) image.getHeight() * 4;
+	}
+
+	/**
+	 * The Class Key - identifies a decoded image by item, image version and display size.
+	 */
+	private static class Key {
+
+		/** The itemId - the item id. */
+		private final int itemId;
+
+		/** The version - the version of the item image (content hash). */
+		private final int version;
+
+		/** The width - the display width. */
+		private final int width;
+
+		/** The height - the display height. */
+		private final int height;
+
+		/**
+		 * Instantiates a new key.
+		 * @param itemId - the item id
+		 * @param version - the version of the item image
+		 * @param width - the display width
+		 * @param height - the display height
+		 */
+		Key(int itemId, int version, int width, int height) {
+			this.itemId = itemId;
+			this.version = version;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return itemId == other.itemId && version == other.version && width == other.width && height == other.height;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(itemId, version, width, height);
+		}
+	}
+}
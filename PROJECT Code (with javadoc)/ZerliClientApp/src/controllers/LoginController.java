@@ -5,9 +5,12 @@ package controllers;
 
 import java.io.IOException;
 import Entities.Access;
+import Entities.LoginBundle;
 import Entities.Roles;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -133,22 +136,20 @@ public class LoginController {
     		if (loggedIn==0)
     		{
     			Roles role =(Roles)loginDetails[2];
-    			FXMLLoader loader = new FXMLLoader();
+    			ViewPreloader.Preload(role);
+    			FXMLLoader loader = null;
     	    	Parent root = null;
     	    	ClientApp.UserID =userNameText.getText();
     	    	ClientApp.UserStatus = access;
+    	    	LoginBundle bundle = getLoginBundle(role);
     	    	if(role == Roles.customer)
     	    	{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/CustomerMainScreen.fxml"));
-    			
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/CustomerMainScreen.fxml");
+    				root = loader.getRoot();
     				CustomerFrameController cfc= loader.getController();
     				windowControl = new WindowControl(cfc);
+    				windowControl.putPipe("Login Bundle", bundle);
     				windowControl.setUserControl("/gui/usercontrols/CustomerHomePage.fxml");
     				cfc.init();
     					
@@ -156,43 +157,30 @@ public class LoginController {
         		if(role == Roles.manager)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/ManagerMainScreen.fxml"));
-
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/ManagerMainScreen.fxml");
+    				root = loader.getRoot();
     				ManagerFrameController mfc= loader.getController();
     				windowControl = new WindowControl(mfc);
+    				windowControl.putPipe("Login Bundle", bundle);
 					mfc.init();
     				windowControl.setUserControl("/gui/usercontrols/ManagerHomePage.fxml");
         		}
         		if(role == Roles.delivery)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/DeliveryMainScreen.fxml"));
-
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/DeliveryMainScreen.fxml");
+    				root = loader.getRoot();
     				DeliveryFrameController mfc= loader.getController();
     				windowControl = new WindowControl(mfc);
+    				windowControl.putPipe("Login Bundle", bundle);
 					mfc.init();
     				windowControl.setUserControl("/gui/usercontrols/DeliveryOrderManager.fxml");
         		}
         		if(role == Roles.marketing)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/MarketingMainScreen.fxml"));
-
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/MarketingMainScreen.fxml");
+    				root = loader.getRoot();
     				MarketingFrameController mfc= loader.getController();
     				windowControl = new WindowControl(mfc);
 					mfc.init();
@@ -201,15 +189,11 @@ public class LoginController {
         		if(role == Roles.service)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/CustomerServiceMainScreen.fxml"));
-
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/CustomerServiceMainScreen.fxml");
+    				root = loader.getRoot();
     				CustomerServiceFrameController mfc= loader.getController();
     				windowControl = new WindowControl(mfc);
+    				windowControl.putPipe("Login Bundle", bundle);
     				windowControl.putPipe("service frame controller", mfc);
 					mfc.init();
     				windowControl.setUserControl("/gui/usercontrols/ServiceHomePage.fxml");
@@ -218,12 +202,8 @@ public class LoginController {
         		if(role==Roles.expert)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/ExpertMainScreen.fxml"));
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/ExpertMainScreen.fxml");
+    				root = loader.getRoot();
     				ExpertMainFrameController efc= loader.getController();
     				windowControl = new WindowControl(efc);
     				efc.init();
@@ -232,15 +212,11 @@ public class LoginController {
         		if(role == Roles.ceo)
         		{
         			windowControl.stage.close();
-    				loader.setLocation(getClass().getResource("/gui/mainframes/CEOMainScreen.fxml"));
-
-    				try {
-    					root =  loader.load();
-    				} catch (IOException e) {
-    					e.printStackTrace();
-    				} 
+    				loader = ViewPreloader.Load("/gui/mainframes/CEOMainScreen.fxml");
+    				root = loader.getRoot();
     				CEOFrameController mfc= loader.getController();
     				windowControl = new WindowControl(mfc);
+    				windowControl.putPipe("Login Bundle", bundle);
 					mfc.init();
     				windowControl.setUserControl("/gui/usercontrols/ServiceHomePage.fxml");
         		}
@@ -267,23 +243,21 @@ public class LoginController {
     	}
     	else if(access==Access.inactive)
     	{
-    		FXMLLoader loader = new FXMLLoader();
+    		FXMLLoader loader = null;
 	    	Parent root = null;
 	    	ClientApp.UserID =userNameText.getText();
 	    	ClientApp.UserStatus = access;
     		Roles role =(Roles)loginDetails[2];
     		if(role == Roles.customer)
 	    	{
+    			ViewPreloader.Preload(role);
+    			LoginBundle bundle = getLoginBundle(role);
     			windowControl.stage.close();
-				loader.setLocation(getClass().getResource("/gui/mainframes/CustomerMainScreen.fxml"));
-			
-				try {
-					root =  loader.load();
-				} catch (IOException e) {
-					e.printStackTrace();
-				} 
+				loader = ViewPreloader.Load("/gui/mainframes/CustomerMainScreen.fxml");
+				root = loader.getRoot();
 				CustomerFrameController cfc= loader.getController();
 				windowControl = new WindowControl(cfc);
+				windowControl.putPipe("Login Bundle", bundle);
 				windowControl.setUserControl("/gui/usercontrols/CustomerHomePage.fxml");
 				cfc.init();
 				Stage newStage = new Stage();
@@ -302,6 +276,35 @@ public class LoginController {
     	}
 	}
     
+    /**
+     * Gets the login bundle, everything the home screen of the role needs in a single request.
+     *
+     * @param role the role of the user
+     * @return the login bundle, null for the roles whose home screen needs nothing from the server
+     */
+    private LoginBundle getLoginBundle(Roles role)
+    {
+    	if(role == Roles.marketing || role == Roles.expert)
+    		return null;
+    	ClientApp.ProtocolHandler.Invoke(RequestType.GetLoginBundle, null, role, true);
+    	return (LoginBundle)ClientApp.ProtocolHandler.GetResponse(RequestType.GetLoginBundle);
+    }
+    
+    /**
+     * Gets the branches, the ones that came along with the login when there are, otherwise from the server.
+     *
+     * @return the branches
+     */
+    @SuppressWarnings("unchecked")
+	public static ObservableList<String> getBranches()
+    {
+    	LoginBundle bundle = (LoginBundle)windowControl.peekPipe("Login Bundle");
+    	if(bundle != null && bundle.getBranches() != null)
+    		return FXCollections.observableArrayList(bundle.getBranches());
+    	ClientApp.ProtocolHandler.Invoke(RequestType.GetBranches, null, null, true);
+    	return (ObservableList<String>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranches);
+    }
+    
     /**
      * Login pressed.
      * When pressed Login get the user details and start the login process
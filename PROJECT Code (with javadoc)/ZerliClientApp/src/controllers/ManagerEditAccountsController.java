@@ -6,7 +6,10 @@ package controllers;
 import java.util.ArrayList;
 import Entities.Access;
 import Entities.AccountInfo;
+import Entities.AccountPage;
+import Entities.AccountQuery;
 import Entities.Roles;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
 import Utilities.GenericUtilties;
 import client.ClientApp;
@@ -16,11 +19,13 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -35,11 +40,20 @@ import javafx.scene.layout.AnchorPane;
  */
 public class ManagerEditAccountsController implements UserControl{
 
-	/** The customer list. */
-	ObservableList<AccountInfo> customerList;
+	/** The PAGE_SIZE - Const number of accounts asked for at a time. */
+	private static final int PAGE_SIZE = 50;
 	
-	/** The employee list. */
-	ObservableList<AccountInfo> employeeList;
+	/** The ALL - Const filter choice that applies no filter. */
+	private static final String ALL = "All";
+
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
+
+	/** The accounts of the pages shown so far. */
+	ObservableList<AccountInfo> accountList = FXCollections.observableArrayList();
+	
+	/** The cursor of the next page, null if the last page is shown. */
+	String nextCursor;
 	
 	/** The account info. */
 	AccountInfo accountInfo = null;
@@ -107,6 +121,18 @@ public class ManagerEditAccountsController implements UserControl{
     /** The change error label. */
     @FXML
     private Label changeErrorLbl;
+    
+    /** The search field. */
+    @FXML
+    private TextField searchField;
+    
+    /** The filter choice, status for customers and role for employees. */
+    @FXML
+    private ComboBox<String> filterChoice;
+    
+    /** The show more button. */
+    @FXML
+    private Button moreBtn;
 
     /**
      * Change account info pressed.
@@ -129,16 +155,14 @@ public class ManagerEditAccountsController implements UserControl{
     			Access newAccess =  GenericUtilties.StringToAccessStatus(accountInfoChoice.getValue());
         		ClientApp.ProtocolHandler.Invoke(RequestType.UpdateAccountAccess, newAccess, accountInfo.getUserID(), false);
         		str = "Customer " + fullNameLbl.getText() + " changed access to " + accountInfoChoice.getValue();
-        		accountType.selectToggle(employeeBtn);
-        		accountType.selectToggle(customerBtn);
     		}
     		else {
         		Roles newRole = GenericUtilties.StringToRoles(accountInfoChoice.getValue());
         		ClientApp.ProtocolHandler.Invoke(RequestType.UpdateEmployeeRole, newRole, accountInfo.getUserID(), false);
         		str = "Employee " + fullNameLbl.getText() + " changed role to " + accountInfoChoice.getValue();
-        		accountType.selectToggle(customerBtn);
-        		accountType.selectToggle(employeeBtn);
     		}
+    		changeSection.setVisible(false);
+    		Search();
     	}
     }
 
@@ -151,16 +175,15 @@ public class ManagerEditAccountsController implements UserControl{
     void getAccountInfo(MouseEvent event) {
     	if (event.getButton().equals(MouseButton.PRIMARY) && event.getClickCount() == 2) {
     		accountInfoChoice.setValue(null);
+    		if(AccountManagment.getSelectionModel().getSelectedItem() == null)
+    			return;
+    		accountInfo = AccountManagment.getSelectionModel().getSelectedItem();
     		
     		if(customerBtn.isSelected()) {
-    			accountInfo = customerList.get(AccountManagment.getSelectionModel().getSelectedIndex());
     			accountInfoLbl.setText(GenericUtilties.AccessStatusToString(accountInfo.getAccess()));
-    			accountType.selectToggle(customerBtn);
     		}
     		else if(employeeBtn.isSelected()){
-    			accountInfo = employeeList.get(AccountManagment.getSelectionModel().getSelectedIndex());
     			accountInfoLbl.setText(GenericUtilties.RolesToString(accountInfo.getRole()));
-    			accountType.selectToggle(employeeBtn);
     		}
     		fullNameLbl.setText(accountInfo.getFirstName() + " " + accountInfo.getLastName());
     		changeSection.setVisible(true);
@@ -169,6 +192,66 @@ public class ManagerEditAccountsController implements UserControl{
     }
     
 
+    /**
+     * Search pressed.
+     * When the search text or the filter changes show the first page of the matching accounts
+     * @param event the event
+     */
+    @FXML
+    void searchPressed(ActionEvent event) {
+    	if(accountType.getSelectedToggle() != null)
+    		Search();
+    }
+    
+    /**
+     * More pressed.
+     * When pressed add the next page of the matching accounts to the table
+     * @param event the event
+     */
+    @FXML
+    void morePressed(ActionEvent event) {
+    	if(nextCursor != null)
+    		LoadPage(nextCursor);
+    }
+    
+    /**
+     * Shows the first page of the accounts matching the search text and filter.
+     */
+    private void Search() {
+    	requests.CancelAll();
+    	accountList.clear();
+    	nextCursor = null;
+    	moreBtn.setVisible(false);
+    	LoadPage(null);
+    }
+    
+    /**
+     * Asks for a page of the matching accounts, the page is added to the table once received.
+     * @param after the user id of the last account shown, null for the first page
+     */
+    private void LoadPage(String after) {
+    	boolean employees = accountType.getSelectedToggle() == employeeBtn;
+    	AccountQuery query = new AccountQuery(PAGE_SIZE, employees);
+    	query.setText(searchField.getText());
+    	String filter = filterChoice.getValue();
+    	if(filter != null && !filter.equals(ALL)) {
+    		if(employees)
+    			query.setRole(GenericUtilties.StringToRoles(filter));
+    		else
+    			query.setAccess(GenericUtilties.StringToAccessStatus(filter));
+    	}
+    	query.setAfter(after);
+    	moreBtn.setDisable(true);
+    	requests.Request(RequestType.SearchAccounts, null, query, (AccountPage page) -> {
+    		moreBtn.setDisable(false);
+    		if(page == null)
+    			return;
+    		accountList.addAll(page.getAccounts());
+    		nextCursor = page.getNextCursor();
+    		moreBtn.setVisible(nextCursor != null);
+    	});
+    }
+
     /**
      * Back pressed.
      * When the back pressed go to the previous page (Manager Account Managment)
@@ -202,6 +285,8 @@ public class ManagerEditAccountsController implements UserControl{
 		changeSection.setVisible(false);
 		customerBtn.setSelected(false);
 		employeeBtn.setSelected(false);
+		searchField.setText("");
+		AccountManagment.setItems(accountList);
 		
 		ArrayList<String> accountStatusList = new ArrayList<>();
 		accountStatusList.add("Inactive");
@@ -222,32 +307,35 @@ public class ManagerEditAccountsController implements UserControl{
 		accountType.selectToggle(null);
 		accountType.selectedToggleProperty().addListener(new ChangeListener<Toggle>() {
 
-			@SuppressWarnings("unchecked")
 			@Override
 			public void changed(ObservableValue<? extends Toggle> observable, Toggle oldValue, Toggle newValue) {
 				if (newValue == null) {}
 				else if(!newValue.equals(oldValue))
 				{	 
+					ArrayList<String> filters = new ArrayList<>();
+					filters.add(ALL);
 					if(newValue.equals(customerBtn))
 					{
-						ClientApp.ProtocolHandler.Invoke(RequestType.GetAllCustomersInfo, null, null, true);
-						customerList = (ObservableList<AccountInfo>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetAllCustomersInfo);
 						accountInfoChoice.setItems( FXCollections.observableArrayList(accountStatusList));
+						filters.addAll(accountStatusList);
 						accountInfoCol.setText("Status");
 						accountInfoCol.setCellValueFactory(new PropertyValueFactory<>("access"));
-						AccountManagment.setItems(customerList);
 					}
 					else
 					{
-						ClientApp.ProtocolHandler.Invoke(RequestType.GetAllEmployeesInfo, null, null, true);
-						employeeList = (ObservableList<AccountInfo>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetAllEmployeesInfo);
 						accountInfoChoice.setItems( FXCollections.observableArrayList(employeeRoleList));
+						filters.addAll(employeeRoleList);
 						accountInfoCol.setText("Role");
 						accountInfoCol.setCellValueFactory(new PropertyValueFactory<>("role"));
-					    AccountManagment.setItems(employeeList);
 					}
+					/*** the filter is reset without searching, the accounts are searched once below ***/
+					filterChoice.setOnAction(null);
+					filterChoice.setItems(FXCollections.observableArrayList(filters));
+					filterChoice.setValue(ALL);
+					filterChoice.setOnAction(event -> searchPressed(event));
 					accountsSection.setVisible(true);
 					changeSection.setVisible(false);
+					Search();
 				}
 			}
 		});
@@ -259,6 +347,7 @@ public class ManagerEditAccountsController implements UserControl{
 	 */
 	@Override
 	public void onExit() {
+		requests.CancelAll();
 		accountType.selectToggle(null);
 	}
 
@@ -5,6 +5,7 @@ package controllers;
 
 import java.io.IOException;
 
+import Entities.LoginBundle;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
 import javafx.event.ActionEvent;
@@ -141,8 +142,14 @@ public class ManagerFrameController implements IContainable {
 	 */
 	public void init() {
 		userLabel.setText(ClientApp.UserID.toString());
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetBranch, "Manager", null, true);
-		LoginController.windowControl.putPipe("Branch", (String)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranch));
+		LoginBundle bundle = (LoginBundle)LoginController.windowControl.peekPipe("Login Bundle");
+		if(bundle != null)
+			LoginController.windowControl.putPipe("Branch", bundle.getBranch());
+		else
+		{
+			ClientApp.ProtocolHandler.Invoke(RequestType.GetBranch, "Manager", null, true);
+			LoginController.windowControl.putPipe("Branch", (String)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranch));
+		}
 	}
 
 }
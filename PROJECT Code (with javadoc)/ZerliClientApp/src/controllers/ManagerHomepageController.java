@@ -3,7 +3,10 @@
  */
 package controllers;
 
+import Entities.LoginBundle;
+import Entities.Roles;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.layout.AnchorPane;
 
 /**
@@ -15,12 +18,24 @@ public class ManagerHomepageController implements UserControl{
     @FXML
     private AnchorPane activePanelContainer;
 
+    /** The pending orders label. */
+    @FXML
+    private Label pendingOrdersLabel;
+
 	/**
 	 * On enter.
+	 * Shows the number of orders waiting on the branch board
 	 */
 	@Override
 	public void onEnter() {
-		
+		LoginBundle bundle = (LoginBundle)LoginController.windowControl.peekPipe("Login Bundle");
+		if(bundle == null || bundle.getRole() != Roles.manager || bundle.getPendingOrders() == 0)
+		{
+			pendingOrdersLabel.setVisible(false);
+			return;
+		}
+		pendingOrdersLabel.setText(bundle.getPendingOrders() + " orders are waiting for your confirmation");
+		pendingOrdersLabel.setVisible(true);
 	}
 
 	/**
@@ -3,9 +3,10 @@
  */
 package controllers;
 
+import Entities.LoginBundle;
 import Entities.Order;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -22,6 +23,9 @@ import javafx.scene.input.MouseEvent;
  *The class implement user control interface to be able to insert into frame users GUI
  */
 public class ManagerOrderManagerController implements UserControl {
+	
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
 
 	/** The observable list. */
 	private ObservableList<Order> observableList;
@@ -95,7 +99,6 @@ public class ManagerOrderManagerController implements UserControl {
 	 * On enter. 
 	 * The first action to run - Initialize the table columns and set the branch order data into the table
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void onEnter() {
 		branchName.setText((String) LoginController.windowControl.peekPipe("Branch"));
@@ -105,10 +108,14 @@ public class ManagerOrderManagerController implements UserControl {
 		shippingMethodColumn.setCellValueFactory(new PropertyValueFactory<>("shipping_method"));
 		statusColumn.setCellValueFactory(new PropertyValueFactory<>("Order_status"));
 		
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetOrdersByBranch,  LoginController.windowControl.peekPipe("Branch"), "manager", true);
-		observableList = (ObservableList<Order>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetOrdersByBranch);
-		
-		ordersTable.setItems(observableList);
+		ordersTable.setItems(null);
+		requests.Request(RequestType.GetOrdersByBranch, LoginController.windowControl.peekPipe("Branch"), "manager", (ObservableList<Order> orders) -> {
+			observableList = orders;
+			ordersTable.setItems(observableList);
+			LoginBundle bundle = (LoginBundle)LoginController.windowControl.peekPipe("Login Bundle");
+			if(bundle != null)
+				bundle.setPendingOrders(orders.size());
+		});
 	}
 
 	/**
@@ -116,6 +123,7 @@ public class ManagerOrderManagerController implements UserControl {
 	 */
 	@Override
 	public void onExit() {
+		requests.CancelAll();
 	}
 
 
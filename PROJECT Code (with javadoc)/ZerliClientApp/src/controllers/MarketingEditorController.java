@@ -22,6 +22,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.GridPane;
@@ -38,6 +39,9 @@ public class MarketingEditorController implements UserControl {
 	
 	/** The catalog pages. */
 	private Map< Integer ,ArrayList<Item>> catalogPages;
+	
+	/** The search results - the ids of the items matching the search text best match first, null when not searching. */
+	private ArrayList<Integer> searchResults;
     
     /** The catalog type. */
     private CatalogType catalogType;
@@ -69,6 +73,10 @@ public class MarketingEditorController implements UserControl {
     /** The products checked. */
     @FXML
     private CheckBox productsChecked;
+    
+    /** The search text. */
+    @FXML
+    private TextField searchText;
 
     /**
      * Back pressed.
@@ -80,6 +88,24 @@ public class MarketingEditorController implements UserControl {
 
     }
     
+    /**
+     * Search text pressed.
+     * Show only the items matching the search text (by name, color or type), best match first
+     * @param event the event
+     */
+    @SuppressWarnings("unchecked")
+    @FXML
+    void searchTextPressed(ActionEvent event) {
+    	String text = searchText.getText().trim();
+    	if(text.isEmpty())
+    		searchResults = null;
+    	else {
+    		ClientApp.ProtocolHandler.Invoke(RequestType.SearchItems, null, text, true);
+    		searchResults = (ArrayList<Integer>) ClientApp.ProtocolHandler.GetResponse(RequestType.SearchItems);
+    	}
+    	updateCatalog();
+    }
+    
     /**
      * Adds the new item pressed.
      * When the Adds pressed go to Item Adder
@@ -137,6 +163,11 @@ public class MarketingEditorController implements UserControl {
     		catalogType = (CatalogType.custom);
     		ClientApp.ProtocolHandler.Invoke(RequestType.GetCatalog, null,catalogType, true);
     		itemList.addAll((ObservableList<Item>) ClientApp.ProtocolHandler.GetResponse(RequestType.GetCatalog));
+    	}
+    	if(searchResults != null)
+    	{
+    		itemList.removeIf(item -> !searchResults.contains(item.getId()));
+    		itemList.sort((a, b) -> searchResults.indexOf(a.getId()) - searchResults.indexOf(b.getId()));
     	}
 		int maxpages = ((itemList.size())/(GridPane.getColumnCount()*GridPane.getRowCount()));
 		if((itemList.size())%(GridPane.getColumnCount()*GridPane.getRowCount())!=0) maxpages++;
@@ -209,9 +240,32 @@ public class MarketingEditorController implements UserControl {
 	@Override
 	public void onExit() {
 		GridPane.getChildren().clear();
+		searchResults = null;
+		searchText.setText("");
 		
 	}
 	
+	/**
+	 * The catalog grid holds decoded item images, so it weighs more in the view cache.
+	 *
+	 * @return the weight of the screen
+	 */
+	@Override
+	public int getWeight() {
+		return 6;
+	}
+	
+	/**
+	 * On evict.
+	 * Release the catalog items and their images
+	 */
+	@Override
+	public void onEvict() {
+		GridPane.getChildren().clear();
+		itemList.clear();
+		catalogPages = null;
+	}
+	
 	/**
 	 * Show page.
 	 *
@@ -246,7 +300,7 @@ public class MarketingEditorController implements UserControl {
 			}
 			
 			EditableItemController itemHBoxController=loader.getController();
-			itemHBoxController.init(item.getId(),item.getName() ,item.getJXImage());
+			itemHBoxController.init(item.getId(),item.getName() ,item.getImage());
 			
 			GridPane.add(root, columnIndex++, rowIndex);
 		}
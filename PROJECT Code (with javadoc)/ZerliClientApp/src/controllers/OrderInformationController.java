@@ -11,7 +11,6 @@ import java.util.Optional;
 import Entities.ItemInList;
 import Entities.Order;
 import Entities.ShippingMethods;
-import ProtocolHandler.RequestType;
 import client.ClientApp;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -313,8 +312,7 @@ public class OrderInformationController implements UserControl {
 		});
 		arrivalDate.setValue(LocalDate.now());
 
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetBranches, null, null, true);
-		ObservableList<String> branches = (ObservableList<String>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranches);
+		ObservableList<String> branches = LoginController.getBranches();
 		branchCombobox.setItems((ObservableList<String>)branches);
         hourSlider.valueProperty().addListener(new ChangeListener<Number>() {
 			@Override
@@ -0,0 +1,191 @@
+package controllers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.sun.pdfview.PDFFile;
+import javafx.scene.image.Image;
+
+/**
+ * The Class PageRenderCache - shared cache of rendered PDF pages for the report viewers.
+ * Pages are keyed by (document, page, zoom bucket), a zoom bucket is a single ZOOM_DELTA step
+ * so zooming back and forth reuses the renders that were already made.
+ * The cache is bounded by the memory of the cached bitmaps, the least recently used pages are evicted first.
+ */
+public class PageRenderCache {
+
+	/** The MAX_BYTES - Const memory bound of all cached bitmaps (96MB). */
+	private static final long MAX_BYTES = 96L * 1024 * 1024;
+
+	/** The ZOOM_DELTA - Const zoom step a bucket stands for, same as the viewer zoom step. */
+	private static final double ZOOM_DELTA = 1.05;
+
+	/** The pages - cached renders in access order (LRU first). */
+	private static final LinkedHashMap<Key, RenderedPage> pages = new LinkedHashMap<>(64, 0.75f, true);
+
+	/** The usedBytes - memory of all the cached bitmaps. */
+	private static long usedBytes = 0;
+
+	/**
+	 * Gets the zoom bucket of a zoom value.
+	 * @param zoom - the zoom value (1 = 100%)
+	 * @return the zoom bucket
+	 */
+	public static int bucketOf(double zoom) {
+		return (int) Math.round(Math.log(zoom) / Math.log(ZOOM_DELTA));
+	}
+
+	/**
+	 * Gets the zoom a bucket is rendered at.
+	 * @param bucket - the zoom bucket
+	 * @return the zoom value of the bucket
+	 */
+	public static double zoomOf(int bucket) {
+		return Math.pow(ZOOM_DELTA, bucket);
+	}
+
+	/**
+	 * Gets a cached render.
+	 * @param file - the PDF document
+	 * @param page - the page index
+	 * @param bucket - the zoom bucket
+	 * @return the rendered page, null if not cached
+	 */
+	public static synchronized RenderedPage get(PDFFile file, int page, int bucket) {
+		return pages.get(new Key(file, page, bucket));
+	}
+
+	/**
+	 * Gets the cached render of a page that is closest to a zoom bucket, used as a quick scaled preview.
+	 * @param file - the PDF document
+	 * @param page - the page index
+	 * @param bucket - the requested zoom bucket
+	 * @return the closest rendered page, null if the page was never rendered
+	 */
+	public static synchronized RenderedPage getNearest(PDFFile file, int page, int bucket) {
+		RenderedPage nearest = null;
+		int distance = Integer.MAX_VALUE;
+		for (Map.Entry<Key, RenderedPage> entry : pages.entrySet()) {
+			Key key = entry.getKey();
+			if (key.file == file && key.page == page && Math.abs(key.bucket - bucket) < distance) {
+				distance = Math.abs(key.bucket - bucket);
+				nearest = entry.getValue();
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Stores a render, evicting the least recently used renders beyond the memory bound.
+	 * @param file - the PDF document
+	 * @param page - the page index
+	 * @param bucket - the zoom bucket
+	 * @param rendered - the rendered page
+	 */
+	public static synchronized void put(PDFFile file, int page, int bucket, RenderedPage rendered) {
+		RenderedPage previous = pages.put(new Key(file, page, bucket), rendered);
+		if (previous != null)
+			usedBytes -= previous.bytes();
+		usedBytes += rendered.bytes();
+		Iterator<RenderedPage> lru = pages.values().iterator();
+		while (usedBytes > MAX_BYTES && lru.hasNext()) {
+			RenderedPage evicted = lru.next();
+			if (evicted == rendered)
+				continue;
+			usedBytes -= evicted.bytes();
+			lru.remove();
+		}
+	}
+
+	/**
+	 * Removes all the renders of a document.
+	 * @param file - the PDF document
+	 */
+	public static synchronized void invalidate(PDFFile file) {
+		Iterator<Map.Entry<Key, RenderedPage>> entries = pages.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Key, RenderedPage> entry = entries.next();
+			if (entry.getKey().file == file) {
+				usedBytes -= entry.getValue().bytes();
+				entries.remove();
+			}
+		}
+	}
+
+	/**
+	 * The Class RenderedPage - a rendered page bitmap along with the page dimensions it was rendered from.
+	 */
+	public static class RenderedPage {
+
+		/** The image - the rendered bitmap. */
+		final Image image;
+
+		/** The pageWidth - the width of the page in PDF units. */
+		final double pageWidth;
+
+		/** The pageHeight - the height of the page in PDF units. */
+		final double pageHeight;
+
+		/**
+		 * Instantiates a new rendered page.
+		 * @param image - the rendered bitmap
+		 * @param pageWidth - the width of the page in PDF units
+		 * @param pageHeight - the height of the page in PDF units
+		 */
+		RenderedPage(Image image, double pageWidth, double pageHeight) {
+			this.image = image;
+			this.pageWidth = pageWidth;
+			this.pageHeight = pageHeight;
+		}
+
+		/**
+		 * Memory of the bitmap (4 bytes a pixel).
+		 * @return the bytes
+		 */
+		long bytes() {
+			return (long) image.getWidth() * (long) image.getHeight() * 4;
+		}
+	}
+
+	/**
+	 * The Class Key - identifies a render by document (identity), page and zoom bucket.
+	 */
+	private static class Key {
+
+		/** The file - the PDF document. */
+		private final PDFFile file;
+
+		/** The page - the page index. */
+		private final int page;
+
+		/** The bucket - the zoom bucket. */
+		private final int bucket;
+
+		/**
+		 * Instantiates a new key.
+		 * @param file - the PDF document
+		 * @param page - the page index
+		 * @param bucket - the zoom bucket
+		 */
+		Key(PDFFile file, int page, int bucket) {
+			this.file = file;
+			this.page = page;
+			this.bucket = bucket;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return file == other.file && page == other.page && bucket == other.bucket;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(file), page, bucket);
+		}
+	}
+}
@@ -270,9 +270,13 @@ public class PaymentController implements UserControl {
 	 */
 	@Override
 	public void onEnter() {
-		/* load user status */
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetUserCurrency,null ,null,true);
-		payDetails = (paymentInfo)ClientApp.ProtocolHandler.GetResponse(RequestType.GetUserCurrency);
+		/* load user status, the first payment uses the status that came along with the login */
+		payDetails = (paymentInfo)LoginController.windowControl.getPipe("Payment Info");
+		if(payDetails == null)
+		{
+			ClientApp.ProtocolHandler.Invoke(RequestType.GetUserCurrency,null ,null,true);
+			payDetails = (paymentInfo)ClientApp.ProtocolHandler.GetResponse(RequestType.GetUserCurrency);
+		}
 		isShipping = (boolean)LoginController.windowControl.peekPipe("isShipping");
 		currentOrder = (Order)LoginController.windowControl.peekPipe("orderInfo");
     	int netPrice = (int) LoginController.windowControl.peekPipe("totalCost");
@@ -0,0 +1,108 @@
+package controllers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The Class PdfRenderService - shared, bounded thread pool used by all the report viewers
+ * for parsing and rendering PDF documents.
+ * Every viewer works through its own Lane, the tasks of a lane run one at a time and in order
+ * (a PDF document is never used by two threads at once), while different viewers run in parallel.
+ */
+public class PdfRenderService {
+
+	/** The POOL_SIZE - Const max count of rendering threads for all viewers. */
+	private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/** The pool - the shared rendering threads. */
+	private static final ExecutorService pool = Executors.newFixedThreadPool(POOL_SIZE, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "pdf-render");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Opens a new lane for a viewer.
+	 * @return the lane
+	 */
+	public static Lane openLane() {
+		return new Lane();
+	}
+
+	/**
+	 * The Class Lane - a serial queue of a single viewer on top of the shared pool.
+	 */
+	public static class Lane implements Executor {
+
+		/** The tasks - tasks waiting for their turn. */
+		private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+		/** The running - whether a pool thread is currently draining this lane. */
+		private boolean running = false;
+
+		/** The closed - whether the viewer was disposed. */
+		private boolean closed = false;
+
+		/**
+		 * Queue a task on the lane, tasks of a closed lane are dropped.
+		 * @param task - the task
+		 */
+		@Override
+		public synchronized void execute(Runnable task) {
+			if (closed) return;
+			tasks.add(task);
+			if (!running) {
+				running = true;
+				pool.execute(this::drain);
+			}
+		}
+
+		/**
+		 * Queue a task on the lane.
+		 * @param task - the task
+		 * @return the future of the task, used for cancellation
+		 */
+		public Future<?> submit(Runnable task) {
+			FutureTask<Void> future = new FutureTask<>(task, null);
+			execute(future);
+			return future;
+		}
+
+		/**
+		 * Close the lane, queued tasks are dropped and the pool thread is released after the current task.
+		 */
+		public synchronized void close() {
+			closed = true;
+			tasks.clear();
+		}
+
+		/**
+		 * Run the queued tasks one after the other.
+		 */
+		private void drain() {
+			while (true) {
+				Runnable next;
+				synchronized (this) {
+					next = tasks.poll();
+					if (next == null) {
+						running = false;
+						return;
+					}
+				}
+				try {
+					next.run();
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+}
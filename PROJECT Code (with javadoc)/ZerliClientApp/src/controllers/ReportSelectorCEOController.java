@@ -1,10 +1,16 @@
 package controllers;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.Month;
+import Entities.ReportPreview;
+import Entities.ReportType;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
+import client.ReportCache;
+import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
@@ -23,6 +29,8 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
@@ -133,6 +141,83 @@ public class ReportSelectorCEOController implements UserControl {
 	@FXML
     private Button viewRepBtn;
 
+    /** The preview image - the first page of the chosen report. */
+	@FXML
+    private ImageView previewImage;
+
+    /** The preview totals - the key figures of the chosen report. */
+	@FXML
+    private Label previewTotals;
+
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
+
+	/** The preview key - identifies the report whose preview was last asked for, older previews are ignored. */
+	private String previewKey;
+
+	/**
+	 * Initialize.
+	 * Shows the preview of the chosen report whenever the selection changes.
+	 */
+	@FXML
+	void initialize() {
+		InvalidationListener selectionChanged = observable -> ShowPreview();
+		reportType.valueProperty().addListener(selectionChanged);
+		periodGroup.selectedToggleProperty().addListener(selectionChanged);
+		reportMonth.valueProperty().addListener(selectionChanged);
+		reportYear.valueProperty().addListener(selectionChanged);
+		branchSelectionM1.valueProperty().addListener(selectionChanged);
+		reportQuarter.valueProperty().addListener(selectionChanged);
+		reportQuarterY.valueProperty().addListener(selectionChanged);
+		branchSelectionQ1.valueProperty().addListener(selectionChanged);
+	}
+
+	/**
+	 * Show preview.
+	 * Shows the first page preview and key figures of the chosen report,
+	 * the pdf itself is only downloaded once the report is viewed.
+	 */
+	private void ShowPreview() {
+		previewKey = null;
+		previewImage.setImage(null);
+		previewTotals.setText("");
+		if(reportType.getValue() == null || periodGroup.getSelectedToggle() == null)
+			return;
+		boolean monthly = periodGroup.getSelectedToggle().equals(isMonthly);
+		LocalDate d;
+		String b;
+		if(monthly && reportMonth.getValue() != null && reportYear.getValue() != null)
+		{
+			d = LocalDate.of(Integer.parseInt(reportYear.getValue()), Month.valueOf(reportMonth.getValue()).getValue(), 1);
+			b = branchSelectionM1.getValue();
+		}
+		else if(!monthly && reportQuarter.getValue() != null && reportQuarterY.getValue() != null)
+		{
+			d = LocalDate.of(Integer.parseInt(reportQuarterY.getValue()), Integer.parseInt(reportQuarter.getValue()), 1);
+			b = branchSelectionQ1.getValue();
+		}
+		else
+			return;
+		if(b == null)
+			return;
+		ReportType type = Utilities.GenericUtilties.StringToReportType(reportType.getValue());
+		String key = type + "|" + monthly + "|" + d + "|" + b;
+		previewKey = key;
+		requests.Request(RequestType.GetReportPreviews, null, new Object[] {monthly, d, d, b}, (ObservableList<ReportPreview> previews) -> {
+			if(!key.equals(previewKey) || previews == null)
+				return;
+			for(ReportPreview preview : previews)
+				if(preview.getReportType() == type)
+				{
+					if(preview.getPreview() != null)
+						previewImage.setImage(new Image(new ByteArrayInputStream(preview.getPreview())));
+					previewTotals.setText(preview.getTotals() == null ? "" : preview.getTotals());
+					return;
+				}
+			previewTotals.setText("No preview, the report is prepared when viewed");
+		});
+	}
+
     /**
      * View report click.
      * Check if the asked report is exist , check if its needed to compare ,then show the report/s 
@@ -142,7 +227,7 @@ public class ReportSelectorCEOController implements UserControl {
     void viewReport_click(ActionEvent event) {
     	if(!isInputValid()) return;
     	var comparing = isCompare.isSelected();
-    	byte[] reportMain,reportCompared = null;
+    	ByteBuffer reportMain,reportCompared = null;
     	LocalDate d;
     	String b;
     	if(!periodGroup.getSelectedToggle().equals(isMonthly))
@@ -156,15 +241,8 @@ public class ReportSelectorCEOController implements UserControl {
     		b = branchSelectionM1.getValue();
     	}
     	
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetReportByBranch,null,
-				new Object[] {
-							  Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
-							  periodGroup.getSelectedToggle().equals(isMonthly),
-							  d,
-							  b
-						     },
-				true);
-		reportMain = (byte[])ClientApp.ProtocolHandler.GetResponse(RequestType.GetReportByBranch);
+		reportMain = ReportCache.Fetch(RequestType.GetReportByBranch, Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
+				periodGroup.getSelectedToggle().equals(isMonthly), d, b);
 		if(reportMain == null)
 		{
 			Alert confirmAlert = new Alert(AlertType.NONE);
@@ -188,15 +266,8 @@ public class ReportSelectorCEOController implements UserControl {
         		b = branchSelectionM2.getValue();
         	}
         	
-    		ClientApp.ProtocolHandler.Invoke(RequestType.GetReportByBranch,null,
-    				new Object[] {
-    							  Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
-    							  periodGroup.getSelectedToggle().equals(isMonthly),
-    							  d,
-    							  b
-    						     },
-    				true);
-    		reportCompared = (byte[])ClientApp.ProtocolHandler.GetResponse(RequestType.GetReportByBranch);
+    		reportCompared = ReportCache.Fetch(RequestType.GetReportByBranch, Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
+    				periodGroup.getSelectedToggle().equals(isMonthly), d, b);
     		if(reportCompared == null)
     		{
     			Alert confirmAlert = new Alert(AlertType.NONE);
@@ -305,8 +376,7 @@ public class ReportSelectorCEOController implements UserControl {
 		reportType.getItems().add(report_orders);
 		reportType.getItems().add(report_service);
 		reportType.getItems().add(report_ceo);
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetBranches, null, null, true);
-		ObservableList<String> branches = (ObservableList<String>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetBranches);
+		ObservableList<String> branches = LoginController.getBranches();
 		branchSelectionM1.setItems(branches);
 		branchSelectionM2.setItems(branches);
 		branchSelectionQ1.setItems(branches);
@@ -415,13 +485,16 @@ public class ReportSelectorCEOController implements UserControl {
 		branchSelectionM2.getItems().clear();
 		branchSelectionQ1.getItems().clear();
 		branchSelectionQ2.getItems().clear();
+		/*** after the selection was cleared, so a preview asked for by the clearing is cancelled as well ***/
+		requests.CancelAll();
+		previewKey = null;
 	}
 	
 	/**
 	 * Open report viewer for one report.
 	 * @param report the report
 	 */
-	private void OpenReportViewer(byte[] report)
+	private void OpenReportViewer(ByteBuffer report)
 	{
 		FXMLLoader loader = new FXMLLoader();
     	Parent root = null;
@@ -446,7 +519,7 @@ public class ReportSelectorCEOController implements UserControl {
 	 * @param reportLeft the report left
 	 * @param reportRight the report right
 	 */
-	private void OpenReportViewer(byte[] reportLeft,byte[] reportRight)
+	private void OpenReportViewer(ByteBuffer reportLeft,ByteBuffer reportRight)
 	{
 		FXMLLoader loader = new FXMLLoader();
     	Parent root = null;
@@ -1,12 +1,19 @@
 package controllers;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.Month;
+import Entities.ReportPreview;
+import Entities.ReportType;
+import ProtocolHandler.RequestScope;
 import ProtocolHandler.RequestType;
-import client.ClientApp;
+import client.ReportCache;
+import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -22,6 +29,8 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
@@ -112,6 +121,70 @@ public class ReportSelectorController implements UserControl {
 	@FXML
     private Button viewRepBtn;
 
+	/** The previewImage - ImageView of the first page of the chosen report. */
+	@FXML
+    private ImageView previewImage;
+
+	/** The previewTotals - Label of the key figures of the chosen report. */
+	@FXML
+    private Label previewTotals;
+
+	/** The requests - the pending requests of the view, cancelled when the view is left. */
+	private final RequestScope requests = new RequestScope();
+
+	/** The previewKey - identifies the report whose preview was last asked for, older previews are ignored. */
+	private String previewKey;
+
+	/**
+	 * Initialize - shows the preview of the chosen report whenever the selection changes.
+	 */
+	@FXML
+	void initialize() {
+		InvalidationListener selectionChanged = observable -> ShowPreview();
+		reportType.valueProperty().addListener(selectionChanged);
+		periodGroup.selectedToggleProperty().addListener(selectionChanged);
+		reportMonth.valueProperty().addListener(selectionChanged);
+		reportYear.valueProperty().addListener(selectionChanged);
+		reportQuarter.valueProperty().addListener(selectionChanged);
+		reportQuarterY.valueProperty().addListener(selectionChanged);
+	}
+
+	/**
+	 * Shows the first page preview and key figures of the chosen report,
+	 * the pdf itself is only downloaded once the report is viewed.
+	 */
+	private void ShowPreview() {
+		previewKey = null;
+		previewImage.setImage(null);
+		previewTotals.setText("");
+		if(reportType.getValue() == null || periodGroup.getSelectedToggle() == null)
+			return;
+		boolean monthly = periodGroup.getSelectedToggle().equals(isMonthly);
+		LocalDate d;
+		if(monthly && reportMonth.getValue() != null && reportYear.getValue() != null)
+			d = LocalDate.of(Integer.parseInt(reportYear.getValue()), Month.valueOf(reportMonth.getValue()).getValue(), 1);
+		else if(!monthly && reportQuarter.getValue() != null && reportQuarterY.getValue() != null)
+			d = LocalDate.of(Integer.parseInt(reportQuarterY.getValue()), Integer.parseInt(reportQuarter.getValue()), 1);
+		else
+			return;
+		ReportType type = Utilities.GenericUtilties.StringToReportType(reportType.getValue());
+		String key = type + "|" + monthly + "|" + d;
+		previewKey = key;
+		requests.Request(RequestType.GetReportPreviews, null, new Object[] {monthly, d, d}, (ObservableList<ReportPreview> previews) -> {
+			if(!key.equals(previewKey) || previews == null)
+				return;
+			for(ReportPreview preview : previews)
+				if(preview.getReportType() == type)
+				{
+					if(preview.getPreview() != null)
+						previewImage.setImage(new Image(new ByteArrayInputStream(preview.getPreview())));
+					previewTotals.setText(preview.getTotals() == null ? "" : preview.getTotals());
+					return;
+				}
+			previewTotals.setText("No preview, the report is prepared when viewed");
+		});
+	}
+
     /**
      * View report button click - get reports from chosen input
      * @param event - button pressed 
@@ -120,8 +193,10 @@ public class ReportSelectorController implements UserControl {
     void viewReport_click(ActionEvent event) {
     	if(!isInputValid()) return;
     	var comparing = isCompare.isSelected();
-    	byte[] reportMain,reportCompared = null;
+    	ByteBuffer reportMain,reportCompared = null;
     	LocalDate d;
+    	/*** the branch of the session, without it the report is not cached ***/
+    	String branch = (String)LoginController.windowControl.peekPipe("Branch");
     	if(!periodGroup.getSelectedToggle().equals(isMonthly))
     	{
     		d = LocalDate.of(Integer.parseInt(reportQuarterY.getValue()), Integer.parseInt(reportQuarter.getValue()), 1);
@@ -131,14 +206,8 @@ public class ReportSelectorController implements UserControl {
     		d = LocalDate.of(Integer.parseInt(reportYear.getValue().toString()),Month.valueOf(reportMonth.getValue()).getValue(),1);
     	}
     	
-		ClientApp.ProtocolHandler.Invoke(RequestType.GetReport,null,
-				new Object[] {
-							  Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
-							  periodGroup.getSelectedToggle().equals(isMonthly),
-							  d
-						     },
-				true);
-		reportMain = (byte[])ClientApp.ProtocolHandler.GetResponse(RequestType.GetReport);
+		reportMain = ReportCache.Fetch(RequestType.GetReport, Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
+				periodGroup.getSelectedToggle().equals(isMonthly), d, branch);
 		if(reportMain == null)
 		{
 			Alert confirmAlert = new Alert(AlertType.NONE);
@@ -160,14 +229,8 @@ public class ReportSelectorController implements UserControl {
         		d = LocalDate.of(Integer.parseInt(comparedYear.getValue().toString()),Month.valueOf(comparedMonth.getValue()).getValue(),1);
         	}
         	
-    		ClientApp.ProtocolHandler.Invoke(RequestType.GetReport,null,
-    				new Object[] {
-    							  Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
-    							  periodGroup.getSelectedToggle().equals(isMonthly),
-    							  d
-    						     },
-    				true);
-    		reportCompared = (byte[])ClientApp.ProtocolHandler.GetResponse(RequestType.GetReport);
+    		reportCompared = ReportCache.Fetch(RequestType.GetReport, Utilities.GenericUtilties.StringToReportType(reportType.getValue()),
+    				periodGroup.getSelectedToggle().equals(isMonthly), d, branch);
     		if(reportCompared == null)
     		{
     			Alert confirmAlert = new Alert(AlertType.NONE);
@@ -320,13 +383,16 @@ public class ReportSelectorController implements UserControl {
 		reportYear.getItems().clear();
 		comparedMonth.getItems().clear();
 		comparedYear.getItems().clear();
+		/*** after the selection was cleared, so a preview asked for by the clearing is cancelled as well ***/
+		requests.CancelAll();
+		previewKey = null;
 	}
 	
 	/**
 	 * Open report viewer of chosen report information of single report
-	 * @param report - single report as byte[]
+	 * @param report - single report as a buffer
 	 */
-	private void OpenReportViewer(byte[] report)
+	private void OpenReportViewer(ByteBuffer report)
 	{
 		FXMLLoader loader = new FXMLLoader();
     	Parent root = null;
@@ -348,10 +414,10 @@ public class ReportSelectorController implements UserControl {
 	
 	/**
      * Open report viewer of chosen reports information of compare two reports
-	 * @param reportLeft - first report as byte[]
-	 * @param reportRight - second report as byte[]
+	 * @param reportLeft - first report as a buffer
+	 * @param reportRight - second report as a buffer
 	 */
-	private void OpenReportViewer(byte[] reportLeft,byte[] reportRight)
+	private void OpenReportViewer(ByteBuffer reportLeft,ByteBuffer reportRight)
 	{
 		FXMLLoader loader = new FXMLLoader();
     	Parent root = null;
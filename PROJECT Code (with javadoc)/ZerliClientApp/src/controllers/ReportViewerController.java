@@ -2,7 +2,6 @@ package controllers;
 
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -12,11 +11,12 @@ import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
 import com.sun.pdfview.PDFFile;
 import com.sun.pdfview.PDFPage;
+import controllers.PageRenderCache.RenderedPage;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.IntegerBinding;
 import javafx.beans.property.DoubleProperty;
@@ -48,6 +48,8 @@ import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
 import javafx.util.Callback;
 
 /**
@@ -84,14 +86,29 @@ public class ReportViewerController {
 	/** The currentPageDimensions - PageDimensions saves the current page dimensions . */
 	private PageDimensions currentPageDimensions ;
 	
-	/** The imageLoadService - Thread for parallel working. */
-	private ExecutorService imageLoadService ;
+	/** The imageLoadService - this viewer's lane on the shared rendering pool (see PdfRenderService). */
+	private PdfRenderService.Lane imageLoadService ;
+	
+	/** The pageView - the single ImageView the pages are shown in. */
+	private ImageView pageView ;
+	
+	/** The pendingRender - the sharp render of the shown page, if still in progress. */
+	private Task<RenderedPage> pendingRender ;
+	
+	/** The pendingKey - the page and zoom bucket of the pending render. */
+	private String pendingKey ;
+	
+	/** The pendingPrefetches - renders of the adjacent pages, if still in progress. */
+	private final List<Future<?>> pendingPrefetches = new ArrayList<>();
+	
+	/** The PREFETCH_DISTANCE - Const count of pages prefetched on each side of the shown page. */
+	private static final int PREFETCH_DISTANCE = 1 ;
 	
 	/** The ZOOM_DELTA - Const zoom = 1.05. */
 	private static final double ZOOM_DELTA = 1.05 ;
 	
-    /** The bytefile - byte[] for image for loading PDF. */
-    byte[] bytefile = null;
+    /** The reportBuffer - the loaded PDF (heap or memory mapped), used for exporting the PDF. */
+    ByteBuffer reportBuffer = null;
 	
 	
 	/**
@@ -107,12 +124,13 @@ public class ReportViewerController {
 		
 		currentImage = new SimpleObjectProperty<>();
 		scroller.contentProperty().bind(currentImage);
+		pageView = new ImageView();
+		pageView.setPreserveRatio(true);
+		currentImage.set(pageView);
 		
 		zoom = new SimpleDoubleProperty(1);
-		// To implement zooming, we just get a new image from the PDFFile each time.
-		// This seems to perform well in some basic tests but may need to be improved
-		// E.g. load a larger image and scale in the ImageView, loading a new image only
-		// when required.
+		// Zooming shows the closest cached render scaled in the ImageView right away,
+		// a new image is rendered only for zoom buckets that are not cached yet (see PageRenderCache).
 		zoom.addListener(new ChangeListener<Number>() {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
@@ -128,17 +146,50 @@ public class ReportViewerController {
 
 	/**
 	 * Creates the and configure image load service.
+	 * The viewer gets a lane on the shared rendering pool, which is closed when the viewer's window is closed.
 	 */
 	private void createAndConfigureImageLoadService() {
-		imageLoadService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		imageLoadService = PdfRenderService.openLane();
+		pagination.sceneProperty().addListener(new ChangeListener<Scene>() {
 			@Override
-			public Thread newThread(Runnable r) {
-				Thread thread = new Thread(r);
-				thread.setDaemon(true);
-				return thread;
+			public void changed(ObservableValue<? extends Scene> observable, Scene oldScene, Scene newScene) {
+				if (newScene == null) return;
+				newScene.windowProperty().addListener(new ChangeListener<Window>() {
+					@Override
+					public void changed(ObservableValue<? extends Window> observable, Window oldWindow, Window newWindow) {
+						if (newWindow != null)
+							newWindow.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> dispose());
+					}
+				});
 			}
 		});
 	}
+	
+	/**
+	 * Dispose the viewer - cancel its renders, close its lane and release the cached renders of its document.
+	 */
+	public void dispose() {
+		cancelPendingRenders();
+		imageLoadService.close();
+		if (currentFile.get() != null)
+			PageRenderCache.invalidate(currentFile.get());
+	}
+	
+	/**
+	 * The zoom of the viewer, used for keeping compared viewers in sync.
+	 * @return the zoom property
+	 */
+	public DoubleProperty zoomProperty() {
+		return zoom;
+	}
+	
+	/**
+	 * The pagination of the viewer, used for keeping compared viewers in sync.
+	 * @return the pagination
+	 */
+	public Pagination getPagination() {
+		return pagination;
+	}
 
 	/**
 	 * Creates the and configure file chooser.
@@ -156,6 +207,10 @@ public class ReportViewerController {
 		currentFile.addListener(new ChangeListener<PDFFile>() {
 			@Override
 			public void changed(ObservableValue<? extends PDFFile> observable, PDFFile oldFile, PDFFile newFile) {
+				cancelPendingRenders();
+				if (oldFile != null) {
+					PageRenderCache.invalidate(oldFile);
+				}
 				if (newFile != null) {
 					pagination.setCurrentPageIndex(0);
 				} 
@@ -206,13 +261,12 @@ public class ReportViewerController {
           File f = fileChooser.showSaveDialog((Stage)((Node) event.getSource()).getScene().getWindow());
           if(f != null)
           {
-        	  try
+        	  try (FileOutputStream fs = new FileOutputStream(f); FileChannel channel = fs.getChannel())
         	  {
-    		      FileOutputStream fs = new FileOutputStream(f);
-    		      BufferedOutputStream fileWriter = new BufferedOutputStream(fs);
-    		      fileWriter.write(bytefile);
-    		      fileWriter.close();
-    		      fs.close();
+        		  ByteBuffer buffer = reportBuffer.duplicate();
+        		  buffer.rewind();
+        		  while(buffer.hasRemaining())
+        			  channel.write(buffer);
         	  }
         	  catch(IOException e)
         	  {
@@ -227,14 +281,22 @@ public class ReportViewerController {
 	 * @param byte[] file
 	 */
 	public void loadReport(byte[] file) {
+		if (file != null)
+			loadReport(ByteBuffer.wrap(file));
+	}
+	
+	/**
+	 * Load PDf report from a buffer, a memory mapped buffer is parsed straight from the cached file.
+	 * @param file - the PDF as a buffer
+	 */
+	public void loadReport(ByteBuffer file) {
 		//final File file = fileChooser.showOpenDialog(pagination.getScene().getWindow());
 		if (file != null) {
 			final Task<PDFFile> loadFileTask = new Task<PDFFile>() {
 				@Override
 				protected PDFFile call() throws Exception {
-						ByteBuffer buffer = ByteBuffer.wrap(file);
-						bytefile = file;
-						return new PDFFile(buffer);
+						reportBuffer = file;
+						return new PDFFile(file.duplicate());
 					}
 			};
 			loadFileTask.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
@@ -332,41 +394,48 @@ public class ReportViewerController {
 	
 	/**
 	 * Update image for multipages PDF.
+	 * A cached render of the page at the requested zoom is shown right away, otherwise the closest
+	 * cached render is shown scaled as a quick preview until the sharp render replaces it.
 	 * @param pageNumber - the PDF page number
 	 */
 	private void updateImage(final int pageNumber) {
-		final Task<ImageView> updateImageTask = new Task<ImageView>() {
+		final PDFFile file = currentFile.get();
+		if (file == null) return;
+		final int bucket = PageRenderCache.bucketOf(zoom.get());
+		if (pendingRender != null && pendingKey.equals(pageNumber + ":" + bucket)) {
+			// the same render is already on its way, only rescale the preview
+			if (pageView.getImage() != null && currentPageDimensions != null)
+				pageView.setFitWidth(currentPageDimensions.width * zoom.get());
+			return;
+		}
+		cancelPendingRenders();
+		RenderedPage rendered = PageRenderCache.get(file, pageNumber, bucket);
+		if (rendered != null) {
+			showPage(rendered);
+			prefetchAdjacentPages(file, pageNumber, bucket);
+			return;
+		}
+		RenderedPage preview = PageRenderCache.getNearest(file, pageNumber, bucket);
+		if (preview != null)
+			showPage(preview);
+		
+		final Task<RenderedPage> updateImageTask = new Task<RenderedPage>() {
 			@Override
-			protected ImageView call() throws Exception {
-				PDFPage page = currentFile.get().getPage(pageNumber+1);
-				Rectangle2D bbox = page.getBBox();
-				final double actualPageWidth = bbox.getWidth();
-				final double actualPageHeight = bbox.getHeight();
-				// record page dimensions for zoomToFit and zoomToWidth:
-				currentPageDimensions = new PageDimensions(actualPageWidth, actualPageHeight);
-				// width and height of image:
-				final int width = (int) (actualPageWidth * zoom.get());
-				final int height = (int) (actualPageHeight * zoom.get());
-				// retrieve image for page:
-				// width, height, clip, imageObserver, paintBackground, waitUntilLoaded:
-				java.awt.Image awtImage = page.getImage(width, height, bbox, null, true, true); 
-				// draw image to buffered image:
-				BufferedImage buffImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-				buffImage.createGraphics().drawImage(awtImage, 0, 0, null);
-				// convert to JavaFX image:
-				Image image = SwingFXUtils.toFXImage(buffImage, null);
-				// wrap in image view and return:
-				ImageView imageView = new ImageView(image);
-				imageView.setPreserveRatio(true);
-				return imageView ;
+			protected RenderedPage call() throws Exception {
+				return renderPage(file, pageNumber, bucket);
 			}
 		};
+		pendingRender = updateImageTask;
+		pendingKey = pageNumber + ":" + bucket;
 
 		updateImageTask.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
 			@Override
 			public void handle(WorkerStateEvent event) {
 				//pagination.getScene().getRoot().setDisable(false);
-				currentImage.set(updateImageTask.getValue());
+				if (pendingRender != updateImageTask) return;
+				pendingRender = null;
+				showPage(updateImageTask.getValue());
+				prefetchAdjacentPages(file, pageNumber, bucket);
 			}
 		});
 		
@@ -383,6 +452,84 @@ public class ReportViewerController {
 		imageLoadService.submit(updateImageTask);
 	}
 	
+	/**
+	 * Render a page at a zoom bucket (background thread) and store it in the render cache.
+	 * @param file - the PDF document
+	 * @param pageNumber - the PDF page number
+	 * @param bucket - the zoom bucket
+	 * @return the rendered page
+	 */
+	private RenderedPage renderPage(PDFFile file, int pageNumber, int bucket) {
+		RenderedPage cached = PageRenderCache.get(file, pageNumber, bucket);
+		if (cached != null) return cached;
+		PDFPage page = file.getPage(pageNumber+1);
+		Rectangle2D bbox = page.getBBox();
+		final double actualPageWidth = bbox.getWidth();
+		final double actualPageHeight = bbox.getHeight();
+		// width and height of image:
+		final int width = (int) (actualPageWidth * PageRenderCache.zoomOf(bucket));
+		final int height = (int) (actualPageHeight * PageRenderCache.zoomOf(bucket));
+		// retrieve image for page:
+		// width, height, clip, imageObserver, paintBackground, waitUntilLoaded:
+		java.awt.Image awtImage = page.getImage(width, height, bbox, null, true, true); 
+		// the renderer already returns a buffered image, only copy when it does not:
+		BufferedImage buffImage;
+		if (awtImage instanceof BufferedImage) {
+			buffImage = (BufferedImage) awtImage;
+		} else {
+			buffImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			buffImage.createGraphics().drawImage(awtImage, 0, 0, null);
+		}
+		// convert to JavaFX image:
+		RenderedPage rendered = new RenderedPage(SwingFXUtils.toFXImage(buffImage, null), actualPageWidth, actualPageHeight);
+		PageRenderCache.put(file, pageNumber, bucket, rendered);
+		return rendered;
+	}
+	
+	/**
+	 * Show a rendered page scaled to the current zoom.
+	 * @param rendered - the rendered page
+	 */
+	private void showPage(RenderedPage rendered) {
+		// record page dimensions for zoomToFit and zoomToWidth:
+		currentPageDimensions = new PageDimensions(rendered.pageWidth, rendered.pageHeight);
+		pageView.setImage(rendered.image);
+		pageView.setFitWidth(rendered.pageWidth * zoom.get());
+	}
+	
+	/**
+	 * Prefetch the pages next to the shown page at the same zoom, so paging does not wait for rendering.
+	 * @param file - the PDF document
+	 * @param pageNumber - the shown PDF page number
+	 * @param bucket - the zoom bucket
+	 */
+	private void prefetchAdjacentPages(final PDFFile file, int pageNumber, final int bucket) {
+		for (int adjacent = pageNumber - PREFETCH_DISTANCE; adjacent <= pageNumber + PREFETCH_DISTANCE; adjacent++) {
+			final int page = adjacent;
+			if (page == pageNumber || page < 0 || page >= file.getNumPages()
+					|| PageRenderCache.get(file, page, bucket) != null) continue;
+			pendingPrefetches.add(imageLoadService.submit(new Runnable() {
+				@Override
+				public void run() {
+					renderPage(file, page, bucket);
+				}
+			}));
+		}
+	}
+	
+	/**
+	 * Cancel the renders that were requested for a page or zoom that is no longer shown.
+	 */
+	private void cancelPendingRenders() {
+		if (pendingRender != null) {
+			pendingRender.cancel();
+			pendingRender = null;
+		}
+		for (Future<?> prefetch : pendingPrefetches)
+			prefetch.cancel(false);
+		pendingPrefetches.clear();
+	}
+	
 	/**
 	 * Show error message.
 	 * @param message - String of the error message
@@ -8,6 +8,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.List;
 import javax.imageio.ImageIO;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -18,14 +19,16 @@ import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.util.Matrix;
 import Entities.Survey;
+import Entities.SurveyHistogram;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
-import javafx.embed.swing.SwingFXUtils;
+import client.StreamTransfer;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.FileChooser;
@@ -46,29 +49,29 @@ public class SurveyHistogramController implements UserControl {
 		@FXML
 	    private TextField PdfTextBox;
 	   
-	    /** The Image1 - ImageView of Q&A number 1. */
+	    /** The Chart1 - histogram of Q&A number 1. */
     	@FXML
-	    private ImageView Image1;
+	    private BarChart<String, Number> Chart1;
 
-    	 /** The Image2 - ImageView of Q&A number 2. */
+    	/** The Chart2 - histogram of Q&A number 2. */
     	@FXML
-	    private ImageView Image2;
+	    private BarChart<String, Number> Chart2;
 
-    	/** The Image2 - ImageView of Q&A number 3. */
+    	/** The Chart3 - histogram of Q&A number 3. */
     	@FXML
-	    private ImageView Image3;
+	    private BarChart<String, Number> Chart3;
 
-    	/** The Image2 - ImageView of Q&A number 4. */
+    	/** The Chart4 - histogram of Q&A number 4. */
     	@FXML
-	    private ImageView Image4;
+	    private BarChart<String, Number> Chart4;
 
-    	/** The Image2 - ImageView of Q&A number 5. */
+    	/** The Chart5 - histogram of Q&A number 5. */
     	@FXML
-	    private ImageView Image5;
+	    private BarChart<String, Number> Chart5;
 
-    	/** The Image2 - ImageView of Q&A number 6. */
+    	/** The Chart6 - histogram of Q&A number 6. */
     	@FXML
-	    private ImageView Image6;
+	    private BarChart<String, Number> Chart6;
 
     	 /** The q1Label - Label of question number 1. */
     	@FXML
@@ -104,33 +107,14 @@ public class SurveyHistogramController implements UserControl {
 
 		/** The survey - instance of Survey entity. */
 		private Survey survey=new Survey();
-		
-		/** The imegeTest1 - instance of image(as ByteArrayInputStream) of Q&A number 1. */
-		private Image imegeTest1;
-		
-		/** The imegeTest2 - instance of image(as ByteArrayInputStream) of Q&A number 2. */
-		private Image imegeTest2;
-		
-		/** The imegeTest2 - instance of image(as ByteArrayInputStream) of Q&A number 3. */
-		private Image imegeTest3;
-		
-		/** The imegeTest2 - instance of image(as ByteArrayInputStream) of Q&A number 4. */
-		private Image imegeTest4;
-
-		/** The imegeTest2 - instance of image(as ByteArrayInputStream) of Q&A number 5. */
-		private Image imegeTest5;
-
-		/** The imegeTest2 - instance of image(as ByteArrayInputStream) of Q&A number 6. */
-		private Image imegeTest6;
 
 	/**
 	 * Commands that the Controller do the screen will do while uploading window
-	 * Load all the images of Q&A histograms ans show them
+	 * Load the answer counts of the survey and draw the Q&A histograms
 	 */
 	@Override
 	public void onEnter() {
 		checkBox.setVisible(false);
-		ArrayList<byte[]> listOfImages;
 		String string =(String)LoginController.windowControl.peekPipe("surveyForExpert");
 		survey.setId(Integer.parseInt(string.substring(0,string.indexOf(" "))));
 		survey.setContent(string.substring(string.indexOf(" ")+1));
@@ -139,31 +123,26 @@ public class SurveyHistogramController implements UserControl {
 		ClientApp.ProtocolHandler.Invoke(RequestType.GetSurvey, survey.getId(), null, true);
 		survey=(Survey)ClientApp.ProtocolHandler.GetResponse(RequestType.GetSurvey);
 		ClientApp.ProtocolHandler.Invoke(RequestType.GetSurveyHistogram, survey, null, true);
-		listOfImages=((ArrayList<byte[]>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetSurveyHistogram));
-		
-		imegeTest1=(new Image (new ByteArrayInputStream(listOfImages.get(0))));
-		Image1.setImage(imegeTest1);
-		//q1Label.setText(survey.getQuestions()[0]);
-		
-		imegeTest2=(new Image (new ByteArrayInputStream(listOfImages.get(1))));
-		Image2.setImage(imegeTest2);
-		//q2Label.setText(survey.getQuestions()[1]);
-		
-		imegeTest3=(new Image (new ByteArrayInputStream(listOfImages.get(2))));
-		Image3.setImage(imegeTest3);
-		//q3Label.setText(survey.getQuestions()[2]);
-		
-		imegeTest4=(new Image (new ByteArrayInputStream(listOfImages.get(3))));
-		Image4.setImage(imegeTest4);
-		//q4Label.setText(survey.getQuestions()[3]);
-		
-		imegeTest5=(new Image (new ByteArrayInputStream(listOfImages.get(4))));
-		Image5.setImage(imegeTest5);
-		//q5Label.setText(survey.getQuestions()[4]);
-		
-		imegeTest6=(new Image (new ByteArrayInputStream(listOfImages.get(5))));
-		Image6.setImage(imegeTest6);
-		//q6Label.setText(survey.getQuestions()[5]);
+		SurveyHistogram histogram=(SurveyHistogram)ClientApp.ProtocolHandler.GetResponse(RequestType.GetSurveyHistogram);
+		if(histogram == null)
+			return;
+		List<BarChart<String, Number>> charts=getCharts();
+		for (int i = 0; i < charts.size(); i++) {
+			XYChart.Series<String, Number> answers=new XYChart.Series<String, Number>();
+			for (int rating = 1; rating <= 10; rating++)
+				answers.getData().add(new XYChart.Data<String, Number>(String.valueOf(rating), histogram.getCounts()[i][rating-1]));
+			charts.get(i).setTitle(histogram.getQuestions()[i]);
+			charts.get(i).getData().setAll(List.of(answers));
+		}
+	}
+	
+	/**
+	 * Gets the charts of the Q&A.
+	 *
+	 * @return the charts, in the order of the questions
+	 */
+	private List<BarChart<String, Number>> getCharts() {
+		return List.of(Chart1, Chart2, Chart3, Chart4, Chart5, Chart6);
 	}
 	
 	  /**
@@ -182,38 +161,28 @@ public class SurveyHistogramController implements UserControl {
   	@FXML
 	    void InsertPDFBtnpressed(ActionEvent event) {
 		  
-		  	ArrayList<byte[]> listOfPDFArrayList=new ArrayList<byte[]>();
 	    	FileChooser PDFFile = new FileChooser();
 	    	PDFFile.getExtensionFilters().add(new ExtensionFilter("PDF Files", "*.pdf", "*.PDF"));
-	    	ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 	        //Show open file dialog
 	        File file = PDFFile.showOpenDialog(null);
-	        FileInputStream inputStream = null;
-	        byte[] data2=null;
 	       if (file != null) 
 	        {
-	        	try 
-	        	{
-	        		inputStream = new FileInputStream(file);
-	        		int nRead;
-	          	   	data2 = new byte[(int) file.length()];
-	          	   	while ((nRead = inputStream.read(data2, 0, data2.length)) != -1) 
-	          	   	{
-	          	   		buffer.write(data2, 0, nRead);
-	          	   	}
-	          	  
-				} 
-	            catch (Exception e) 
-	            {
-					e.printStackTrace();
-				}
-	        	
-	        	byte[] data1= createPDF("C:\\Users\\Ido Mialy\\Desktop");	
-	        	listOfPDFArrayList.add(data1);
-	        	listOfPDFArrayList.add(data2);
+	        	byte[] data1= createPDF("C:\\Users\\Ido Mialy\\Desktop");
+	        	if(data1 == null)
+	        		return;
+	        	/*** both pdfs are uploaded in parts, the expert's file is read from the disk as it is sent ***/
+	        	Integer histogramUpload = StreamTransfer.Upload(data1);
+	        	Integer expertUpload = null;
+	        	try {
+	        		expertUpload = StreamTransfer.Upload(new FileInputStream(file), file.length());
+	        	} catch (IOException e) {
+	        		e.printStackTrace();
+	        	}
+	        	if(histogramUpload == null || expertUpload == null)
+	        		return;
 	         	checkBox.setVisible(true);
 	     		PdfTextBox.setText(file.getPath());
-	        	ClientApp.ProtocolHandler.Invoke(RequestType.SavePDF, listOfPDFArrayList, survey, false);
+	        	ClientApp.ProtocolHandler.Invoke(RequestType.SavePDF, new Integer[] {histogramUpload, expertUpload}, survey, false);
 	        }
 	    }
 	
@@ -223,12 +192,28 @@ public class SurveyHistogramController implements UserControl {
 	@Override
 	public void onExit() {}
 	
+	/**
+	 * On evict.
+	 * Release the histogram data
+	 */
+	@Override
+	public void onEvict() {
+		for(BarChart<String, Number> chart : getCharts())
+			chart.getData().clear();
+	}
+	
 	/**
 	 * Creates experts PDf contains Q&A images and expert PDF .
 	 * @param the path - String path to save file
 	 * @return the byte[] - return byte[] of PDF from path
 	 */
 	public byte[] createPDF(String path) {
+		/*** the screen draws the charts on its own, the images for the PDF are rendered by the server ***/
+		ClientApp.ProtocolHandler.Invoke(RequestType.GetSurveyHistogramImages, survey, null, true);
+		@SuppressWarnings("unchecked")
+		ArrayList<byte[]> listOfImages=(ArrayList<byte[]>)ClientApp.ProtocolHandler.GetResponse(RequestType.GetSurveyHistogramImages);
+		if(listOfImages == null)
+			return null;
 	    try (PDDocument document = new PDDocument()) {
 	      PDPage page = new PDPage(PDRectangle.A4);
 	      page.setRotation(0);
@@ -256,32 +241,32 @@ public class SurveyHistogramController implements UserControl {
 	     // contentStream.showText(String.format("To Group VI 2022 ©"));
 	      contentStream.endText();
 	      
-	      PDImageXObject image1 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest1, null));
+	      PDImageXObject image1 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(0))));
 	      AffineTransform at1 = new AffineTransform(250, 0, 0, 200, 30, 500);
 	      at1.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image1, at1);
 	      
-	      PDImageXObject image2 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest2, null));
+	      PDImageXObject image2 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(1))));
 	      AffineTransform at2 = new AffineTransform(250, 0, 0, 200, 310, 500);
 	      at2.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image2, at2);
 	      
-	      PDImageXObject image3 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest3, null));
+	      PDImageXObject image3 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(2))));
 	      AffineTransform at3 = new AffineTransform(250, 0, 0, 200, 30, 270);
 	      at1.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image3, at3);
 	      
-	      PDImageXObject image4 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest4, null));
+	      PDImageXObject image4 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(3))));
 	      AffineTransform at4 = new AffineTransform(250, 0, 0, 200, 310, 270);
 	      at2.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image4, at4);
 	     
-	      PDImageXObject image5 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest5, null));
+	      PDImageXObject image5 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(4))));
 	      AffineTransform at5 = new AffineTransform(250, 0, 0, 200, 30, 40);
 	      at1.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image5, at5);
 	      
-	      PDImageXObject image6 = JPEGFactory.createFromImage(document,SwingFXUtils.fromFXImage(imegeTest6, null));
+	      PDImageXObject image6 = JPEGFactory.createFromImage(document,ImageIO.read(new ByteArrayInputStream(listOfImages.get(5))));
 	      AffineTransform at6 = new AffineTransform(250, 0, 0, 200, 310, 40);
 	      at2.rotate(Math.toRadians(360));
 	      contentStream.drawXObject(image6, at6);
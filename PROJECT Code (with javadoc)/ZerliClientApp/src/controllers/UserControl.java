@@ -14,5 +14,22 @@ public interface UserControl {
 	 * Commands that Controller do the screen will do while existing window
 	 */
 	void onExit();
+	
+	/**
+	 * The weight of the screen in the view cache, heavy screens (images, documents) weigh more
+	 * so they are evicted sooner and rebuilt on demand instead of being pinned in memory
+	 *
+	 * @return the weight of the screen
+	 */
+	default int getWeight() {
+		return 1;
+	}
+	
+	/**
+	 * Commands that the Controller do when the screen is evicted from the view cache - release held images, executors and pipes,
+	 * the screen is loaded again on its next visit
+	 */
+	default void onEvict() {
+	}
 
 }
@@ -3,9 +3,11 @@ package controllers;
 import java.io.IOException;
 import java.util.ArrayList;
 
+import Entities.StreamTarget;
 import Entities.SurveyResult;
 import ProtocolHandler.RequestType;
 import client.ClientApp;
+import client.StreamTransfer;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -16,6 +18,7 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
 public class ViewExpertReportsController implements UserControl {
+	
 	ArrayList<SurveyResult> results;
 	
     @FXML
@@ -28,8 +31,11 @@ public class ViewExpertReportsController implements UserControl {
     void viewReportCllicked(ActionEvent event) {
     	if(Reports.getSelectionModel().getSelectedItem() != null)
     	{	
-    	    		OpenReportViewer(results.get(Reports.getSelectionModel().getSelectedIndex()).getExpertSummary(),
-    	    				results.get(Reports.getSelectionModel().getSelectedIndex()).getSurveyResults());
+    		SurveyResult result = results.get(Reports.getSelectionModel().getSelectedIndex());
+    		byte[] expertSummary = StreamTransfer.Download(StreamTarget.ExpertSummary, new Object[] {result.getSurveyId()}, result.getExpertSummarySize());
+    		byte[] surveyResults = StreamTransfer.Download(StreamTarget.SurveyResults, new Object[] {result.getSurveyId()}, result.getSurveyResultsSize());
+    		if(expertSummary != null && surveyResults != null)
+    			OpenReportViewer(expertSummary, surveyResults);
     	}
     }
 
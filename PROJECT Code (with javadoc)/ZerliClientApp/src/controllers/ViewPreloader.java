@@ -0,0 +1,126 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import Entities.Roles;
+import javafx.fxml.FXMLLoader;
+
+/**
+ * The Class ViewPreloader - loads the FXMLs of a role in background threads as soon as the role is known,
+ * so the first visit of a screen does not wait for FXML parsing and controller construction.
+ * The views are only built off the FX thread, they are attached to a scene by the FX thread when first shown.
+ * Each preloaded view is handed out once, after that WindowControl keeps its own instance.
+ */
+public class ViewPreloader {
+
+	/** The POOL_SIZE - Const count of loading threads. */
+	private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/** The loaders - background threads loading the FXMLs. */
+	private static final ExecutorService loaders = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+		Thread thread = new Thread(r, "view-preload");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** The preloaded - views loaded (or being loaded) in the background, mapped by FXML path. */
+	private static final Map<String, CompletableFuture<FXMLLoader>> preloaded = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the FXMLs of a role, the main frame first and then the user controls in the order they are usually visited.
+	 *
+	 * @param role - the role of the user
+	 * @return the FXML paths
+	 */
+	private static String[] ViewsOf(Roles role) {
+		switch (role) {
+		case customer:
+			return new String[] { "/gui/mainframes/CustomerMainScreen.fxml", "/gui/usercontrols/CustomerHomePage.fxml",
+					"/gui/usercontrols/CustomerCatalogViewer.fxml", "/gui/usercontrols/CustomerCart.fxml",
+					"/gui/usercontrols/CustomerViewOrders.fxml", "/gui/usercontrols/CustomerAccountInfo.fxml",
+					"/gui/usercontrols/NotificationWindow.fxml", "/gui/usercontrols/CustomerOrderInformation.fxml",
+					"/gui/usercontrols/CustomerPaymentWindow.fxml", "/gui/usercontrols/CustomerViewOrdersSpecific.fxml",
+					"/gui/usercontrols/NewItemNameAndQuantity.fxml", "/gui/usercontrols/NewItemList.fxml",
+					"/gui/usercontrols/CustomerOutroViewWindow.fxml" };
+		case manager:
+			return new String[] { "/gui/mainframes/ManagerMainScreen.fxml", "/gui/usercontrols/ManagerHomePage.fxml",
+					"/gui/usercontrols/ManagerOrderManager.fxml", "/gui/usercontrols/ManagerReportsSelection.fxml",
+					"/gui/usercontrols/ManagerAccountManagment.fxml", "/gui/usercontrols/ManagerViewOrderDetails.fxml",
+					"/gui/usercontrols/ManagerAddNewCustomer.fxml", "/gui/usercontrols/ManagerEditAccounts.fxml" };
+		case delivery:
+			return new String[] { "/gui/mainframes/DeliveryMainScreen.fxml", "/gui/usercontrols/DeliveryOrderManager.fxml",
+					"/gui/usercontrols/DeliveryViewOrderDetails.fxml" };
+		case marketing:
+			return new String[] { "/gui/mainframes/MarketingMainScreen.fxml", "/gui/usercontrols/MarketingCatalogEditor.fxml",
+					"/gui/usercontrols/ItemAdder.fxml", "/gui/usercontrols/ItemEditor.fxml" };
+		case service:
+			return new String[] { "/gui/mainframes/CustomerServiceMainScreen.fxml", "/gui/usercontrols/ServiceHomePage.fxml",
+					"/gui/usercontrols/CustomerServiceViewComplaints.fxml", "/gui/usercontrols/SurveyMangerHomeScreen.fxml",
+					"/gui/usercontrols/ManagerHomePage.fxml", "/gui/usercontrols/CustomerServicePostComplaint.fxml",
+					"/gui/usercontrols/CustomerServiceViewOrderComplaintInfo.fxml", "/gui/usercontrols/AddNewSurvey.fxml",
+					"/gui/usercontrols/InsertAnswersIntoSurvey.fxml" };
+		case expert:
+			return new String[] { "/gui/mainframes/ExpertMainScreen.fxml", "/gui/usercontrols/ExpertHomePage.fxml",
+					"/gui/usercontrols/SurveyHistogram.fxml" };
+		case ceo:
+			return new String[] { "/gui/mainframes/CEOMainScreen.fxml", "/gui/usercontrols/ServiceHomePage.fxml",
+					"/gui/usercontrols/CEOReportsSelection.fxml", "/gui/usercontrols/ViewExpertReports.fxml" };
+		default:
+			return new String[0];
+		}
+	}
+
+	/**
+	 * Start loading the views of a role in the background, views preloaded for a previous login are dropped.
+	 *
+	 * @param role - the role returned by the authentication
+	 */
+	public static void Preload(Roles role) {
+		preloaded.clear();
+		for (String path : ViewsOf(role))
+			preloaded.put(path, CompletableFuture.supplyAsync(() -> {
+				try {
+					FXMLLoader loader = new FXMLLoader();
+					loader.setLocation(ViewPreloader.class.getResource(path));
+					loader.load();
+					return loader;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, loaders));
+	}
+
+	/**
+	 * Gets a loaded view, the preloaded one if there is one (waiting for it if it is still loading),
+	 * otherwise the view is loaded now.
+	 *
+	 * @param path - the FXML path
+	 * @return the loader holding the loaded root and controller, null if the view could not be loaded
+	 */
+	public static FXMLLoader Load(String path) {
+		CompletableFuture<FXMLLoader> preload = preloaded.remove(path);
+		if (preload != null) {
+			try {
+				return preload.join();
+			} catch (CompletionException e) {
+				e.printStackTrace();
+			}
+		}
+		FXMLLoader loader = new FXMLLoader();
+		loader.setLocation(ViewPreloader.class.getResource(path));
+		try {
+			loader.load();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		return loader;
+	}
+}
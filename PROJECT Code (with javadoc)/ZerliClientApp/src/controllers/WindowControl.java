@@ -1,7 +1,8 @@
 package controllers;
 
-import java.io.IOException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -22,11 +23,14 @@ public class WindowControl {
 	/** The currentControl - saves the controller of the sub windows */
 	private UserControl currentControl;
 
-	/** The map - singleton map for all loader.load() of FXMLs */
-	private Map<String,Parent> map = new HashMap<>();
+	/** The MAX_WEIGHT - Const bound of the total weight of the cached sub windows */
+	private static final int MAX_WEIGHT = 20;
 	
-	/** The uc_map - singleton map for all sub windows controllers */
-	private Map<String,UserControl> uc_map = new HashMap<String, UserControl>();
+	/** The views - cache of the loaded sub windows (FXML root and controller) in access order (LRU first) */
+	private LinkedHashMap<String,View> views = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/** The usedWeight - the total weight of the cached sub windows */
+	private int usedWeight = 0;
 	
 	/** The pipe - save information that shared for several windows */
 	private Map<String, Object> pipe = new HashMap<>();
@@ -84,26 +88,38 @@ public class WindowControl {
 			currentControl.onExit();
 		}
 	
-		if(map.get(path) == null ) {
-			FXMLLoader loader;
-			Parent root;
-			loader = new FXMLLoader();
-			loader.setLocation(getClass().getResource(path));
-			root = null;
-			try {root = loader.load();	} 
-			catch (IOException e) {e.printStackTrace();} 
-			map.put(path, root);
-			currentControl = loader.getController();
-			uc_map.put(path, currentControl);
-			
-		}
-		else {
-			currentControl = uc_map.get(path);
+		View view = views.get(path);
+		if(view == null ) {
+			/*** a view preloaded after the login is taken as is, otherwise it is loaded now ***/
+			FXMLLoader loader = ViewPreloader.Load(path);
+			if(loader == null) return;
+			view = new View(loader.getRoot(), loader.getController());
+			views.put(path, view);
+			usedWeight += view.weight;
+			evict(view);
 		}
+		currentControl = view.control;
 		frameController.getControlContainer().getChildren().clear();
-		frameController.getControlContainer().getChildren().add(map.get(path));
+		frameController.getControlContainer().getChildren().add(view.root);
 		currentControl.onEnter();
 	}
+	
+	/**
+	 * Evict the least recently used sub windows until the cache is within its weight bound.
+	 *
+	 * @param shown - the sub window that is being shown, never evicted
+	 */
+	private void evict(View shown) {
+		Iterator<View> lru = views.values().iterator();
+		while(usedWeight > MAX_WEIGHT && lru.hasNext()) {
+			View evicted = lru.next();
+			if(evicted == shown || evicted.control == currentControl)
+				continue;
+			lru.remove();
+			usedWeight -= evicted.weight;
+			evicted.control.onEvict();
+		}
+	}
 
 	/**
 	 * Refresh window and execute onEnter of the controller of the sub windows.
@@ -111,4 +127,31 @@ public class WindowControl {
 	public void Refresh() {
 		currentControl.onEnter();
 	}
+	
+	/**
+	 * The Class View - a loaded sub window in the view cache.
+	 */
+	private static class View {
+		
+		/** The root - the loaded FXML */
+		private final Parent root;
+		
+		/** The control - the controller of the sub window */
+		private final UserControl control;
+		
+		/** The weight - the weight of the sub window, taken once when loaded */
+		private final int weight;
+		
+		/**
+		 * Instantiates a new view.
+		 *
+		 * @param root - the loaded FXML
+		 * @param control - the controller of the sub window
+		 */
+		View(Parent root, UserControl control) {
+			this.root = root;
+			this.control = control;
+			this.weight = Math.max(1, control.getWeight());
+		}
+	}
 }
@@ -4,10 +4,14 @@
 package controllers;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
+import javafx.scene.control.Pagination;
 import javafx.scene.layout.AnchorPane;
 
 /**
@@ -31,6 +35,18 @@ public class pdfComparer {
 	 * @param pdfB the pdf B
 	 */
 	public void start(byte[] pdfA, byte[] pdfB)
+	{
+		start(ByteBuffer.wrap(pdfA), ByteBuffer.wrap(pdfB));
+	}
+	
+	/**
+	 * Start- load 2 pdf's one beside the other one to compare between them
+	 * the buffers may be memory mapped from the report cache.
+	 *
+	 * @param pdfA the pdf A
+	 * @param pdfB the pdf B
+	 */
+	public void start(ByteBuffer pdfA, ByteBuffer pdfB)
 	{
 		FXMLLoader loader = new FXMLLoader();
     	Parent root = null;
@@ -51,6 +67,7 @@ public class pdfComparer {
 		} 
 		ReportViewerController rvCtrl = loader.getController();
 		ReportViewerController rvCtrl2 = loader2.getController();
+		synchronize(rvCtrl, rvCtrl2);
 		rvCtrl.loadReport(pdfA);
 		rvCtrl2.loadReport(pdfB);
 		pdf1.getChildren().add(root);
@@ -63,4 +80,45 @@ public class pdfComparer {
 		//newStage.setScene(scene); 	
 		//newStage.show();
 	}
+	
+	/** The following flag - set while a page change is copied to the other side, so the copy is not copied back. */
+	private boolean following = false;
+	
+	/**
+	 * Synchronize the zoom and the shown page of both sides of the comparison,
+	 * a page that the other report does not have leaves it on its last page.
+	 *
+	 * @param left the left viewer
+	 * @param right the right viewer
+	 */
+	private void synchronize(ReportViewerController left, ReportViewerController right)
+	{
+		left.zoomProperty().bindBidirectional(right.zoomProperty());
+		followPage(left.getPagination(), right.getPagination());
+		followPage(right.getPagination(), left.getPagination());
+	}
+	
+	/**
+	 * Make a pagination follow the page changes of another.
+	 * Only the follower is clamped to its last page, the side that was paged stays where it was paged to.
+	 *
+	 * @param source the pagination that is followed
+	 * @param target the pagination that follows
+	 */
+	private void followPage(Pagination source, Pagination target)
+	{
+		source.currentPageIndexProperty().addListener(new ChangeListener<Number>() {
+			@Override
+			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+				if(following || target.getPageCount() <= 0)
+					return;
+				following = true;
+				try {
+					target.setCurrentPageIndex(Math.min(newValue.intValue(), target.getPageCount() - 1));
+				} finally {
+					following = false;
+				}
+			}
+		});
+	}
 }
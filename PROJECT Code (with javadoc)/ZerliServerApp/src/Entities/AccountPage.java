@@ -0,0 +1,46 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The Class AccountPage is the response of an account search,
+ * it holds a single page of the matching accounts, ordered by user id.
+ */
+public class AccountPage implements Serializable {
+
+	/** The accounts of the page. */
+	private ArrayList<AccountInfo> accounts;
+
+	/** The cursor of the next page, null if this is the last page. */
+	private String nextCursor;
+
+	/**
+	 * Instantiates a new account page.
+	 *
+	 * @param accounts the accounts of the page
+	 * @param nextCursor the cursor of the next page, null if last
+	 */
+	public AccountPage(ArrayList<AccountInfo> accounts, String nextCursor) {
+		this.accounts = accounts;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Gets the accounts.
+	 *
+	 * @return the accounts of the page
+	 */
+	public ArrayList<AccountInfo> getAccounts() {
+		return accounts;
+	}
+
+	/**
+	 * Gets the next cursor.
+	 *
+	 * @return the cursor of the next page, null if this is the last page
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
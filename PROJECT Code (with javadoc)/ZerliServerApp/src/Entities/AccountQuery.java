@@ -0,0 +1,130 @@
+package Entities;
+
+import java.io.Serializable;
+
+/**
+ * The Class AccountQuery holds the search text, filters and page position
+ * of a single account search page request.
+ * A null filter means the filter is not applied.
+ */
+public class AccountQuery implements Serializable {
+
+	/** Whether employees are searched, customers otherwise. */
+	private boolean employees;
+
+	/** The search text, matched as a prefix of the first name, last name, user id or national id. */
+	private String text;
+
+	/** The account access, applies to customers. */
+	private Access access;
+
+	/** The employee role, applies to employees. */
+	private Roles role;
+
+	/** The cursor - the user id of the last account of the previous page, null for the first page. */
+	private String after;
+
+	/** The page size. */
+	private int pageSize;
+
+	/**
+	 * Instantiates a new account query.
+	 *
+	 * @param pageSize the page size
+	 * @param employees whether employees are searched, customers otherwise
+	 */
+	public AccountQuery(int pageSize, boolean employees) {
+		this.pageSize = pageSize;
+		this.employees = employees;
+	}
+
+	/**
+	 * Checks if employees are searched.
+	 *
+	 * @return true, if employees are searched, false for customers
+	 */
+	public boolean isEmployees() {
+		return employees;
+	}
+
+	/**
+	 * Gets the search text.
+	 *
+	 * @return the search text, null for all accounts
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Sets the search text.
+	 *
+	 * @param text the new search text, null for all accounts
+	 */
+	public void setText(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Gets the access.
+	 *
+	 * @return the access
+	 */
+	public Access getAccess() {
+		return access;
+	}
+
+	/**
+	 * Sets the access.
+	 *
+	 * @param access the new access
+	 */
+	public void setAccess(Access access) {
+		this.access = access;
+	}
+
+	/**
+	 * Gets the role.
+	 *
+	 * @return the role
+	 */
+	public Roles getRole() {
+		return role;
+	}
+
+	/**
+	 * Sets the role.
+	 *
+	 * @param role the new role
+	 */
+	public void setRole(Roles role) {
+		this.role = role;
+	}
+
+	/**
+	 * Gets the cursor.
+	 *
+	 * @return the user id of the last account of the previous page, null for the first page
+	 */
+	public String getAfter() {
+		return after;
+	}
+
+	/**
+	 * Sets the cursor.
+	 *
+	 * @param after the user id of the last account of the previous page, null for the first page
+	 */
+	public void setAfter(String after) {
+		this.after = after;
+	}
+
+	/**
+	 * Gets the page size.
+	 *
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+}
@@ -0,0 +1,23 @@
+package Entities;
+
+
+/**
+ * The Enum CatalogSort represents the orders a catalog query can be sorted by.
+ */
+public enum CatalogSort {
+	
+	/** The catalog order (by item id). */
+	catalog,
+	
+	/** The lowest current price first. */
+	price_asc,
+	
+	/** The highest current price first. */
+	price_desc,
+	
+	/** The alphabetical order of the item names. */
+	name,
+	
+	/** The order of the item ids given in the query (search results, best match first). */
+	relevance,
+}
@@ -0,0 +1,144 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The Class NotificationSync is used to keep the notifications of a user in sync without resending them.
+ * The client sends the cursor of its last sync (server epoch, newest notification id, last status change)
+ * and gets back only the notifications added since, the status changes since, and the unread count.
+ * When the server cannot answer from the cursor (first sync, server restarted, too many changes)
+ * the response is a full one and the client replaces what it has.
+ */
+public class NotificationSync implements Serializable {
+
+	/** The epoch of the server the cursor belongs to, 0 before the first sync. */
+	private long epoch;
+
+	/** The newest notification id the client has. */
+	private int lastId;
+
+	/** The last status change the client has. */
+	private long lastChange;
+
+	/** Whether the response holds all the notifications of the user. */
+	private boolean full;
+
+	/** The notifications added since the cursor, oldest first. */
+	private ArrayList<NotificationInTable> added = new ArrayList<NotificationInTable>();
+
+	/** The status changes of older notifications since the cursor, mapped by notification id. */
+	private HashMap<Integer, String> changed = new HashMap<Integer, String>();
+
+	/** The number of unread notifications of the user. */
+	private int unread;
+
+	/**
+	 * Instantiates the cursor of a first sync.
+	 */
+	public NotificationSync() {
+	}
+
+	/**
+	 * Instantiates a cursor.
+	 *
+	 * @param epoch the epoch of the server the cursor belongs to
+	 * @param lastId the newest notification id the client has
+	 * @param lastChange the last status change the client has
+	 */
+	public NotificationSync(long epoch, int lastId, long lastChange) {
+		this.epoch = epoch;
+		this.lastId = lastId;
+		this.lastChange = lastChange;
+	}
+
+	/**
+	 * Gets the cursor to send on the next sync, without the notifications.
+	 *
+	 * @return the next cursor
+	 */
+	public NotificationSync next() {
+		return new NotificationSync(epoch, lastId, lastChange);
+	}
+
+	/**
+	 * Gets the epoch.
+	 *
+	 * @return the epoch of the server the cursor belongs to
+	 */
+	public long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Gets the last id.
+	 *
+	 * @return the newest notification id
+	 */
+	public int getLastId() {
+		return lastId;
+	}
+
+	/**
+	 * Gets the last change.
+	 *
+	 * @return the last status change
+	 */
+	public long getLastChange() {
+		return lastChange;
+	}
+
+	/**
+	 * Checks if the response is a full one.
+	 *
+	 * @return true, if the response holds all the notifications of the user
+	 */
+	public boolean isFull() {
+		return full;
+	}
+
+	/**
+	 * Gets the added notifications.
+	 *
+	 * @return the notifications added since the cursor, oldest first
+	 */
+	public ArrayList<NotificationInTable> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Gets the changed statuses.
+	 *
+	 * @return the status changes since the cursor, mapped by notification id
+	 */
+	public HashMap<Integer, String> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Gets the unread count.
+	 *
+	 * @return the number of unread notifications
+	 */
+	public int getUnread() {
+		return unread;
+	}
+
+	/**
+	 * Sets the response.
+	 *
+	 * @param epoch the epoch of the server
+	 * @param lastId the newest notification id
+	 * @param lastChange the last status change
+	 * @param full whether the response holds all the notifications of the user
+	 * @param unread the number of unread notifications
+	 */
+	public void setResponse(long epoch, int lastId, long lastChange, boolean full, int unread) {
+		this.epoch = epoch;
+		this.lastId = lastId;
+		this.lastChange = lastChange;
+		this.full = full;
+		this.unread = unread;
+	}
+}
@@ -0,0 +1,89 @@
+package Entities;
+
+import java.io.Serializable;
+
+/**
+ * The Class ReportFile is the response of a conditional report request,
+ * it holds the checksum of the stored report and the report itself
+ * only when the requester does not already hold a copy with the same checksum.
+ * A report that is not sent along with the response is streamed by the requester (StreamTarget.Report),
+ * in that case only its size is set.
+ */
+public class ReportFile implements Serializable {
+
+	/** The checksum (SHA-256, hex) of the stored report. */
+	private String checksum;
+
+	/** The pdf file containing the actual report, null if the requester's copy is up to date. */
+	private byte[] report;
+
+	/** The size in bytes of a report that is to be streamed, 0 if the report was sent or is unchanged. */
+	private int size;
+
+	/**
+	 * Instantiates a new report file.
+	 *
+	 * @param checksum the checksum of the stored report
+	 * @param report the pdf file, null if unchanged
+	 */
+	public ReportFile(String checksum, byte[] report) {
+		this.checksum = checksum;
+		this.report = report;
+	}
+
+	/**
+	 * Instantiates a new report file of a report that is to be streamed.
+	 *
+	 * @param checksum the checksum of the stored report
+	 * @param size the size in bytes of the report
+	 */
+	public ReportFile(String checksum, int size) {
+		this.checksum = checksum;
+		this.size = size;
+	}
+
+	/**
+	 * Gets the checksum.
+	 *
+	 * @return the checksum
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * Gets the report.
+	 *
+	 * @return the pdf file, null if the requester's copy is up to date
+	 */
+	public byte[] getReport() {
+		return report;
+	}
+
+	/**
+	 * Gets the size.
+	 *
+	 * @return the size in bytes of a report that is to be streamed
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the requester's copy is up to date.
+	 *
+	 * @return true, if the report was not sent and is not to be streamed
+	 */
+	public boolean isUnchanged() {
+		return report == null && size == 0;
+	}
+
+	/**
+	 * Checks whether the report is to be streamed.
+	 *
+	 * @return true, if the report was not sent but has changed
+	 */
+	public boolean isStreamed() {
+		return report == null && size > 0;
+	}
+}
@@ -0,0 +1,47 @@
+package Entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The Class RowBatch is a part of a list that is sent row batch by row batch, to transfer between the server and the client.
+ * The batches of a list are sent one after the other as the rows are read from the database,
+ * every batch but the last is sent ahead of the response, the last one is the response itself.
+ */
+public class RowBatch implements Serializable {
+
+	/** The rows of the batch. */
+	private ArrayList<?> rows;
+
+	/** Whether this is the last batch of the list. */
+	private boolean last;
+
+	/**
+	 * Instantiates a new row batch.
+	 *
+	 * @param rows the rows of the batch
+	 * @param last whether this is the last batch of the list
+	 */
+	public RowBatch(ArrayList<?> rows, boolean last) {
+		this.rows = rows;
+		this.last = last;
+	}
+
+	/**
+	 * Gets the rows.
+	 *
+	 * @return the rows of the batch
+	 */
+	public ArrayList<?> getRows() {
+		return rows;
+	}
+
+	/**
+	 * Checks if this is the last batch.
+	 *
+	 * @return true, if this is the last batch of the list
+	 */
+	public boolean isLast() {
+		return last;
+	}
+}
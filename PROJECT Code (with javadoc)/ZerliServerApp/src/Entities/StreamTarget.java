@@ -0,0 +1,16 @@
+package Entities;
+
+/**
+ * The Enum StreamTarget, the large files that can be downloaded in parts, along with the key that identifies each file.
+ */
+public enum StreamTarget {
+
+	/** A stored report, key: [report type, is monthly, branch, date]. */
+	Report,
+
+	/** The expert summary pdf of a ready survey, key: [survey id]. */
+	ExpertSummary,
+
+	/** The survey results pdf of a ready survey, key: [survey id]. */
+	SurveyResults,
+}
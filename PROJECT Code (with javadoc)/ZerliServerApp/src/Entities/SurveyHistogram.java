@@ -0,0 +1,74 @@
+package Entities;
+
+import java.io.Serializable;
+
+/**
+ * The Class SurveyHistogram holds the answer counts of a survey, to transfer between the server and the client.
+ * The counts are sent as they are (6 questions of 10 ratings) along with the question texts,
+ * the client draws the charts on its own.
+ */
+public class SurveyHistogram implements Serializable {
+
+	/** The survey id in the database. */
+	private int surveyId;
+
+	/** The name of the survey. */
+	private String content;
+
+	/** The question texts, one per question. */
+	private String[] questions;
+
+	/** The answer counts, [question][rating - 1]. */
+	private int[][] counts;
+
+	/**
+	 * Instantiates a new survey histogram.
+	 *
+	 * @param surveyId the survey id
+	 * @param content the name of the survey
+	 * @param questions the question texts
+	 * @param counts the answer counts, [question][rating - 1]
+	 */
+	public SurveyHistogram(int surveyId, String content, String[] questions, int[][] counts) {
+		this.surveyId = surveyId;
+		this.content = content;
+		this.questions = questions;
+		this.counts = counts;
+	}
+
+	/**
+	 * Gets the survey id.
+	 *
+	 * @return the survey id
+	 */
+	public int getSurveyId() {
+		return surveyId;
+	}
+
+	/**
+	 * Gets the content.
+	 *
+	 * @return the name of the survey
+	 */
+	public String getContent() {
+		return content;
+	}
+
+	/**
+	 * Gets the questions.
+	 *
+	 * @return the question texts
+	 */
+	public String[] getQuestions() {
+		return questions;
+	}
+
+	/**
+	 * Gets the counts.
+	 *
+	 * @return the answer counts, [question][rating - 1]
+	 */
+	public int[][] getCounts() {
+		return counts;
+	}
+}
@@ -6,6 +6,8 @@ import java.io.Serializable;
 /**
  * The Class SurveyResult represents a survey result containing
  * the actual pdf files to be shown on request.
+ * The listing of the results holds only the sizes of the pdf files, the files themselves are fetched
+ * by the survey id once a result is opened.
  */
 public class SurveyResult implements Serializable {
 	
@@ -21,6 +23,28 @@ public class SurveyResult implements Serializable {
 	/** The survey results as a pdf byte stream. */
 	byte[] surveyResults;
 	
+	/** The size in bytes of the expert summary pdf. */
+	private int expertSummarySize;
+	
+	/** The size in bytes of the survey results pdf. */
+	private int surveyResultsSize;
+	
+	/**
+	 * Instantiates a new survey result without its pdf files, used by the listing of the results.
+	 *
+	 * @param surveyId the survey id
+	 * @param surveyName the survey name
+	 * @param expertSummarySize the size in bytes of the expert summary pdf
+	 * @param surveyResultsSize the size in bytes of the survey results pdf
+	 */
+	public SurveyResult(int surveyId, String surveyName, int expertSummarySize, int surveyResultsSize) {
+		super();
+		this.surveyId = surveyId;
+		this.surveyName = surveyName;
+		this.expertSummarySize = expertSummarySize;
+		this.surveyResultsSize = surveyResultsSize;
+	}
+	
 	/**
 	 * Instantiates a new survey result.
 	 *
@@ -108,6 +132,24 @@ public class SurveyResult implements Serializable {
 	public void setSurveyResults(byte[] surveyResults) {
 		this.surveyResults = surveyResults;
 	}
+	
+	/**
+	 * Gets the expert summary size.
+	 *
+	 * @return the size in bytes of the expert summary pdf
+	 */
+	public int getExpertSummarySize() {
+		return expertSummarySize;
+	}
+	
+	/**
+	 * Gets the survey results size.
+	 *
+	 * @return the size in bytes of the survey results pdf
+	 */
+	public int getSurveyResultsSize() {
+		return surveyResultsSize;
+	}
 
 
 }
@@ -1,9 +1,15 @@
 package ProtocolHandler.Operations;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import Entities.Item;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.CatalogIndex;
+import server.ItemSearchIndex;
 import server.Server;
+import server.Streams;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -18,12 +24,36 @@ public class AddItemOperation implements IOperation {
 	 *
 	 * @param requestee - the request sender
 	 * @param data - the data that was sent
-	 * @param params - the parameters constraints that were pinned to the data
+	 * @param params - the id of the upload of the item image, when the image was uploaded in parts
 	 * @return true, if successful
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
-		Server.SqlServerManager.InsertItem((Item)data);
+		Item item = (Item)data;
+		int id;
+		if(params instanceof Integer)
+		{
+			/*** the image was uploaded in parts ***/
+			Streams.Upload image = Streams.Take(requestee, (int)params);
+			if(image == null)
+				return false;
+			try (InputStream imageStream = image.Open()) {
+				id = Server.SqlServerManager.InsertItem(item, imageStream, image.getSize());
+			} catch (IOException e) {
+				e.printStackTrace();
+				return false;
+			} finally {
+				image.Delete();
+			}
+		}
+		else
+			id = Server.SqlServerManager.InsertItem(item);
+		CatalogIndex.Invalidate();
+		if(id != -1)
+		{
+			item.setId(id);
+			ItemSearchIndex.Put(item);
+		}
 		return true;
 	}
 
@@ -1,8 +1,12 @@
 package ProtocolHandler.Operations;
 
+import Entities.Access;
+import Entities.Roles;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
 import server.Server;
+import server.SessionRegistry;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -41,7 +45,13 @@ public class AuthenticationOperation implements IOperation {
 		if(params instanceof String[])
 		{
 			String creds[] = (String[])params;
+			/*** a log out may still be queued ***/
+			WriteBehind.Flush();
 			Object[] loginDetails = Server.SqlServerManager.Authenticate(creds[0],creds[1]);
+			/*** the same condition the authentication marks the user as logged in on ***/
+			if(loginDetails[0] != null && (int)loginDetails[0] == 0 && loginDetails[1] != Access.noaut
+					&& (loginDetails[2] == Roles.customer || loginDetails[1] != Access.inactive))
+				SessionRegistry.Bind(creds[0], (Roles)loginDetails[2], (Access)loginDetails[1]);
 			
 			response.SetResponse(loginDetails);
 			return true;
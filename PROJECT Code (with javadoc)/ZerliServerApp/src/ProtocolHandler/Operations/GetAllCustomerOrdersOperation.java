@@ -1,10 +1,9 @@
 package ProtocolHandler.Operations;
 
-import java.util.ArrayList;
-
 import Entities.*;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.RowStream;
 import server.Server;
 import server.ServerApp;
 
@@ -40,9 +39,9 @@ public class GetAllCustomerOrdersOperation implements IOperation{
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
-		ArrayList<Order> customerOrders = new ArrayList<>();
+		RowStream<Order> customerOrders = new RowStream<>(response);
 		Server.SqlServerManager.GetAllCustomerOrders(requestee,customerOrders);
-		response.SetResponse(customerOrders);
+		customerOrders.Close();
 		return true;
 	}
 
@@ -1,9 +1,9 @@
 package ProtocolHandler.Operations;
 
-import java.util.ArrayList;
 import Entities.*;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.RowStream;
 import server.Server;
 
 // TODO: Auto-generated Javadoc
@@ -38,9 +38,9 @@ public class GetAllCustomersInfoOperation implements IOperation{
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
-		ArrayList<AccountInfo> Customers = new ArrayList<>();
+		RowStream<AccountInfo> Customers = new RowStream<>(response);
 	 	Server.SqlServerManager.getAllCustomersInfo(Customers);
-	    response.SetResponse(Customers);
+	    Customers.Close();
 		return true;
 	}
 
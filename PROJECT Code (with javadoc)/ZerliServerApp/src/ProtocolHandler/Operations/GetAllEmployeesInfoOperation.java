@@ -1,11 +1,11 @@
 package ProtocolHandler.Operations;
 
-import java.util.ArrayList;
-
 import Entities.AccountInfo;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.RowStream;
 import server.Server;
+import server.SessionRegistry;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -39,9 +39,9 @@ public class GetAllEmployeesInfoOperation implements IOperation{
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
-		ArrayList<AccountInfo> employees = new ArrayList<>();
-	 	Server.SqlServerManager.getAllEmployeesInfo(employees,requestee);
-	    response.SetResponse(employees);
+		RowStream<AccountInfo> employees = new RowStream<>(response);
+	 	Server.SqlServerManager.getAllEmployeesInfo(employees,SessionRegistry.Branch(requestee));
+	    employees.Close();
 		return true;
 	}
 
@@ -2,7 +2,7 @@ package ProtocolHandler.Operations;
 
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import server.SessionRegistry;
 
 /**
  * The Class GetBranchOperation defines the operation
@@ -37,7 +37,7 @@ public class GetBranchOperation implements IOperation {
 	@Override
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
 		// TODO Auto-generated method stub
-		String branch = Server.SqlServerManager.GetBranch(requestee);
+		String branch = SessionRegistry.Branch(requestee);
 		response.SetResponse(branch);
 		return true;
 	}
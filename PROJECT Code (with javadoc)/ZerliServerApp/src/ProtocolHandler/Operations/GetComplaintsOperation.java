@@ -1,12 +1,12 @@
 package ProtocolHandler.Operations;
 
-import java.util.ArrayList;
-
 import Entities.Complaint;
 import Entities.Order;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.RowStream;
 import server.Server;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -40,9 +40,10 @@ public class GetComplaintsOperation implements IOperation {
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
-		ArrayList<Complaint> complaints = new ArrayList<Complaint>();
+		RowStream<Complaint> complaints = new RowStream<>(response);
+		WriteBehind.Flush();
 	    Server.SqlServerManager.GetComplaints(complaints,requestee);
-	    response.SetResponse(complaints);
+	    complaints.Close();
 		return true;
 	}
 
@@ -0,0 +1,70 @@
+package ProtocolHandler.Operations;
+
+import Entities.LoginBundle;
+import Entities.Roles;
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.NotificationTracker;
+import server.Server;
+import server.SessionRegistry;
+
+/**
+ * The Class GetLoginBundleOperation defines the operation
+ * that is invoked upon a GetLoginBundle Request.
+ * Sent once right after a successful login, it answers everything the home screen of the role needs
+ * (instead of the frames asking for each value on its own).
+ */
+public class GetLoginBundleOperation implements IOperation{
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the data that was sent
+	 * @param params - the role returned by the authentication
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(!(params instanceof Roles))
+			return false;
+		Roles role = (Roles)params;
+		LoginBundle bundle = new LoginBundle(role);
+		switch (role) {
+		case customer:
+			bundle.setCurrency(Server.SqlServerManager.GetCurrency(requestee));
+			bundle.setCartQuantity(Server.SqlServerManager.GetCartQuantity(requestee));
+			bundle.setUnreadNotifications(NotificationTracker.Unread(requestee));
+			bundle.setBranches(Server.SqlServerManager.GetBranches());
+			break;
+		case manager:
+		case delivery:
+			bundle.setBranch(SessionRegistry.Branch(requestee));
+			bundle.setPendingOrders(Server.SqlServerManager.GetPendingOrderCount(bundle.getBranch(), role.toString()));
+			break;
+		case service:
+		case ceo:
+			bundle.setBranches(Server.SqlServerManager.GetBranches());
+			break;
+		default:
+			break;
+		}
+		response.SetResponse(bundle);
+		return true;
+	}
+}
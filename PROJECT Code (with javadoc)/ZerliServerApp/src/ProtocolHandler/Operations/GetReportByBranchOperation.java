@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import Entities.ReportType;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import reports.ReportProvider;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -43,8 +43,10 @@ public class GetReportByBranchOperation implements IOperation {
 		if(params instanceof Object[])
 		{
 			Object[] par = (Object[])params;
-			response.SetResponse(Server.SqlServerManager.GetReportOfBranch((ReportType)(par[0]), (boolean)par[1], (String)par[3], 
-					java.sql.Date.valueOf(((LocalDate)par[2]))));
+			if(par.length > 4) //conditional request, [4] - the checksum of the requester's cached copy
+				response.SetResponse(ReportProvider.GetReportIfChanged((ReportType)(par[0]), (boolean)par[1], (String)par[3], (LocalDate)par[2], (String)par[4]));
+			else
+				response.SetResponse(ReportProvider.GetReport((ReportType)(par[0]), (boolean)par[1], (String)par[3], (LocalDate)par[2]));
 			return true;
 		}
 		return false;
@@ -5,7 +5,8 @@ import java.time.LocalDate;
 import Entities.ReportType;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import reports.ReportProvider;
+import server.SessionRegistry;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -43,8 +44,11 @@ public class GetReportOperation implements IOperation {
 		if(params instanceof Object[])
 		{
 			Object[] par = (Object[])params;
-			response.SetResponse(Server.SqlServerManager.GetReport((ReportType)(par[0]), (boolean)par[1], requestee, 
-					java.sql.Date.valueOf(((LocalDate)par[2]))));
+			String branch = SessionRegistry.Branch(requestee);
+			if(par.length > 4) //conditional request, [4] - the checksum of the requester's cached copy
+				response.SetResponse(ReportProvider.GetReportIfChanged((ReportType)(par[0]), (boolean)par[1], branch, (LocalDate)par[2], (String)par[4]));
+			else
+				response.SetResponse(ReportProvider.GetReport((ReportType)(par[0]), (boolean)par[1], branch, (LocalDate)par[2]));
 			return true;
 		}
 		return false;
@@ -0,0 +1,60 @@
+package ProtocolHandler.Operations;
+
+import java.time.LocalDate;
+
+import Entities.Roles;
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.Server;
+import server.SessionRegistry;
+
+/**
+ * The Class GetReportPreviewsOperation defines the operation
+ * that is invoked upon an GetReportPreviews Request.
+ */
+public class GetReportPreviewsOperation implements IOperation {
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 * params: [0] - is monthly, [1] - from date, [2] - to date, [3] - branch (ceo only, the requester's branch otherwise)
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the data that was sent
+	 * @param params - the parameters constraints that were pinned to the data
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(params instanceof Object[])
+		{
+			Object[] par = (Object[])params;
+			Roles role = SessionRegistry.Role(requestee);
+			if(role != Roles.ceo && role != Roles.manager)
+			{
+				response.SetResponse(null);
+				return true;
+			}
+			String branch = role == Roles.ceo && par.length > 3 && par[3] != null ? (String)par[3] : SessionRegistry.Branch(requestee);
+			response.SetResponse(Server.SqlServerManager.GetReportPreviews((boolean)par[0], branch,
+					java.sql.Date.valueOf((LocalDate)par[1]), java.sql.Date.valueOf((LocalDate)par[2])));
+			return true;
+		}
+		return false;
+	}
+
+}
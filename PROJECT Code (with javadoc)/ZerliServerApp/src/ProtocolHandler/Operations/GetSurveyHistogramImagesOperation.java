@@ -0,0 +1,65 @@
+package ProtocolHandler.Operations;
+
+import java.util.ArrayList;
+
+import Entities.Survey;
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import reports.SurveyHistogramGenerator;
+import server.Server;
+import server.WriteBehind;
+
+// TODO: Auto-generated Javadoc
+/**
+ * The Class GetSurveyHistogramImagesOperation defines the operation
+ * that is invoked upon an GetSurveyHistogramImages Request.
+ * The charts are rendered here only for the PDF export of the expert, the screen draws them from GetSurveyHistogram.
+ */
+public class GetSurveyHistogramImagesOperation implements IOperation {
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		// TODO Auto-generated method stub
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the data that was sent
+	 * @param params - the parameters constraints that were pinned to the data
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(data instanceof Survey)
+		{
+			WriteBehind.Flush();
+			ArrayList<int[]> listOfSurveyAnswers=new ArrayList<int[]>();
+			for (int i = 0; i < 6; i++) {
+				listOfSurveyAnswers.add(new int [10]);
+			}
+			ArrayList<byte[]> listOfImages;
+			Survey survey=(Survey) data; 
+			Server.SqlServerManager.GetSurveyHistogram(survey,listOfSurveyAnswers);
+			SurveyHistogramGenerator shg=new SurveyHistogramGenerator();
+			listOfImages=shg.get6images(listOfSurveyAnswers,survey);
+			response.SetResponse(listOfImages);
+			return true;
+			
+		}
+		return false;
+	}
+
+}
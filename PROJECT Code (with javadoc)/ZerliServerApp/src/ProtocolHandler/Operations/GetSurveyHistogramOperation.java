@@ -3,15 +3,17 @@ package ProtocolHandler.Operations;
 import java.util.ArrayList;
 
 import Entities.Survey;
+import Entities.SurveyHistogram;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import reports.SurveyHistogramGenerator;
 import server.Server;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
  * The Class GetSurveyHistogramOperation defines the operation
  * that is invoked upon an GetSurveyHistogramOperation Request.
+ * The answer counts are sent as they are, the client draws the charts.
  */
 public class GetSurveyHistogramOperation implements IOperation {
 
@@ -43,16 +45,15 @@ public class GetSurveyHistogramOperation implements IOperation {
 	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
 		if(data instanceof Survey)
 		{
+			WriteBehind.Flush();
 			ArrayList<int[]> listOfSurveyAnswers=new ArrayList<int[]>();
 			for (int i = 0; i < 6; i++) {
 				listOfSurveyAnswers.add(new int [10]);
 			}
-			ArrayList<byte[]> listOfImages;
 			Survey survey=(Survey) data; 
 			Server.SqlServerManager.GetSurveyHistogram(survey,listOfSurveyAnswers);
-			SurveyHistogramGenerator shg=new SurveyHistogramGenerator();
-			listOfImages=shg.get6images(listOfSurveyAnswers,survey);
-			response.SetResponse(listOfImages);
+			response.SetResponse(new SurveyHistogram(survey.getId(), survey.getContent(), survey.getQuestions(),
+					listOfSurveyAnswers.toArray(new int[6][])));
 			return true;
 			
 		}
@@ -0,0 +1,41 @@
+package ProtocolHandler.Operations;
+
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+
+/**
+ * The Class HeartbeatOperation defines the operation
+ * that is invoked upon a Heartbeat Request.
+ * The protocol handler marks the session of the sender as seen on every request,
+ * so the heartbeat itself has nothing left to do.
+ */
+public class HeartbeatOperation implements IOperation{
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the data that was sent
+	 * @param params - the parameters constraints that were pinned to the data
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return true;
+	}
+
+	/**
+	 * This perform is not used since the operation is an Operate-Only request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		return false;
+	}
+
+}
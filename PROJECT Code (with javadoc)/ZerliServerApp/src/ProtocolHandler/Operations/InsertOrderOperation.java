@@ -1,9 +1,11 @@
 package ProtocolHandler.Operations;
 
+import Entities.Access;
 import Entities.Order;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
 import server.Server;
+import server.SessionRegistry;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -15,6 +17,7 @@ public class InsertOrderOperation implements IOperation {
 	/**
 	 * The perform operation is the method that is being invoked when the matching request is made
 	 * all database calls are managed here, along with some processing and input validation.
+	 * a frozen account may not order.
 	 *
 	 * @param requestee - the request sender
 	 * @param data - the data that was sent
@@ -25,6 +28,8 @@ public class InsertOrderOperation implements IOperation {
 	public boolean Perform(String requestee, Object data, Object params) {
 		if(data instanceof Order)
 		{
+			if(SessionRegistry.Access(requestee) == Access.frozen)
+				return false;
 			Server.SqlServerManager.InsertOrder((Order)data, requestee);
 			return true;
 		}
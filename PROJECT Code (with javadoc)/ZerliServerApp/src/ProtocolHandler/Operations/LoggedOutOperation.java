@@ -2,7 +2,8 @@ package ProtocolHandler.Operations;
 
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import server.SessionRegistry;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -22,7 +23,8 @@ public class LoggedOutOperation implements IOperation{
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
-		Server.SqlServerManager.LoggedOut(requestee);
+		SessionRegistry.Unbind();
+		WriteBehind.LoggedOut(requestee);
 		return true;
 	}
 
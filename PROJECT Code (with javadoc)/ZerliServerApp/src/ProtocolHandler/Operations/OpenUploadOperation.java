@@ -0,0 +1,45 @@
+package ProtocolHandler.Operations;
+
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.Streams;
+
+/**
+ * The Class OpenUploadOperation defines the operation
+ * that is invoked upon a OpenUpload Request.
+ * Starts the upload of a large file, answers the upload id the parts are written to.
+ */
+public class OpenUploadOperation implements IOperation {
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - not used
+	 * @param params - the size in bytes of the file
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(!(params instanceof Long))
+			return false;
+		response.SetResponse(Streams.Open(requestee, (long)params));
+		return true;
+	}
+
+}
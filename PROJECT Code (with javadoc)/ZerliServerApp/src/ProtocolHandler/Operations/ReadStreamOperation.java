@@ -0,0 +1,71 @@
+package ProtocolHandler.Operations;
+
+import Entities.Roles;
+import Entities.StreamTarget;
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.SessionRegistry;
+import server.Streams;
+
+/**
+ * The Class ReadStreamOperation defines the operation
+ * that is invoked upon a ReadStream Request.
+ * Answers a single part of a large file, the requester asks for the next part once it got this one.
+ * Reports are streamed to managers (of their own branch) and to the ceo, the survey result files to the ceo.
+ */
+public class ReadStreamOperation implements IOperation {
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the file kind
+	 * @param params - [0] - the key of the file, [1] - the offset, [2] - the length
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(!(data instanceof StreamTarget) || !(params instanceof Object[]))
+			return false;
+		Object[] par = (Object[])params;
+		StreamTarget target = (StreamTarget)data;
+		Object[] key = (Object[])par[0];
+		Roles role = SessionRegistry.Role(requestee);
+		boolean allowed;
+		switch (target) {
+		case Report:
+			allowed = key.length > 3 && (role == Roles.ceo || role == Roles.manager);
+			/*** a manager reads the reports of its own branch, whichever branch the key names ***/
+			if(allowed && role == Roles.manager)
+			{
+				key = key.clone();
+				key[2] = SessionRegistry.Branch(requestee);
+			}
+			break;
+		case ExpertSummary:
+		case SurveyResults:
+			allowed = role == Roles.ceo;
+			break;
+		default:
+			allowed = false;
+		}
+		response.SetResponse(allowed ? Streams.Read(target, key, (long)par[1], (int)par[2]) : null);
+		return true;
+	}
+
+}
@@ -2,6 +2,8 @@ package ProtocolHandler.Operations;
 
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.CatalogIndex;
+import server.ItemSearchIndex;
 import server.Server;
 
 // TODO: Auto-generated Javadoc
@@ -23,6 +25,8 @@ public class RemoveItemOperation implements IOperation {
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
 		Server.SqlServerManager.removeItemByID((int)params);
+		CatalogIndex.Invalidate();
+		ItemSearchIndex.Remove((int)params);
 		return true;
 	}
 
@@ -1,11 +1,14 @@
 package ProtocolHandler.Operations;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 
 import Entities.Survey;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
 import server.Server;
+import server.Streams;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -19,17 +22,51 @@ public class SavePDFOperation implements IOperation {
 	 * all database calls are managed here, along with some processing and input validation.
 	 *
 	 * @param requestee - the request sender
-	 * @param data - the data that was sent
-	 * @param params - the parameters constraints that were pinned to the data
+	 * @param data - the pdfs (histogram, expert) either as bytes or as the ids of their uploads
+	 * @param params - the survey
 	 * @return true, if successful
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
+		if(data instanceof Integer[] && params instanceof Survey)
+		{
+			Integer[] uploads = (Integer[])data;
+			Streams.Upload histogram = Streams.Take(requestee, uploads[0]);
+			Streams.Upload expert = Streams.Take(requestee, uploads[1]);
+			if(histogram == null || expert == null)
+			{
+				if(histogram != null)
+					histogram.Delete();
+				if(expert != null)
+					expert.Delete();
+				return false;
+			}
+			try (InputStream histogramStream = histogram.Open(); InputStream expertStream = expert.Open()) {
+				Server.SqlServerManager.SavePDF(requestee, (Survey)params, histogramStream, histogram.getSize(), expertStream, expert.getSize());
+				return true;
+			} catch (IOException e) {
+				e.printStackTrace();
+				return false;
+			} finally {
+				histogram.Delete();
+				expert.Delete();
+			}
+		}
 		if(data instanceof ArrayList<?>)
 		{
 			if(params instanceof Survey)
 			{
-				Server.SqlServerManager.SavePDF(requestee,(Survey)params,(ArrayList<byte[]>)data);
+				/*** the pdfs are [histogram, expert], each element is checked before it is used ***/
+				ArrayList<byte[]> pdfs = new ArrayList<>();
+				for(Object pdf : (ArrayList<?>)data)
+				{
+					if(!(pdf instanceof byte[]))
+						return false;
+					pdfs.add((byte[])pdf);
+				}
+				if(pdfs.size() != 2)
+					return false;
+				Server.SqlServerManager.SavePDF(requestee,(Survey)params,pdfs);
 				return true;
 			}
 		}
@@ -3,7 +3,7 @@ package ProtocolHandler.Operations;
 import Entities.Survey;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -26,7 +26,7 @@ public class SaveSurveyAnswersOperation implements IOperation {
 		if(data instanceof Survey)
 		{
 			Survey survey =(Survey)data; 
-			Server.SqlServerManager.SaveSurveyAnswers(survey);
+			WriteBehind.SaveSurveyAnswers(survey);
 			return true;
 		}
 		return false;
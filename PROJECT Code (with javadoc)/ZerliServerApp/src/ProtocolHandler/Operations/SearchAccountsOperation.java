@@ -0,0 +1,60 @@
+package ProtocolHandler.Operations;
+
+import Entities.AccountQuery;
+import Entities.Roles;
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.Server;
+import server.SessionRegistry;
+
+/**
+ * The Class SearchAccountsOperation defines the operation
+ * that is invoked upon an SearchAccounts Request.
+ * Employees are searched in the branch of the requester only, customers in the whole chain.
+ * Only a manager or the ceo may search the accounts.
+ */
+public class SearchAccountsOperation implements IOperation{
+	
+	/** The MAX_PAGE_SIZE - Const largest page that is answered. */
+	private static final int MAX_PAGE_SIZE = 100;
+	
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+	
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - not used
+	 * @param params - the account query
+	 * @param response - the account page
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(!(params instanceof AccountQuery))
+			return false;
+		Roles role = SessionRegistry.Role(requestee);
+		if(role != Roles.manager && role != Roles.ceo)
+		{
+			response.SetResponse(null);
+			return true;
+		}
+		AccountQuery query = (AccountQuery)params;
+		int pageSize = Math.max(1, Math.min(query.getPageSize(), MAX_PAGE_SIZE));
+		String branch = query.isEmployees() ? SessionRegistry.Branch(requestee) : null;
+		response.SetResponse(Server.SqlServerManager.SearchAccounts(query, pageSize, branch));
+		return true;
+	}
+}
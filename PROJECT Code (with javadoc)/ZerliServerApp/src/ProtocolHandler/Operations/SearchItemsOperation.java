@@ -0,0 +1,44 @@
+package ProtocolHandler.Operations;
+
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.ItemSearchIndex;
+
+/**
+ * The Class SearchItemsOperation defines the operation
+ * that is invoked upon a SearchItems Request.
+ */
+public class SearchItemsOperation implements IOperation{
+	
+	/** The MAX_RESULTS - Const max number of item ids returned by a single search. */
+	private static final int MAX_RESULTS = 200;
+	
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+	
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the data that was sent
+	 * @param params - the search text
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		response.SetResponse(ItemSearchIndex.Search((String)params, MAX_RESULTS));
+		return true;
+	}
+}
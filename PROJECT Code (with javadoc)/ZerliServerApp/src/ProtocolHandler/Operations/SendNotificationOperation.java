@@ -6,6 +6,7 @@ import Entities.NotificationInTable;
 import Entities.Survey;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.NotificationTracker;
 import server.Server;
 
 // TODO: Auto-generated Javadoc
@@ -30,7 +31,8 @@ public class SendNotificationOperation implements IOperation {
 		if(data instanceof NotificationInTable)
 		{
 			NotificationInTable notification = (NotificationInTable)data;
-			Server.SqlServerManager.SendNotification(notification);
+			if(Server.SqlServerManager.SendNotification(notification))
+				NotificationTracker.Sent(notification.getTo(), notification.getNotificationnumber());
 			return true;
 		}
 		return false;
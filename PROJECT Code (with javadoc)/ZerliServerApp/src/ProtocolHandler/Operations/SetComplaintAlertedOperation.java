@@ -2,7 +2,7 @@ package ProtocolHandler.Operations;
 
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
-import server.Server;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -21,7 +21,7 @@ public class SetComplaintAlertedOperation implements IOperation {
 	 */
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
-		Server.SqlServerManager.SetComplaintAlerted((Integer)params);
+		WriteBehind.SetComplaintAlerted((Integer)params);
 		return true;
 	}
 
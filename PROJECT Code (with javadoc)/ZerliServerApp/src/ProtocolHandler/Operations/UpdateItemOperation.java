@@ -3,6 +3,8 @@ package ProtocolHandler.Operations;
 import Entities.Item;
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.CatalogIndex;
+import server.ItemSearchIndex;
 import server.Server;
 
 // TODO: Auto-generated Javadoc
@@ -24,6 +26,8 @@ public class UpdateItemOperation implements IOperation {
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
 		Server.SqlServerManager.UpdateItem((Item)data);
+		CatalogIndex.Invalidate();
+		ItemSearchIndex.Put((Item)data);
 		return true;
 	}
 
@@ -2,6 +2,8 @@ package ProtocolHandler.Operations;
 
 import ProtocolHandler.IOperation;
 import ProtocolHandler.ResponseWrapper;
+import server.NotificationTracker;
+import server.WriteBehind;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -23,7 +25,8 @@ public class UpdateNotificationOperation implements IOperation {
 	@Override
 	public boolean Perform(String requestee, Object data, Object params) {
 		if (data instanceof Integer) {
-			server.Server.SqlServerManager.UpdateNotification(requestee,(Integer)data);
+			WriteBehind.MarkRead(requestee, (Integer)data);
+			NotificationTracker.Read(requestee, (Integer)data);
 			return true;
 		}
 		return false;
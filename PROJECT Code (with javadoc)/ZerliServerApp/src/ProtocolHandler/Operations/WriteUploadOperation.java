@@ -0,0 +1,46 @@
+package ProtocolHandler.Operations;
+
+import ProtocolHandler.IOperation;
+import ProtocolHandler.ResponseWrapper;
+import server.Streams;
+
+/**
+ * The Class WriteUploadOperation defines the operation
+ * that is invoked upon a WriteUpload Request.
+ * Stores the next part of an upload, the answer tells the uploader it may send the next part.
+ */
+public class WriteUploadOperation implements IOperation {
+
+	/**
+	 * This perform is not used since the operation is an Operate&Respond request.
+	 *
+	 * @param requestee the requestee
+	 * @param data the data
+	 * @param params the params
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params) {
+		return false;
+	}
+
+	/**
+	 * The perform operation is the method that is being invoked when the matching request is made
+	 * all database calls are managed here, along with some processing and input validation.
+	 *
+	 * @param requestee - the request sender
+	 * @param data - the part
+	 * @param params - [0] - the upload id, [1] - the offset of the part
+	 * @param response the response
+	 * @return true, if successful
+	 */
+	@Override
+	public boolean Perform(String requestee, Object data, Object params, ResponseWrapper response) {
+		if(!(data instanceof byte[]) || !(params instanceof Object[]))
+			return false;
+		Object[] par = (Object[])params;
+		response.SetResponse(Streams.Write(requestee, (int)par[0], (long)par[1], (byte[])data));
+		return true;
+	}
+
+}
@@ -69,7 +69,6 @@ public class Protocol {
 	public boolean Handle(Object transmission, ConnectionToClient sender) throws Exception
 	{
 		Server.Log("Server", "Message received from: " + sender.getInetAddress().getHostAddress());
-		ResponseWrapper response = new ResponseWrapper();
 		if(!(transmission instanceof Transaction))
 		{
 			Server.Log("Protocol", "Unconventional data received, ignoring...");
@@ -77,6 +76,13 @@ public class Protocol {
 		}
 		
 		Transaction transaction = (Transaction)transmission;
+		/*** frames go out as transactions of the same request, ahead of the response ***/
+		ResponseWrapper response = new ResponseWrapper(frame -> {
+			Transaction part = new Transaction(transaction.requestType, transaction.requestee, null, null, true);
+			part.setResponse(frame);
+			part.setTicket(transaction.getTicket());
+			sender.sendToClient(part);
+		});
 		boolean status;
 		Server.Log("Protocol",String.format("Incoming transmission from %s (%s)\n-request:%s\nresponse? %s",transaction.requestee,sender.getInetAddress().getHostAddress(),transaction.requestType.toString(),transaction.shouldRespond() ? "Yes":"No"));
 		if(transaction.shouldRespond())
@@ -60,6 +60,11 @@ public class RequestRegisterer {
 		Protocol.RegisterOperation(RequestType.UpdateAccountAccess, new UpdateAccountAccessOperation());
 		Protocol.RegisterOperation(RequestType.UpdateEmployeeRole, new UpdateEmployeeRoleOperation());
 		Protocol.RegisterOperation(RequestType.GetSurveyHistogram, new GetSurveyHistogramOperation());
+		Protocol.RegisterOperation(RequestType.GetSurveyHistogramImages, new GetSurveyHistogramImagesOperation());
+		Protocol.RegisterOperation(RequestType.ReadStream, new ReadStreamOperation());
+		Protocol.RegisterOperation(RequestType.OpenUpload, new OpenUploadOperation());
+		Protocol.RegisterOperation(RequestType.WriteUpload, new WriteUploadOperation());
+		Protocol.RegisterOperation(RequestType.SearchAccounts, new SearchAccountsOperation());
 		Protocol.RegisterOperation(RequestType.SaveSurvey, new SaveSurveyOperation());
 		Protocol.RegisterOperation(RequestType.GetSurveysNames, new GetSurveysNamesOperation());
 		Protocol.RegisterOperation(RequestType.GetSurvey, new GetSurveyOperation());
@@ -71,5 +76,11 @@ public class RequestRegisterer {
 		Protocol.RegisterOperation(RequestType.GetReportByBranch, new GetReportByBranchOperation());
 		Protocol.RegisterOperation(RequestType.SetComplaintAlerted, new SetComplaintAlertedOperation());
 		Protocol.RegisterOperation(RequestType.GetReadySurveys, new GetReadySurveysOperation());
+		Protocol.RegisterOperation(RequestType.GetReportPreviews, new GetReportPreviewsOperation());
+		Protocol.RegisterOperation(RequestType.QueryCatalog, new QueryCatalogOperation());
+		Protocol.RegisterOperation(RequestType.SearchItems, new SearchItemsOperation());
+		Protocol.RegisterOperation(RequestType.GetLoginBundle, new GetLoginBundleOperation());
+		Protocol.RegisterOperation(RequestType.SyncNotifications, new SyncNotificationsOperation());
+		Protocol.RegisterOperation(RequestType.Heartbeat, new HeartbeatOperation());
 	}
 }
@@ -3,6 +3,8 @@
  */
 package ProtocolHandler;
 
+import java.io.IOException;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class ResponseWrapper is used to return a response
@@ -13,6 +15,9 @@ public class ResponseWrapper {
 	/** The response to be returned. */
 	Object response;
 	
+	/** The sender of the frames sent ahead of the response, null if the response is sent as a whole. */
+	FrameSender frames;
+	
 	/**
 	 * Instantiates a new response wrapper.
 	 *
@@ -31,6 +36,17 @@ public class ResponseWrapper {
 		response = null;
 	}
 	
+	/**
+	 * Instantiates a new response wrapper that can send frames ahead of the response.
+	 *
+	 * @param frames the sender of the frames
+	 */
+	ResponseWrapper(FrameSender frames)
+	{
+		response = null;
+		this.frames = frames;
+	}
+	
 	/**
 	 * Sets the response.
 	 *
@@ -50,4 +66,48 @@ public class ResponseWrapper {
 	{
 		return response;
 	}
+	
+	/**
+	 * Checks whether frames can be sent ahead of the response.
+	 *
+	 * @return true, if SendFrame can be used
+	 */
+	public boolean CanSendFrames()
+	{
+		return frames != null;
+	}
+	
+	/**
+	 * Sends a frame to the requester ahead of the response, the exchange stays open until the response is sent.
+	 * The frame is handled by the client's handler of the request type, same as the response.
+	 *
+	 * @param frame the frame
+	 * @return true, if the frame was sent
+	 */
+	public boolean SendFrame(Object frame)
+	{
+		if(frames == null)
+			return false;
+		try {
+			frames.Send(frame);
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+	
+	/**
+	 * The Interface FrameSender sends a frame of a response to the requester.
+	 */
+	interface FrameSender {
+		
+		/**
+		 * Sends a frame.
+		 *
+		 * @param frame the frame
+		 * @throws IOException Signals that the frame could not be sent.
+		 */
+		void Send(Object frame) throws IOException;
+	}
 }
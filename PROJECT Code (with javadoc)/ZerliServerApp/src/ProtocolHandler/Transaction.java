@@ -35,6 +35,9 @@ public class Transaction implements Serializable{
 	//Response
 	Object response;
 	
+	/** The ticket of the exchange (see client Protocol), the response and its frames carry the ticket of their request. */
+	long ticket;
+	
 	/**
 	 * Instantiates a new transaction.
 	 *
@@ -123,4 +126,24 @@ public class Transaction implements Serializable{
 	{
 		response = res;
 	}
+	
+	/**
+	 * Gets the ticket.
+	 *
+	 * @return the ticket of the exchange, 0 if no response is expected
+	 */
+	public long getTicket()
+	{
+		return ticket;
+	}
+	
+	/**
+	 * Sets the ticket.
+	 *
+	 * @param ticket the ticket of the exchange
+	 */
+	public void setTicket(long ticket)
+	{
+		this.ticket = ticket;
+	}
 }
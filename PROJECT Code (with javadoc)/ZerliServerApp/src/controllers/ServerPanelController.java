@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 import Entities.ClientInfo;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -20,8 +21,10 @@ import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import ocsf.server.ConnectionToClient;
 import reports.ReportScheduler;
+import server.BlobMigration;
 import server.Server;
 import server.ServerApp;
+import server.WriteBehind;
 
 
 /**
@@ -72,6 +75,10 @@ public class ServerPanelController implements Initializable{
 	
     @FXML
     private Button importBtn;
+
+    /** The button that moves the files out of the database into the blob store. */
+    @FXML
+    private Button migrateBtn;
 	
 	 /**
  	 * This event invokes when the exit button is pressed.
@@ -80,6 +87,7 @@ public class ServerPanelController implements Initializable{
  	 */
  	@FXML
      void exitPressed(MouseEvent event) {
+	 WriteBehind.Flush();
 	 try {
     		ServerApp.server.close();
 		} catch (IOException e) {
@@ -105,6 +113,18 @@ public class ServerPanelController implements Initializable{
 		  server.ServerConnSQL.importData();
 		  importBtn.setVisible(false);
 	    }
+
+	  /**
+	   * This event invokes when the migrate button is pressed,
+	   * the files still held in the database are moved into the blob store in the background.
+	   *
+	   * @param event - not used here
+	   */
+	  @FXML
+	    void migratePressed(ActionEvent event) {
+		  if(BlobMigration.Start(() -> Platform.runLater(() -> migrateBtn.setDisable(false))))
+			  migrateBtn.setDisable(true);
+	    }
  	
 	@Override
 	public void initialize(URL location, ResourceBundle resources) {
@@ -134,14 +154,16 @@ public class ServerPanelController implements Initializable{
 		Server.Log("Database", "is connected");
 		Server.Log("Server", "is connected on port: " + Server.DEFAULT_PORT) ;
 		ReportScheduler rScheduler = new ReportScheduler();
-		new Thread(new Runnable() {
+		Thread scheduler = new Thread(new Runnable() {
 
 			@Override
 			public void run() {
 				rScheduler.Run();	
 			}
 
-		}).start();
+		}, "report-scheduler");
+		scheduler.setDaemon(true);
+		scheduler.start();
 	}
 }
 
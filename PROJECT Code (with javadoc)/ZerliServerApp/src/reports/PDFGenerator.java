@@ -22,6 +22,8 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.*;
 import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.util.Matrix;
 import org.knowm.xchart.*;
 import org.knowm.xchart.CategorySeries.CategorySeriesRenderStyle;
@@ -45,6 +47,9 @@ public class PDFGenerator {
 	/** The standard height of a PDF page. */
 	final int HEIGHT = 842;
 	
+	/** The resolution of a report preview, an A4 page is rendered to about 200x280 pixels. */
+	final float PREVIEW_DPI = 24;
+	
 	/** An array with definitions of the months. */
 	String[] months = new String[] {"January","February","March","April","May","June","July","August","September","October","November","December"};
 	
@@ -528,6 +533,27 @@ public class PDFGenerator {
 		return null;
 }
 	
+	/**
+	 * Creates a small preview of the first page of a report.
+	 *
+	 * @param pdf the byte[] stream of a pdf file
+	 * @return the byte[] stream of a png image, null if the pdf cannot be rendered
+	 */
+	public byte[] createPreview(byte[] pdf) {
+		if(pdf == null) return null;
+		try (PDDocument document = PDDocument.load(pdf)) {
+			BufferedImage image = new PDFRenderer(document).renderImageWithDPI(0, PREVIEW_DPI, ImageType.RGB);
+			ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", byteArrayOutputStream);
+			return byteArrayOutputStream.toByteArray();
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
 /*
 	public byte[] createIncomeReportTableCEO(String path,String name,String branch,String startDate,String endDate) {
 	    try (PDDocument document = new PDDocument()) {
@@ -3,6 +3,7 @@ package reports;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.TreeMap;
@@ -52,7 +53,8 @@ public class ReportGenerator {
 			}
 			byte[] myPDF = null;
 			myPDF = generator.createIncomeReportTable(branch, date.getMonth().toString() + "/" + date.getYear(), dailyIncomeData,dates);
-			Server.SqlServerManager.InsertReport(ReportType.income, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.income, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF,
+					IncomeTotals(dailyIncomeData));
 				
 		}
 		else if(reportType == ReportType.order)
@@ -62,7 +64,8 @@ public class ReportGenerator {
 				histogram.put(t, Server.SqlServerManager.GetOrderCountWithItemWithinPeriod(t,java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)),java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),date.lengthOfMonth())),branch));
 			byte[] myPDF = null;
 			myPDF = generator.createOrderReportHistogram(branch, date.getMonth().toString() + "/" + date.getYear(),histogram);
-			Server.SqlServerManager.InsertReport(ReportType.order, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.order, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF,
+					"Orders: " + Sum(histogram.values()));
 		}
 		else if(reportType == ReportType.service)
 		{
@@ -77,7 +80,8 @@ public class ReportGenerator {
 			}
 			byte[] myPDF = null;
 			myPDF = generator.createComplaintsReportHistogram(branch,date.getMonth().toString() + "/" + date.getYear() , X,Y);
-			Server.SqlServerManager.InsertReport(ReportType.service, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.service, true, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), date.getMonthValue(),1)), myPDF,
+					"Complaints: " + Sum(Y));
 		}
 	}
 	
@@ -119,7 +123,8 @@ public class ReportGenerator {
 			}
 			byte[] myPDF = null;
 			myPDF = generator.createIncomeReportTable(branch, "Quarter " + quarter + "/" + date.getYear(), monthlyIncomeData,dates);
-			Server.SqlServerManager.InsertReport(ReportType.income, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.income, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF,
+					IncomeTotals(monthlyIncomeData));
 		}
 		else if(reportType == ReportType.order)
 		{
@@ -129,7 +134,8 @@ public class ReportGenerator {
 			//System.out.println("Getting between " + LocalDate.of(date.getYear(), date.getMonthValue(),1).toString() + " TO " + quarterEnd.toString());
 			byte[] myPDF = null;
 			myPDF = generator.createOrderReportHistogram(branch, "Quarter " + quarter + "/" + date.getYear(),histogram);
-			Server.SqlServerManager.InsertReport(ReportType.order, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.order, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF,
+					"Orders: " + Sum(histogram.values()));
 		}
 		else if(reportType == ReportType.service)
 		{
@@ -145,7 +151,8 @@ public class ReportGenerator {
 			}
 			byte[] myPDF = null;
 			myPDF = generator.createComplaintsReportHistogram(branch,"Quarter " + quarter + "/" + date.getYear() , X,Y);
-			Server.SqlServerManager.InsertReport(ReportType.service, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.service, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF,
+					"Complaints: " + Sum(Y));
 		}
 		else if(reportType == ReportType.ceo)
 		{
@@ -162,7 +169,40 @@ public class ReportGenerator {
 			byte[] myPDF = null;
 			//	public byte[] createComplaintsReportHistogram(String branch,String date,ArrayList<Integer> X,ArrayList<Integer> Y) {
 			myPDF = generator.createCEOReportForBranch(branch, "Quarter " + quarter + "/" + date.getYear(),X,Y);
-			Server.SqlServerManager.InsertReport(ReportType.ceo, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF);
+			Server.SqlServerManager.InsertReport(ReportType.ceo, false, branch, java.sql.Date.valueOf(LocalDate.of(date.getYear(), quarter,1)), myPDF,
+					"Income: " + Sum(Y));
 		}
 	}
+	
+	/**
+	 * Sums a collection of values, used for the key figures of a report preview.
+	 *
+	 * @param values the values
+	 * @return the sum
+	 */
+	private static int Sum(Collection<Integer> values)
+	{
+		int sum = 0;
+		for(Integer value : values)
+			sum += value;
+		return sum;
+	}
+	
+	/**
+	 * Sums an income sampling into the key figures of a report preview.
+	 *
+	 * @param data the periodic income sampling, [0] - completed, [1] - canceled, [2] - total
+	 * @return the key figures as text
+	 */
+	private static String IncomeTotals(ArrayList<Integer[]> data)
+	{
+		int com = 0,ref = 0,tot = 0;
+		for(Integer[] res : data)
+		{
+			com += res[0];
+			ref += res[1];
+			tot += res[2];
+		}
+		return String.format("Completed: %d, Canceled: %d, Total: %d", com, ref, tot);
+	}
 }
@@ -0,0 +1,185 @@
+package reports;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import Entities.ReportFile;
+import Entities.ReportType;
+import server.Server;
+
+/**
+ * The Class ReportProvider is used by the report operations to fetch a report,
+ * a missing report of a period that has already ended is generated on its first request
+ * and stored in the database for later readers.
+ * Concurrent requests for the same report share a single generation (single-flight).
+ */
+public class ReportProvider {
+
+	/** The generations currently in progress, mapped by report key. */
+	private static final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+	
+	/** The checksums of reports that were already read, mapped by report key (stored reports never change). */
+	private static final ConcurrentHashMap<String, String> checksums = new ConcurrentHashMap<>();
+	
+	/** The sizes of reports that were already read, mapped by report key. */
+	private static final ConcurrentHashMap<String, Integer> sizes = new ConcurrentHashMap<>();
+	
+	/** The STREAM_THRESHOLD - Const size in bytes from which a report is streamed instead of being sent along with the response. */
+	private static final int STREAM_THRESHOLD = 256 * 1024;
+
+	/**
+	 * Gets a report, generating it first if it is missing and its period has ended.
+	 *
+	 * @param reportType the report type [income,order,service,ceo]
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch the report is made on
+	 * @param reportDate the report date (if quarterly then the month part is the quarter)
+	 * @return the pdf file containing the actual report, null if there is no such report
+	 */
+	public static byte[] GetReport(ReportType reportType, boolean isMonthly, String branch, LocalDate reportDate)
+	{
+		byte[] report = Server.SqlServerManager.GetReportOfBranch(reportType, isMonthly, branch, java.sql.Date.valueOf(reportDate));
+		if(report != null || !IsPastPeriod(isMonthly, reportDate))
+			return report;
+
+		String key = Key(reportType, isMonthly, branch, reportDate);
+		CompletableFuture<byte[]> flight = new CompletableFuture<>();
+		CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, flight);
+		if(existing != null)
+		{
+			Server.Log("Report Provider", "Waiting for generation in progress: " + key);
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				return null;
+			}
+		}
+
+		try {
+			/*** a flight that finished between our read and our registration has already stored the report ***/
+			report = Server.SqlServerManager.GetReportOfBranch(reportType, isMonthly, branch, java.sql.Date.valueOf(reportDate));
+			if(report == null && IsKnownBranch(branch))
+			{
+				Server.Log("Report Provider", "Generating missing report on demand: " + key);
+				if(isMonthly)
+					ReportGenerator.GenerateMonthlyReport(reportType, branch, reportDate);
+				else
+					ReportGenerator.GenerateQuarterlyReport(reportType, branch, reportDate);
+				report = Server.SqlServerManager.GetReportOfBranch(reportType, isMonthly, branch, java.sql.Date.valueOf(reportDate));
+			}
+			flight.complete(report);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			Server.Log("Report Provider", "Generating " + key + ": FAILED");
+			flight.complete(null);
+			report = null;
+		} finally {
+			/*** an Error (out of memory while rendering) must not leave the waiters blocked ***/
+			flight.complete(null);
+			inFlight.remove(key, flight);
+		}
+		return report;
+	}
+
+	/**
+	 * Gets a report only if the requester does not already hold a copy with the same checksum.
+	 * A report that was read before is not read again, the requester streams it (StreamTarget.Report),
+	 * a large report is streamed even on its first read.
+	 *
+	 * @param reportType the report type [income,order,service,ceo]
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch the report is made on
+	 * @param reportDate the report date (if quarterly then the month part is the quarter)
+	 * @param knownChecksum the checksum of the requester's copy [can be null]
+	 * @return the report file (without the pdf if unchanged), null if there is no such report
+	 */
+	public static ReportFile GetReportIfChanged(ReportType reportType, boolean isMonthly, String branch, LocalDate reportDate, String knownChecksum)
+	{
+		String key = Key(reportType, isMonthly, branch, reportDate);
+		String checksum = checksums.get(key);
+		if(checksum != null && checksum.equals(knownChecksum))
+			return new ReportFile(checksum, null);
+		Integer size = sizes.get(key);
+		if(checksum != null && size != null)
+			return new ReportFile(checksum, size);
+		byte[] report = GetReport(reportType, isMonthly, branch, reportDate);
+		if(report == null)
+			return null;
+		checksum = Checksum(report);
+		sizes.put(key, report.length);
+		checksums.put(key, checksum);
+		if(checksum.equals(knownChecksum))
+			return new ReportFile(checksum, null);
+		return report.length < STREAM_THRESHOLD ? new ReportFile(checksum, report) : new ReportFile(checksum, report.length);
+	}
+	
+	/**
+	 * Calculates the checksum of a report.
+	 *
+	 * @param report the pdf file
+	 * @return the SHA-256 of the report as hex
+	 */
+	public static String Checksum(byte[] report)
+	{
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(report);
+			StringBuilder hex = new StringBuilder();
+			for(byte b : digest)
+				hex.append(String.format("%02x", b));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Builds the key identifying a single report.
+	 *
+	 * @param reportType the report type
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch the report is made on
+	 * @param reportDate the report date
+	 * @return the report key
+	 */
+	private static String Key(ReportType reportType, boolean isMonthly, String branch, LocalDate reportDate)
+	{
+		return reportType + "|" + branch + "|" + (isMonthly ? "M" : "Q") + "|" + reportDate;
+	}
+
+	/**
+	 * Checks whether the period of a report has already ended,
+	 * reports of the current period are not generated since their data is still incomplete.
+	 *
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param reportDate the report date (if quarterly then the month part is the quarter)
+	 * @return true, if the period has ended
+	 */
+	static boolean IsPastPeriod(boolean isMonthly, LocalDate reportDate)
+	{
+		LocalDate now = LocalDate.now();
+		if(isMonthly)
+			return reportDate.withDayOfMonth(1).isBefore(now.withDayOfMonth(1));
+		int currentQuarter = ((now.getMonthValue() - 1) / 3) + 1;
+		return reportDate.getYear() < now.getYear()
+				|| (reportDate.getYear() == now.getYear() && reportDate.getMonthValue() < currentQuarter);
+	}
+
+	/**
+	 * Checks whether a branch exists, so reports are never generated for unknown branches.
+	 *
+	 * @param branch the branch name
+	 * @return true, if the branch exists
+	 */
+	private static boolean IsKnownBranch(String branch)
+	{
+		if(branch == null)
+			return false;
+		ArrayList<String> branches = Server.SqlServerManager.GetBranches();
+		return branches != null && branches.contains(branch);
+	}
+}
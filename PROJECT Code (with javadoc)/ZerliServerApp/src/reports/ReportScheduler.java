@@ -1,6 +1,7 @@
 package reports;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,9 +22,6 @@ public class ReportScheduler {
 	/** The zerli debug. */
 	private final boolean ZERLI_DEBUG = false;
 	
-	/**  The dawn of time is used to determine from when to check for missing reports. */
-	private final LocalDate dawnOfTime = LocalDate.of(2021, 1, 1);
-	
 	/**  The quarter marks are used for designating the beginning of each quarter. */
 	private final List<Integer> QUARTER_MARKS = Arrays.asList(new Integer[] {1,4,7,10});
 	
@@ -32,54 +30,33 @@ public class ReportScheduler {
 	
 	/**
 	 *  This method will compensate missing reports due to server being down 
-	 *  this is done by searching for Inconsistencies in the database
+	 *  only the month and the quarter that ended last are checked, older missing reports are generated on their first request.
 	 *  when the compensator locates an inconsistency it will generate report to fill the gap*.
+	 *  The gaps are filled through ReportProvider, so a report that is requested while it is being generated is generated once.
 	 */
 	public void Compensate()
 	{
 		Server.Log("R-Scheduler", "Getting Branches");
 		branches = Server.SqlServerManager.GetBranches();
 		Server.Log("R-Scheduler", "Compensation begun");
-		for(int year = dawnOfTime.getYear();year <= LocalDate.now().getYear();year++)
+		YearMonth month = YearMonth.now().minusMonths(1);
+		YearMonth quarter = YearMonth.now().minusMonths(3);
+		/*** a quarterly report is dated by its quarter number in the month part ***/
+		LocalDate monthDate = month.atDay(1);
+		LocalDate quarterDate = LocalDate.of(quarter.getYear(), (quarter.getMonthValue() - 1) / 3 + 1, 1);
+		for(String branch : branches)
 		{
-			for(int month = 1;month <= 12;month++)
+			for(ReportType t : ReportType.values())
 			{
-				
-				if(LocalDate.of(year, month, 1).isEqual(LocalDate.of(LocalDate.now().getYear(),LocalDate.now().getMonthValue(),1))) break;
-				/*Check Report exists both q && m for Income/Orders/Service [2 * 3 * duration_between(dawn,now).inMonths * #branches]*/
-				for(String branch : branches)
+				if(!Server.SqlServerManager.ReportExists(t,true,branch,java.sql.Date.valueOf(monthDate)))
 				{
-					Server.Log("R-Scheduler", "Iterating now: " + month + "/" + year + ", Branch: " + branch);	
-					for(ReportType t : ReportType.values())
-					{
-						boolean rM = Server.SqlServerManager.ReportExists(t,true,branch,java.sql.Date.valueOf(LocalDate.of(year, month, 1)));
-						if(!rM)
-						{
-							Server.Log("R-Scheduler", "Monthly Inconsistency detected: " + month + "/" + year + ", Branch: " + branch + " Report: " + t.toString());
-							ReportGenerator.GenerateMonthlyReport(t, branch, LocalDate.of(year, month, 1));
-						}
-					}
+					Server.Log("R-Scheduler", "Monthly Inconsistency detected: " + month + ", Branch: " + branch + " Report: " + t.toString());
+					ReportProvider.GetReport(t, true, branch, monthDate);
 				}
-			}
-		}
-		
-		for(int year = dawnOfTime.getYear();year <= LocalDate.now().getYear();year++)
-		{
-			for(int quarter = 1;quarter<=4;quarter++)
-			{
-				for(String branch : branches)
+				if(!Server.SqlServerManager.ReportExists(t,false,branch,java.sql.Date.valueOf(quarterDate)))
 				{
-					for(ReportType t : ReportType.values())
-					{
-						if(year == LocalDate.now().getYear())
-							if((((LocalDate.now().getMonthValue()-1) / 3) + 1) <= quarter) break;
-						boolean rQ = Server.SqlServerManager.ReportExists(t,false,branch,java.sql.Date.valueOf(LocalDate.of(year, quarter, 1)));
-						if(!rQ)
-						{
-							Server.Log("R-Scheduler", "Quarterly Inconsistency detected: " + quarter + "/" + year + ", Branch: " + branch + " Report: " + t.toString());
-							ReportGenerator.GenerateQuarterlyReport(t, branch, LocalDate.of(year, quarter, 1));
-						}
-					}
+					Server.Log("R-Scheduler", "Quarterly Inconsistency detected: " + quarterDate.getMonthValue() + "/" + quarterDate.getYear() + ", Branch: " + branch + " Report: " + t.toString());
+					ReportProvider.GetReport(t, false, branch, quarterDate);
 				}
 			}
 		}
@@ -127,35 +104,31 @@ public class ReportScheduler {
 	
 	/**
 	 * Runs the report scheduler automated task
-	 * This will run the compensator and when the compensator is done
-	 * the Interrupt scheduler will step into action.
+	 * Missing reports are not back-filled at startup, they are generated on their first request (see ReportProvider).
+	 * Once a month has ended the compensator is run, so the reports of that month (and quarter) are ready before they are asked for.
 	 */
 	public void Run()
 	{
-		Compensate();
-		boolean x = false;
-		while(x)
+		Server.Log("R-Scheduler", "Missing reports will be generated on demand and at the start of every month");
+		YearMonth compensated = YearMonth.now();
+		while(true)
 		{
 			/** wait for generation period **/
-			while(LocalDate.now().getDayOfMonth() != 1)
-			{
-				Server.Log("R-Scheduler", "Polling Reports");
-				if(!ZERLI_DEBUG)
-					try {
-						Thread.sleep((1000 * 3600) * 12);
-					} catch (InterruptedException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-				else
-					try {
-						Thread.sleep(10 * 1000);
-					} catch (InterruptedException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					} //10 seconds
+			try {
+				Thread.sleep(ZERLI_DEBUG ? 10 * 1000 : (1000 * 3600) * 12);
+			} catch (InterruptedException e) {
+				return;
+			}
+			if(!YearMonth.now().isAfter(compensated))
+				continue;
+			Server.Log("R-Scheduler", "Polling Reports");
+			try {
+				Compensate();
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				Server.Log("R-Scheduler", "Compensation: FAILED");
 			}
-			Compensate();
+			compensated = YearMonth.now();
 		}
 	}
 }
@@ -2,25 +2,55 @@ package reports;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 
-import org.apache.pdfbox.debugger.ui.ImageUtil;
 import org.knowm.xchart.BitmapEncoder;
 import org.knowm.xchart.CategoryChart;
 import org.knowm.xchart.CategoryChartBuilder;
-import org.knowm.xchart.style.Styler.LegendPosition;
 
 import Entities.Survey;
 
 // TODO: Auto-generated Javadoc
 /**
  * The Class SurveyHistogramGenerator is responsible for the survey histogram generation
+ * The charts of a survey are rendered in parallel and kept in a cache along with the answer counts they were drawn from,
+ * so opening the same survey again is answered from the cache until new answers arrive.
  */
 public class SurveyHistogramGenerator {
-	
+
+	/** The MAX_CACHED - Const number of surveys whose charts are kept. */
+	private static final int MAX_CACHED = 16;
+
+	/** The renderers - the bounded pool the charts are rendered on. */
+	private static final ExecutorService renderers = Executors.newFixedThreadPool(Math.min(6, Runtime.getRuntime().availableProcessors()), r -> {
+		Thread thread = new Thread(r, "histogram-render");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** The writer of each render thread, reused for every chart it encodes. */
+	private static final ThreadLocal<ImageWriter> writers = ThreadLocal.withInitial(() -> ImageIO.getImageWritersByFormatName("jpg").next());
+
+	/** The cache of the rendered charts, by survey id, least recently used first. */
+	private static final LinkedHashMap<Integer, Rendered> cache = new LinkedHashMap<Integer, Rendered>(MAX_CACHED, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Rendered> eldest) {
+			return size() > MAX_CACHED;
+		}
+	};
+
 	/**
 	 * Gets the 6 images.
 	 *
@@ -30,15 +60,36 @@ public class SurveyHistogramGenerator {
 	 */
 	public ArrayList<byte[]> get6images(ArrayList<int[]> listOfSurveyAnswers, Survey survey)
 	{
-		int i=0;
+		int[][] counts = listOfSurveyAnswers.toArray(new int[0][]);
+		String[] titles = Arrays.copyOf(survey.getQuestions(), counts.length);
+		synchronized (cache) {
+			Rendered rendered = cache.get(survey.getId());
+			if(rendered != null && rendered.IsOf(counts, titles))
+				return new ArrayList<byte[]>(rendered.images);
+		}
+
+		ArrayList<Future<byte[]>> charts = new ArrayList<Future<byte[]>>();
+		for (int i = 0; i < counts.length; i++) {
+			int[] answers = counts[i];
+			String title = titles[i];
+			charts.add(renderers.submit(() -> createBarChartIncome(answers, title)));
+		}
 		ArrayList<byte[]> listOfimeges=new ArrayList<byte[]> ();
-		for (int[] is : listOfSurveyAnswers) {
-			listOfimeges.add(createBarChartIncome(is,survey.getQuestions()[i]));
-			i++;
-		} 
+		for (Future<byte[]> chart : charts) {
+			try {
+				listOfimeges.add(chart.get());
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+				listOfimeges.add(null);
+			}
+		}
+		if(!listOfimeges.contains(null))
+			synchronized (cache) {
+				cache.put(survey.getId(), new Rendered(counts, titles, listOfimeges));
+			}
 		return listOfimeges;
 	}
-	
+
 	/**
 	 * Creates the bar chart income.
 	 *
@@ -46,29 +97,73 @@ public class SurveyHistogramGenerator {
 	 * @param histogramTitle the histogram title
 	 * @return the byte[]
 	 */
-	private  byte[] createBarChartIncome(int[] surveyAnswersArray, String histogramTitle)
+	private static byte[] createBarChartIncome(int[] surveyAnswersArray, String histogramTitle)
 	{
-		byte[] imageInBytes=null;
 	    CategoryChart chart = new CategoryChartBuilder().width((int)(300)).height((int)(300*0.7f)).title(histogramTitle).xAxisTitle("Rating").yAxisTitle("Number of Answers").build();
-	    
+
 	    // Customize Chart
 	    chart.getStyler().setLegendVisible(false);
 
 	    // Series
-	    chart.addSeries("Answers", Arrays.asList(new String[] {"1","2","3","4","5","6","7","8","9","10"}), Arrays.asList(new Integer[] {surveyAnswersArray[0],surveyAnswersArray[1],surveyAnswersArray[2],surveyAnswersArray[3],surveyAnswersArray[4],surveyAnswersArray[5],surveyAnswersArray[6],surveyAnswersArray[7],surveyAnswersArray[8],surveyAnswersArray[9]}));
-
-	    BufferedImage bufferedImage = ImageUtil.getRotatedImage(BitmapEncoder.getBufferedImage(chart),0) ;
-	    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-	    try {
-	    	ImageIO.write(bufferedImage, "jpg", baos);
-	      baos.flush();
-	      imageInBytes = baos.toByteArray();
-	      
+	    Integer[] answers = new Integer[10];
+	    for (int i = 0; i < answers.length; i++)
+	    	answers[i] = surveyAnswersArray[i];
+	    chart.addSeries("Answers", Arrays.asList(new String[] {"1","2","3","4","5","6","7","8","9","10"}), Arrays.asList(answers));
+
+	    BufferedImage bufferedImage = BitmapEncoder.getBufferedImage(chart);
+	    ByteArrayOutputStream baos = new ByteArrayOutputStream(16 * 1024);
+	    ImageWriter writer = writers.get();
+	    try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+	    	writer.setOutput(output);
+	    	writer.write(bufferedImage);
 	    }
-	    catch (Exception e) {
+	    catch (IOException e) {
 			e.printStackTrace();
+			return null;
+		}
+	    finally {
+	    	writer.reset();
+	    }
+	    return baos.toByteArray();
+	}
+
+	/**
+	 * The Class Rendered is the cached charts of a survey, along with the answer counts and titles they were drawn from.
+	 */
+	private static class Rendered {
+
+		/** The answer counts the charts were drawn from. */
+		private final int[][] counts;
+
+		/** The titles the charts were drawn with. */
+		private final String[] titles;
+
+		/** The encoded charts. */
+		private final ArrayList<byte[]> images;
+
+		/**
+		 * Instantiates new rendered charts.
+		 *
+		 * @param counts the answer counts the charts were drawn from
+		 * @param titles the titles the charts were drawn with
+		 * @param images the encoded charts
+		 */
+		Rendered(int[][] counts, String[] titles, ArrayList<byte[]> images) {
+			this.counts = counts;
+			this.titles = titles;
+			this.images = images;
+		}
+
+		/**
+		 * Checks whether the charts were drawn from these answer counts and titles.
+		 *
+		 * @param counts the answer counts
+		 * @param titles the titles
+		 * @return true, if the charts are still up to date
+		 */
+		boolean IsOf(int[][] counts, String[] titles) {
+			return Arrays.deepEquals(this.counts, counts) && Arrays.equals(this.titles, titles);
 		}
-	    return imageInBytes;
 	}
 
 }
@@ -0,0 +1,67 @@
+package server;
+
+/**
+ * The Class BlobMigration moves the files that are still held in database BLOBs into the blob store,
+ * leaving only their hashes in the rows.
+ * Rows are moved one at a time, each row is readable during the whole migration (from its BLOB until its hash is set),
+ * so the migration runs in the background while the server keeps serving, and can be stopped and run again at any point.
+ */
+public class BlobMigration {
+
+	/** The moved files - table, key column, file column, hash column, whether compressed.
+	 *  The pdfs are streamed in parts, they are kept plain so a part is read without inflating the file up to it. */
+	private static final Object[][] COLUMNS = {
+			{"items", "item_id", "image", "image_hash", false},
+			{"reports", "reports_id", "report", "report_hash", false},
+			{"pdf_from_expert", "survey_id", "pdf_file_from_expert", "expert_hash", false},
+			{"pdf_from_expert", "survey_id", "pdf_with_survey_answers", "answers_hash", false}
+			};
+
+	/** The running migration, null if none. */
+	private static Thread running;
+
+	/**
+	 * Starts the migration in the background, unless it is already running.
+	 *
+	 * @param done called on the migration thread once it is done
+	 * @return true, if the migration was started
+	 */
+	public static synchronized boolean Start(Runnable done)
+	{
+		if(running != null)
+			return false;
+		running = new Thread(() -> {
+			try {
+				Run();
+			} finally {
+				synchronized (BlobMigration.class) {
+					running = null;
+				}
+				if(done != null)
+					done.run();
+			}
+		}, "blob-migration");
+		running.setDaemon(true);
+		running.start();
+		return true;
+	}
+
+	/**
+	 * Moves all the files that are still held in the database into the blob store.
+	 *
+	 * @return the number of files moved
+	 */
+	public static int Run()
+	{
+		Server.Log("Blob Store", "Moving files out of the database");
+		int moved = 0;
+		for(Object[] column : COLUMNS)
+		{
+			int count = Server.SqlServerManager.MoveBlobsToStore((String)column[0], (String)column[1], (String)column[2], (String)column[3], (boolean)column[4]);
+			Server.Log("Blob Store", "Moved " + count + " files of " + column[0] + "." + column[2]);
+			moved += count;
+		}
+		Server.Log("Blob Store", "Moved " + moved + " files out of the database");
+		return moved;
+	}
+}
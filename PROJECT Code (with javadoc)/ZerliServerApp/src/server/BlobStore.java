@@ -0,0 +1,57 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The Interface BlobStore is a store of large files (item images, report and survey pdfs) kept out of the database,
+ * the database rows hold only the hash of their file.
+ * Files are addressed by the SHA-256 of their content, so storing the same file twice keeps a single copy.
+ */
+public interface BlobStore {
+
+	/**
+	 * Stores a file.
+	 *
+	 * @param data the content of the file, read to its end
+	 * @param compress whether the file is worth compressing
+	 * @return the hash the file is addressed by
+	 * @throws IOException Signals that the file could not be stored.
+	 */
+	String Put(InputStream data, boolean compress) throws IOException;
+
+	/**
+	 * Gets the size of a stored file.
+	 *
+	 * @param hash the hash of the file
+	 * @return the size in bytes of the content, -1 if there is no such file
+	 */
+	long Size(String hash);
+
+	/**
+	 * Opens a stored file for reading.
+	 *
+	 * @param hash the hash of the file
+	 * @return the content of the file
+	 * @throws IOException Signals that there is no such file or it could not be opened.
+	 */
+	InputStream Open(String hash) throws IOException;
+
+	/**
+	 * Reads a part of a stored file.
+	 *
+	 * @param hash the hash of the file
+	 * @param offset the offset of the part
+	 * @param length the length of the part
+	 * @return the part, shorter than the length at the end of the file, null if there is no such file
+	 */
+	byte[] Read(String hash, long offset, int length);
+
+	/**
+	 * Reads a whole stored file.
+	 *
+	 * @param hash the hash of the file
+	 * @return the content of the file, null if there is no such file
+	 */
+	byte[] ReadAll(String hash);
+}
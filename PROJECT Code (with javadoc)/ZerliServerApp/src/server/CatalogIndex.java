@@ -0,0 +1,298 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Entities.CatalogPage;
+import Entities.CatalogQuery;
+import Entities.CatalogSort;
+import Entities.CatalogType;
+import Entities.Color;
+import Entities.Item;
+import Entities.ItemType;
+
+/**
+ * The Class CatalogIndex answers catalog queries from memory instead of the database.
+ * The available items are loaded once into a snapshot holding the items sorted by price and by name,
+ * and a bitmap of item positions for each facet value (catalog type, color, item type, on sale).
+ * A query is answered by intersecting bitmaps, so only the items of the requested page are ever sent.
+ * Any change to the catalog invalidates the snapshot, it is rebuilt on the next query.
+ */
+public class CatalogIndex {
+
+	/** The version of the catalog, raised on every catalog change. */
+	private static final AtomicInteger version = new AtomicInteger();
+
+	/** The current snapshot, null until the first query. */
+	private static volatile Snapshot snapshot;
+
+	/**
+	 * Marks the catalog as changed, called after an item is added, updated or removed.
+	 */
+	public static void Invalidate()
+	{
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Answers a catalog query.
+	 *
+	 * @param query the catalog query
+	 * @return the requested page along with the facet counts
+	 */
+	public static CatalogPage Query(CatalogQuery query)
+	{
+		Snapshot current = Current();
+
+		BitSet base = new BitSet();
+		if(query.getCatalogTypes().isEmpty())
+			base.set(0, current.items.length);
+		for(CatalogType catalogType : query.getCatalogTypes())
+			base.or(current.byCatalog.get(catalogType));
+		base.and(current.PriceRange(query.getMinPrice(), query.getMaxPrice()));
+		int[] searched = current.Positions(query.getItemIds());
+		if(searched != null)
+		{
+			BitSet found = new BitSet(current.items.length);
+			for(int i : searched)
+				found.set(i);
+			base.and(found);
+		}
+
+		BitSet color = query.getColor() == null ? null : current.byColor.get(query.getColor());
+		BitSet itemType = query.getItemType() == null ? null : current.byItemType.get(query.getItemType());
+		BitSet onSale = query.getOnSale() == null ? null : query.getOnSale() ? current.onSale : current.notOnSale;
+
+		/*** facet counts - each facet is counted with all the other filters applied ***/
+		HashMap<Color, Integer> colorCounts = new HashMap<Color, Integer>();
+		BitSet withoutColor = Intersect(base, itemType, onSale);
+		for(Color c : Color.values())
+			colorCounts.put(c, Intersect(withoutColor, current.byColor.get(c)).cardinality());
+		HashMap<ItemType, Integer> itemTypeCounts = new HashMap<ItemType, Integer>();
+		BitSet withoutItemType = Intersect(base, color, onSale);
+		for(ItemType t : ItemType.values())
+			itemTypeCounts.put(t, Intersect(withoutItemType, current.byItemType.get(t)).cardinality());
+		int onSaleCount = Intersect(base, color, itemType, current.onSale).cardinality();
+
+		BitSet matching = Intersect(withoutColor, color);
+		int total = matching.cardinality();
+		ArrayList<Item> page = new ArrayList<Item>();
+		int cursor = Math.max(0, query.getCursor()), position = 0;
+		int[] order = query.getSort() == CatalogSort.relevance ? searched : current.Order(query.getSort());
+		if(order == null)
+		{
+			for(int i = matching.nextSetBit(0); i >= 0 && page.size() < query.getPageSize(); i = matching.nextSetBit(i + 1))
+				if(position++ >= cursor)
+					page.add(current.items[i]);
+		}
+		else
+		{
+			boolean descending = query.getSort() == CatalogSort.price_desc;
+			for(int k = 0; k < order.length && page.size() < query.getPageSize(); k++)
+			{
+				int i = order[descending ? order.length - 1 - k : k];
+				if(matching.get(i) && position++ >= cursor)
+					page.add(current.items[i]);
+			}
+		}
+		int next = cursor + page.size();
+		return new CatalogPage(page, total, next < total ? next : -1, colorCounts, itemTypeCounts, onSaleCount);
+	}
+
+	/**
+	 * Gets the snapshot of the current catalog version, rebuilding it if the catalog has changed.
+	 *
+	 * @return the snapshot
+	 */
+	private static Snapshot Current()
+	{
+		Snapshot current = snapshot;
+		if(current != null && current.version == version.get())
+			return current;
+		synchronized (CatalogIndex.class) {
+			current = snapshot;
+			if(current != null && current.version == version.get())
+				return current;
+			int building = version.get();
+			ArrayList<Item> items = new ArrayList<Item>();
+			for(CatalogType catalogType : CatalogType.values())
+				Server.SqlServerManager.getCatalogItems(items, catalogType);
+			current = new Snapshot(building, items);
+			snapshot = current;
+			Server.Log("Catalog Index", "Indexed " + items.size() + " items");
+			return current;
+		}
+	}
+
+	/**
+	 * Intersects bitmaps, a null bitmap stands for a filter that is not applied.
+	 *
+	 * @param first the first bitmap (not null)
+	 * @param others the other bitmaps
+	 * @return a new bitmap of the intersection
+	 */
+	private static BitSet Intersect(BitSet first, BitSet... others)
+	{
+		BitSet result = (BitSet) first.clone();
+		for(BitSet other : others)
+			if(other != null)
+				result.and(other);
+		return result;
+	}
+
+	/**
+	 * The Class Snapshot is an immutable index of a single version of the catalog.
+	 */
+	private static class Snapshot {
+
+		/** The catalog version the snapshot was built from. */
+		private final int version;
+
+		/** The items, a position in this array is the item's bit in all the bitmaps. */
+		private final Item[] items;
+
+		/** The position of each item id. */
+		private final HashMap<Integer, Integer> positions = new HashMap<>();
+
+		/** The item positions sorted by current price. */
+		private final int[] byPrice;
+
+		/** The current prices sorted, parallel to byPrice. */
+		private final int[] sortedPrices;
+
+		/** The item positions sorted by name. */
+		private final int[] byName;
+
+		/** The bitmap of each catalog type. */
+		private final EnumMap<CatalogType, BitSet> byCatalog = new EnumMap<>(CatalogType.class);
+
+		/** The bitmap of each color. */
+		private final EnumMap<Color, BitSet> byColor = new EnumMap<>(Color.class);
+
+		/** The bitmap of each item type. */
+		private final EnumMap<ItemType, BitSet> byItemType = new EnumMap<>(ItemType.class);
+
+		/** The bitmap of the items on sale. */
+		private final BitSet onSale = new BitSet();
+
+		/** The bitmap of the items not on sale. */
+		private final BitSet notOnSale = new BitSet();
+
+		/**
+		 * Instantiates a new snapshot.
+		 *
+		 * @param version the catalog version
+		 * @param catalog the available items
+		 */
+		Snapshot(int version, ArrayList<Item> catalog)
+		{
+			this.version = version;
+			catalog.sort(Comparator.comparingInt(Item::getId));
+			items = catalog.toArray(new Item[0]);
+			for(CatalogType c : CatalogType.values())
+				byCatalog.put(c, new BitSet());
+			for(Color c : Color.values())
+				byColor.put(c, new BitSet());
+			for(ItemType t : ItemType.values())
+				byItemType.put(t, new BitSet());
+			for(int i = 0; i < items.length; i++)
+			{
+				positions.put(items[i].getId(), i);
+				byCatalog.get(items[i].getCatalogType()).set(i);
+				byColor.get(items[i].getColor()).set(i);
+				byItemType.get(items[i].getItemType()).set(i);
+				(items[i].isOnSale() ? onSale : notOnSale).set(i);
+			}
+			byPrice = Sorted(Comparator.comparingInt(i -> items[i].getCurrentPrice()));
+			sortedPrices = new int[items.length];
+			for(int k = 0; k < byPrice.length; k++)
+				sortedPrices[k] = items[byPrice[k]].getCurrentPrice();
+			byName = Sorted(Comparator.comparing(i -> items[i].getName(), String.CASE_INSENSITIVE_ORDER));
+		}
+
+		/**
+		 * Sorts the item positions.
+		 *
+		 * @param comparator the item position comparator
+		 * @return the sorted positions
+		 */
+		private int[] Sorted(Comparator<Integer> comparator)
+		{
+			Integer[] positions = new Integer[items.length];
+			for(int i = 0; i < positions.length; i++)
+				positions[i] = i;
+			Arrays.sort(positions, comparator);
+			return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+		}
+
+		/**
+		 * Gets the bitmap of the items within a price range, using a binary search on the sorted prices.
+		 *
+		 * @param min the lowest price (inclusive), null for no lower bound
+		 * @param max the highest price (inclusive), null for no upper bound
+		 * @return the bitmap of the items within the range
+		 */
+		BitSet PriceRange(Integer min, Integer max)
+		{
+			int from = min == null ? 0 : FirstAbove(min - 1);
+			int to = max == null ? sortedPrices.length : FirstAbove(max);
+			BitSet range = new BitSet(items.length);
+			for(int k = from; k < to; k++)
+				range.set(byPrice[k]);
+			return range;
+		}
+
+		/**
+		 * Finds the first sorted position whose price is above a price.
+		 *
+		 * @param price the price
+		 * @return the first position priced above, the length if there is none
+		 */
+		private int FirstAbove(int price)
+		{
+			int low = 0, high = sortedPrices.length;
+			while(low < high)
+			{
+				int mid = (low + high) >>> 1;
+				if(sortedPrices[mid] <= price)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			return low;
+		}
+
+		/**
+		 * Gets the positions of item ids, keeping their order.
+		 *
+		 * @param ids the item ids, ids of unavailable items are skipped
+		 * @return the positions, null if ids is null
+		 */
+		int[] Positions(ArrayList<Integer> ids)
+		{
+			if(ids == null)
+				return null;
+			return ids.stream().map(positions::get).filter(i -> i != null).mapToInt(Integer::intValue).toArray();
+		}
+
+		/**
+		 * Gets the item positions in a sort order.
+		 *
+		 * @param sort the sort order
+		 * @return the sorted positions, null for the catalog order (bit order) or relevance without search
+		 */
+		int[] Order(CatalogSort sort)
+		{
+			if(sort == CatalogSort.price_asc || sort == CatalogSort.price_desc)
+				return byPrice;
+			if(sort == CatalogSort.name)
+				return byName;
+			return null;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The Class FileBlobStore is a BlobStore on the local disk.
+ * A file is kept at root/ab/hash, where ab are the first two characters of its hash.
+ * A compressed file is kept at root/ab/hash.z, deflated after an 8 byte header holding its original size.
+ * A file is written into a temporary file first and only then moved to its place, so a file that is in place is always whole,
+ * and a file whose hash is already in place is dropped instead of stored again.
+ * Plain files are read by mapping them into memory, so reading a part reads only that part from the disk.
+ * A compressed file can only be read from its start, so the first part read of a compressed file
+ * inflates it once into a plain file, which serves that read and every later one.
+ */
+public class FileBlobStore implements BlobStore {
+
+	/** The COMPRESSED - Const suffix of a compressed file. */
+	private static final String COMPRESSED = ".z";
+
+	/** The root directory of the store. */
+	private final File root;
+
+	/**
+	 * Instantiates a new file blob store.
+	 *
+	 * @param root the root directory of the store, created if missing
+	 */
+	public FileBlobStore(File root)
+	{
+		this.root = root;
+		root.mkdirs();
+	}
+
+	@Override
+	public String Put(InputStream data, boolean compress) throws IOException
+	{
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		File temp = File.createTempFile("blob", ".part", root);
+		try {
+			long size;
+			try (InputStream in = new DigestInputStream(data, digest);
+				 FileOutputStream file = new FileOutputStream(temp)) {
+				if(compress)
+				{
+					file.write(new byte[Long.BYTES]);
+					Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+					try {
+						DeflaterOutputStream out = new DeflaterOutputStream(file, deflater, 64 * 1024);
+						size = in.transferTo(out);
+						out.finish();
+					} finally {
+						deflater.end();
+					}
+				}
+				else
+					size = in.transferTo(file);
+			}
+			if(compress)
+				try (RandomAccessFile file = new RandomAccessFile(temp, "rw")) {
+					file.writeLong(size);
+				}
+			String hash = Hex(digest.digest());
+			File target = FileOf(hash, compress);
+			if(FileOf(hash, !compress).exists() || target.exists())
+				return hash;
+			target.getParentFile().mkdirs();
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath());
+			} catch (FileAlreadyExistsException e) {
+				/*** stored by another request meanwhile ***/
+			}
+			return hash;
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	@Override
+	public long Size(String hash)
+	{
+		File plain = FileOf(hash, false);
+		if(plain.exists())
+			return plain.length();
+		File compressed = FileOf(hash, true);
+		if(!compressed.exists())
+			return -1;
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(compressed.toPath()))) {
+			return in.readLong();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return -1;
+		}
+	}
+
+	@Override
+	public InputStream Open(String hash) throws IOException
+	{
+		File plain = FileOf(hash, false);
+		if(plain.exists())
+			return new BufferedInputStream(Files.newInputStream(plain.toPath()));
+		InputStream in = new BufferedInputStream(Files.newInputStream(FileOf(hash, true).toPath()), 64 * 1024);
+		try {
+			in.readNBytes(Long.BYTES);
+			return new InflaterInputStream(in);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public byte[] Read(String hash, long offset, int length)
+	{
+		if(offset < 0 || length < 0)
+			return null;
+		File plain = FileOf(hash, false);
+		if(plain.exists())
+			try (FileChannel channel = FileChannel.open(plain.toPath(), StandardOpenOption.READ)) {
+				long size = channel.size();
+				if(offset >= size)
+					return new byte[0];
+				MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(length, size - offset));
+				byte[] part = new byte[map.remaining()];
+				map.get(part);
+				return part;
+			} catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		if(!FileOf(hash, true).exists())
+			return null;
+		try {
+			Expand(hash);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		return Read(hash, offset, length);
+	}
+
+	@Override
+	public byte[] ReadAll(String hash)
+	{
+		long size = Size(hash);
+		if(size < 0 || size > Integer.MAX_VALUE)
+			return null;
+		return Read(hash, 0, (int)size);
+	}
+
+	/**
+	 * Inflates a compressed file into the plain file of its hash.
+	 * The compressed file is kept, a reader may have opened it meanwhile, and the plain file is used from now on.
+	 *
+	 * @param hash the hash of the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void Expand(String hash) throws IOException
+	{
+		File temp = File.createTempFile("blob", ".part", root);
+		try {
+			try (InputStream in = Open(hash)) {
+				Files.copy(in, temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			try {
+				Files.move(temp.toPath(), FileOf(hash, false).toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), FileOf(hash, false).toPath());
+			} catch (FileAlreadyExistsException e) {
+				/*** expanded by another request meanwhile ***/
+			}
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Gets the file of a hash.
+	 *
+	 * @param hash the hash
+	 * @param compressed whether the compressed file is wanted
+	 * @return the file
+	 */
+	private File FileOf(String hash, boolean compressed)
+	{
+		if(hash.length() < 2 || !hash.matches("[0-9a-f]+"))
+			throw new IllegalArgumentException("Not a blob hash: " + hash);
+		return new File(new File(root, hash.substring(0, 2)), compressed ? hash + COMPRESSED : hash);
+	}
+
+	/**
+	 * Formats a digest as lower case hex.
+	 *
+	 * @param digest the digest
+	 * @return the hex string
+	 */
+	private static String Hex(byte[] digest)
+	{
+		StringBuilder hex = new StringBuilder(digest.length * 2);
+		for(byte b : digest)
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return hex.toString();
+	}
+}
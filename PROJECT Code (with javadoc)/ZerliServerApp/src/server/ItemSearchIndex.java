@@ -0,0 +1,271 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import Entities.CatalogType;
+import Entities.Color;
+import Entities.Item;
+
+/**
+ * The Class ItemSearchIndex is an in-memory inverted index over the words of the available items
+ * (item name, color and item type), used to search the catalog by text.
+ * Every query word matches index words exactly, as a prefix (so a word that is still being typed matches)
+ * or with a small typo, exact matches rank above prefix matches which rank above typo matches.
+ * The index is loaded on the first search and kept up to date by the item add, update and remove operations.
+ */
+public class ItemSearchIndex {
+
+	/** The NAME_WEIGHT - Const weight of a word of the item name. */
+	private static final int NAME_WEIGHT = 3;
+
+	/** The TYPE_WEIGHT - Const weight of a word of the item type. */
+	private static final int TYPE_WEIGHT = 2;
+
+	/** The COLOR_WEIGHT - Const weight of the item color. */
+	private static final int COLOR_WEIGHT = 1;
+
+	/** The postings - for each word, the items containing it along with the word weight. */
+	private static final TreeMap<String, HashMap<Integer, Integer>> postings = new TreeMap<>();
+
+	/** The item words - for each item, the words it was indexed by (used to unindex the item). */
+	private static final HashMap<Integer, ArrayList<String>> itemWords = new HashMap<>();
+
+	/** The lock - searches run in parallel, changes run alone. */
+	private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** The loaded - whether the index was loaded from the database. */
+	private static boolean loaded = false;
+
+	/**
+	 * Searches the available items.
+	 *
+	 * @param text the search text
+	 * @param limit the max number of results
+	 * @return the ids of the items matching every word of the text, best match first
+	 */
+	public static ArrayList<Integer> Search(String text, int limit)
+	{
+		Load();
+		ArrayList<String> words = Tokenize(text);
+		ArrayList<Integer> results = new ArrayList<Integer>();
+		if(words.isEmpty())
+			return results;
+		lock.readLock().lock();
+		try {
+			HashMap<Integer, Integer> scores = null;
+			for(String word : words)
+			{
+				HashMap<Integer, Integer> wordScores = Match(word);
+				if(scores == null)
+					scores = wordScores;
+				else
+				{
+					/*** an item has to match every word of the text ***/
+					scores.keySet().retainAll(wordScores.keySet());
+					for(Map.Entry<Integer, Integer> entry : scores.entrySet())
+						entry.setValue(entry.getValue() + wordScores.get(entry.getKey()));
+				}
+			}
+			final HashMap<Integer, Integer> ranked = scores;
+			results.addAll(ranked.keySet());
+			results.sort(Comparator.<Integer>comparingInt(id -> -ranked.get(id)).thenComparingInt(id -> id));
+		} finally {
+			lock.readLock().unlock();
+		}
+		if(results.size() > limit)
+			results.subList(limit, results.size()).clear();
+		return results;
+	}
+
+	/**
+	 * Indexes an item that was added or updated.
+	 *
+	 * @param item the item
+	 */
+	public static void Put(Item item)
+	{
+		lock.writeLock().lock();
+		try {
+			if(!loaded)
+				return;
+			Unindex(item.getId());
+			Index(item);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an item from the index.
+	 *
+	 * @param id the item id
+	 */
+	public static void Remove(int id)
+	{
+		lock.writeLock().lock();
+		try {
+			if(loaded)
+				Unindex(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Loads the index from the database on its first use.
+	 */
+	private static void Load()
+	{
+		lock.readLock().lock();
+		try {
+			if(loaded)
+				return;
+		} finally {
+			lock.readLock().unlock();
+		}
+		lock.writeLock().lock();
+		try {
+			if(loaded)
+				return;
+			ArrayList<Item> items = new ArrayList<Item>();
+			for(CatalogType catalogType : CatalogType.values())
+				Server.SqlServerManager.getCatalogItems(items, catalogType);
+			for(Item item : items)
+				Index(item);
+			loaded = true;
+			Server.Log("Search Index", "Indexed " + items.size() + " items, " + postings.size() + " words");
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Scores the items matching a single query word, every item gets its best match.
+	 *
+	 * @param word the query word
+	 * @return the score of each matching item
+	 */
+	private static HashMap<Integer, Integer> Match(String word)
+	{
+		HashMap<Integer, Integer> scores = new HashMap<Integer, Integer>();
+		for(Map.Entry<String, HashMap<Integer, Integer>> entry : postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet())
+			Score(scores, entry.getValue(), entry.getKey().equals(word) ? 3 : 2);
+		int maxTypos = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+		if(maxTypos > 0)
+			for(Map.Entry<String, HashMap<Integer, Integer>> entry : postings.entrySet())
+			{
+				String candidate = entry.getKey();
+				if(Math.abs(candidate.length() - word.length()) <= maxTypos && !candidate.startsWith(word)
+						&& Distance(word, candidate, maxTypos) <= maxTypos)
+					Score(scores, entry.getValue(), 1);
+			}
+		return scores;
+	}
+
+	/**
+	 * Adds the score of a matched word to its items, keeping the best score of each item.
+	 *
+	 * @param scores the item scores
+	 * @param items the items of the matched word along with the word weight
+	 * @param match the match quality [3: exact, 2: prefix, 1: typo]
+	 */
+	private static void Score(HashMap<Integer, Integer> scores, HashMap<Integer, Integer> items, int match)
+	{
+		for(Map.Entry<Integer, Integer> item : items.entrySet())
+			scores.merge(item.getKey(), item.getValue() * match, Math::max);
+	}
+
+	/**
+	 * Calculates the edit distance of two words (a swap of two adjacent letters is a single edit),
+	 * giving up once the distance is over a bound.
+	 *
+	 * @param a the first word
+	 * @param b the second word
+	 * @param bound the max distance of interest
+	 * @return the distance, or bound + 1 if it is over the bound
+	 */
+	private static int Distance(String a, String b, int bound)
+	{
+		int[][] d = new int[a.length() + 1][b.length() + 1];
+		for(int i = 0; i <= a.length(); i++)
+			d[i][0] = i;
+		for(int j = 0; j <= b.length(); j++)
+			d[0][j] = j;
+		for(int i = 1; i <= a.length(); i++)
+		{
+			int rowMin = Integer.MAX_VALUE;
+			for(int j = 1; j <= b.length(); j++)
+			{
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+				if(i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1))
+					d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+				rowMin = Math.min(rowMin, d[i][j]);
+			}
+			if(rowMin > bound)
+				return bound + 1;
+		}
+		return d[a.length()][b.length()];
+	}
+
+	/**
+	 * Indexes the words of an item, must be called under the write lock.
+	 *
+	 * @param item the item
+	 */
+	private static void Index(Item item)
+	{
+		HashMap<String, Integer> words = new HashMap<String, Integer>();
+		for(String word : Tokenize(item.getName()))
+			words.merge(word, NAME_WEIGHT, Math::max);
+		if(item.getItemType() != null)
+			for(String word : Tokenize(item.getItemType().toString()))
+				words.merge(word, TYPE_WEIGHT, Math::max);
+		if(item.getColor() != null && item.getColor() != Color.non_color)
+			words.merge(item.getColor().toString(), COLOR_WEIGHT, Math::max);
+		for(Map.Entry<String, Integer> word : words.entrySet())
+			postings.computeIfAbsent(word.getKey(), w -> new HashMap<Integer, Integer>()).put(item.getId(), word.getValue());
+		itemWords.put(item.getId(), new ArrayList<String>(words.keySet()));
+	}
+
+	/**
+	 * Removes the words of an item, must be called under the write lock.
+	 *
+	 * @param id the item id
+	 */
+	private static void Unindex(int id)
+	{
+		ArrayList<String> words = itemWords.remove(id);
+		if(words == null)
+			return;
+		for(String word : words)
+		{
+			HashMap<Integer, Integer> items = postings.get(word);
+			items.remove(id);
+			if(items.isEmpty())
+				postings.remove(word);
+		}
+	}
+
+	/**
+	 * Splits a text into lower case words.
+	 *
+	 * @param text the text
+	 * @return the words
+	 */
+	private static ArrayList<String> Tokenize(String text)
+	{
+		ArrayList<String> words = new ArrayList<String>();
+		if(text == null)
+			return words;
+		for(String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+			if(!word.isEmpty())
+				words.add(word);
+		return words;
+	}
+}
@@ -0,0 +1,195 @@
+package server;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Entities.NotificationInTable;
+import Entities.NotificationSync;
+
+/**
+ * The Class NotificationTracker keeps, for every user that synced its notifications,
+ * the unread count and a short log of the status changes, so a sync sends only what changed
+ * and the unread count is answered without counting the notifications table.
+ * The unread count is counted from the database once per user (or on a full sync),
+ * after that it is kept up to date by the send and read notification operations.
+ * The count remembers the newest notification it covers, so a notification that was sent while it was counted
+ * is counted once, either by the count or by Sent.
+ * Read marks are written to the database by WriteBehind, so the notifications read from the database
+ * are overlaid with the read marks of this run.
+ */
+public class NotificationTracker {
+
+	/** The MAX_CHANGES - Const number of status changes kept per user, an older cursor gets a full sync. */
+	private static final int MAX_CHANGES = 256;
+
+	/** The epoch - identifies this server run, cursors of a previous run get a full sync. */
+	private static final long epoch = System.currentTimeMillis();
+
+	/** The sequence of the status changes of all users. */
+	private static final AtomicLong sequence = new AtomicLong();
+
+	/** The inboxes - the tracked state of each user. */
+	private static final ConcurrentHashMap<String, Inbox> inboxes = new ConcurrentHashMap<>();
+
+	/**
+	 * Syncs the notifications of a user.
+	 *
+	 * @param user the user
+	 * @param cursor the cursor of the client's last sync
+	 * @return the notifications and status changes since the cursor, along with the next cursor and the unread count
+	 */
+	public static NotificationSync Sync(String user, NotificationSync cursor)
+	{
+		Inbox inbox = InboxOf(user);
+		NotificationSync sync = new NotificationSync();
+		/*** read and counted under the lock, so a Sent that lands meanwhile is applied after the count it is missing from ***/
+		synchronized (inbox) {
+			long lastChange = sequence.get();
+			boolean full = cursor == null || cursor.getEpoch() != epoch || cursor.getLastChange() < inbox.trimmed;
+			if(!full)
+				for(Change change : inbox.changes)
+					if(change.sequence > cursor.getLastChange())
+						sync.getChanged().put(change.id, change.status);
+			int lastId = full ? 0 : cursor.getLastId();
+			Server.SqlServerManager.GetNotificationsAfter(user, lastId, sync.getAdded());
+			int unread = 0;
+			for(NotificationInTable notification : sync.getAdded())
+			{
+				/*** read marks that were not flushed yet ***/
+				if(inbox.read.contains(notification.getNotificationnumber()))
+					notification.setStatus("read");
+				lastId = Math.max(lastId, notification.getNotificationnumber());
+				if(notification.getStatus().equals("unread"))
+					unread++;
+			}
+			if(full)
+			{
+				inbox.unread = unread;
+				inbox.counted = lastId;
+			}
+			sync.setResponse(epoch, lastId, lastChange, full, Unread(user));
+		}
+		return sync;
+	}
+
+	/**
+	 * Gets the number of unread notifications of a user.
+	 *
+	 * @param user the user
+	 * @return the number of unread notifications
+	 */
+	public static int Unread(String user)
+	{
+		Inbox inbox = InboxOf(user);
+		synchronized (inbox) {
+			if(inbox.unread < 0)
+			{
+				WriteBehind.Flush();
+				int[] count = Server.SqlServerManager.GetUnreadNotificationCount(user);
+				inbox.unread = count[0];
+				inbox.counted = count[1];
+			}
+			return inbox.unread;
+		}
+	}
+
+	/**
+	 * Counts a notification that was sent to a user, unless the unread count already covers it.
+	 *
+	 * @param user the user the notification was sent to
+	 * @param id the id of the notification
+	 */
+	public static void Sent(String user, int id)
+	{
+		Inbox inbox = inboxes.get(user);
+		if(inbox == null)
+			return;
+		synchronized (inbox) {
+			if(inbox.unread >= 0 && id > inbox.counted)
+				inbox.unread++;
+		}
+	}
+
+	/**
+	 * Logs a notification of a user that was marked as read.
+	 *
+	 * @param user the owner of the notification
+	 * @param id the notification id
+	 */
+	public static void Read(String user, int id)
+	{
+		Inbox inbox = InboxOf(user);
+		synchronized (inbox) {
+			if(!inbox.read.add(id))
+				return;
+			if(inbox.unread > 0)
+				inbox.unread--;
+			inbox.changes.addLast(new Change(sequence.incrementAndGet(), id, "read"));
+			while(inbox.changes.size() > MAX_CHANGES)
+				inbox.trimmed = inbox.changes.removeFirst().sequence;
+		}
+	}
+
+	/**
+	 * Gets the inbox of a user, creating it if missing.
+	 *
+	 * @param user the user
+	 * @return the inbox
+	 */
+	private static Inbox InboxOf(String user)
+	{
+		return inboxes.computeIfAbsent(user, u -> new Inbox());
+	}
+
+	/**
+	 * The Class Inbox is the tracked state of a single user, guarded by its own lock.
+	 */
+	private static class Inbox {
+
+		/** The unread count, -1 until counted. */
+		private int unread = -1;
+
+		/** The newest notification id covered by the last count from the database. */
+		private int counted = 0;
+
+		/** The notifications marked as read by this server run. */
+		private final HashSet<Integer> read = new HashSet<>();
+
+		/** The status changes, oldest first. */
+		private final ArrayDeque<Change> changes = new ArrayDeque<>();
+
+		/** The sequence of the newest change dropped from the log. */
+		private long trimmed = 0;
+	}
+
+	/**
+	 * The Class Change is a single status change.
+	 */
+	private static class Change {
+
+		/** The sequence of the change. */
+		private final long sequence;
+
+		/** The notification id. */
+		private final int id;
+
+		/** The new status. */
+		private final String status;
+
+		/**
+		 * Instantiates a new change.
+		 *
+		 * @param sequence the sequence of the change
+		 * @param id the notification id
+		 * @param status the new status
+		 */
+		Change(long sequence, int id, String status)
+		{
+			this.sequence = sequence;
+			this.id = id;
+			this.status = status;
+		}
+	}
+}
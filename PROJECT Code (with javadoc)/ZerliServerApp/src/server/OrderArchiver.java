@@ -0,0 +1,65 @@
+package server;
+
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Class OrderArchiver keeps the order tables small by moving the completed and canceled orders
+ * that are older than ARCHIVE_DAYS, along with their items, into the archive tables.
+ * The order boards only ever show open orders and keep reading the hot tables,
+ * the order history and the reports read the hot and archived orders together.
+ * The age is set by the zerli.archiveDays system property, 0 or less turns the archiving off.
+ */
+public class OrderArchiver {
+
+	/** The ARCHIVE_DAYS - Const age in days of a completed or canceled order before it is archived. */
+	private static final int ARCHIVE_DAYS = Integer.getInteger("zerli.archiveDays", 90);
+
+	/** The BATCH_SIZE - Const number of orders moved in a single transaction. */
+	private static final int BATCH_SIZE = 200;
+
+	/** The RUN_INTERVAL - Const time in milliseconds between two runs. */
+	private static final long RUN_INTERVAL = 12 * 60 * 60 * 1000;
+
+	/** The archiver - the thread the orders are archived on, null until started. */
+	private static volatile ScheduledExecutorService archiver;
+
+	/**
+	 * Starts the archiver, called once the database is connected.
+	 * The first run is made right away, the next ones every RUN_INTERVAL.
+	 */
+	public static void Start()
+	{
+		if(ARCHIVE_DAYS <= 0)
+			return;
+		synchronized (OrderArchiver.class) {
+			if(archiver != null)
+				return;
+			archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "order-archiver");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		archiver.scheduleWithFixedDelay(OrderArchiver::Run, 0, RUN_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Moves the old orders batch by batch, until none is left or a batch fails.
+	 */
+	private static void Run()
+	{
+		Timestamp before = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(ARCHIVE_DAYS));
+		int total = 0;
+		int moved;
+		do {
+			moved = Server.SqlServerManager.ArchiveOrders(before, BATCH_SIZE);
+			if(moved > 0)
+				total += moved;
+		} while(moved == BATCH_SIZE);
+		if(total > 0)
+			Server.Log("Archive", "Archived " + total + " orders");
+	}
+}
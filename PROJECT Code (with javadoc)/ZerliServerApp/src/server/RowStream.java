@@ -0,0 +1,65 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import Entities.RowBatch;
+import ProtocolHandler.ResponseWrapper;
+
+/**
+ * The Class RowStream sends the rows of a list response in batches as they are read from the database,
+ * instead of collecting the whole list first.
+ * Every full batch is sent ahead of the response as a frame, Close sets the rest of the rows as the response.
+ * A response that cannot send frames gets all the rows in the last batch.
+ *
+ * @param <T> the row type
+ */
+public class RowStream<T> implements Consumer<T> {
+
+	/** The BATCH_SIZE - Const number of rows sent in a single frame. */
+	public static final int BATCH_SIZE = 100;
+
+	/** The response the rows are sent through. */
+	private final ResponseWrapper response;
+
+	/** The rows that were not sent yet. */
+	private ArrayList<T> batch = new ArrayList<>();
+
+	/** Whether a frame could not be sent, the rest of the rows are dropped. */
+	private boolean failed;
+
+	/**
+	 * Instantiates a new row stream.
+	 *
+	 * @param response the response the rows are sent through
+	 */
+	public RowStream(ResponseWrapper response)
+	{
+		this.response = response;
+	}
+
+	/**
+	 * Adds a row, a full batch is sent right away.
+	 *
+	 * @param row the row
+	 */
+	@Override
+	public void accept(T row)
+	{
+		if(failed)
+			return;
+		batch.add(row);
+		if(batch.size() < BATCH_SIZE || !response.CanSendFrames())
+			return;
+		failed = !response.SendFrame(new RowBatch(batch, false));
+		batch = new ArrayList<>();
+	}
+
+	/**
+	 * Closes the stream, the rows that were not sent yet are set as the response.
+	 */
+	public void Close()
+	{
+		response.SetResponse(new RowBatch(batch, true));
+	}
+}
@@ -7,6 +7,7 @@ import javafx.scene.control.TextArea;
 import ocsf.server.AbstractServer;
 import ocsf.server.ConnectionToClient;
 
+import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -25,6 +26,9 @@ public class Server extends AbstractServer{
 	
 	/** The Sql server manager. */
 	public static ServerConnSQL SqlServerManager = new ServerConnSQL();
+
+	/** The Blob store holding the item images, reports and survey pdfs. */
+	public static BlobStore Blobs = new FileBlobStore(new File("blobs"));
 	
 	/** The Protocol handler. */
 	private static Protocol ProtocolHandler = new Protocol();
@@ -56,14 +60,57 @@ public class Server extends AbstractServer{
 		} catch (Exception e1) {e1.printStackTrace();}  
 	}
 	
+	/**
+	 * Hook called by the connection thread once a message was read from a client - OCSF Layer
+	 * the session of the client is marked as seen right away, while the message may still wait
+	 * for a long request of another client to be handled.
+	 *
+	 * @param msg the msg that is being received
+	 * @param client the client that has sent the message
+	 */
+	@Override
+	protected void messageReceived(Object msg, ConnectionToClient client) {
+		SessionRegistry.Touch(client);
+	}
+	
+	/**
+	 * Hook called when a client has closed its connection - OCSF Layer
+	 * the session of the client is dropped and its user is logged out.
+	 *
+	 * @param client the client that has disconnected
+	 */
+	@Override
+	synchronized protected void clientDisconnected(ConnectionToClient client) {
+		SessionRegistry.Drop(client);
+	}
+
+	/**
+	 * Hook called when the connection of a client has failed - OCSF Layer
+	 * a client that crashed or lost its network ends here, the session of the client is dropped
+	 * and its user is logged out.
+	 *
+	 * @param client the client whose connection has failed
+	 * @param exception the exception thrown
+	 */
+	@Override
+	synchronized protected void clientException(ConnectionToClient client, Throwable exception) {
+		SessionRegistry.Drop(client);
+	}
+
 	/**
 	 * Log - is used to log an operation from a source to the console in the server UI panel
+	 * before the panel is shown (or without it) the log goes to the standard output.
 	 *
 	 * @param source - the module that is being logged
 	 * @param content - the log content
 	 */
 	public static void Log(String source,String content)
 	{
+		if(Console == null)
+		{
+			System.out.println(String.format("[%s]: %s",source,content));
+			return;
+		}
 		Platform.runLater(new Runnable() {
 
 			@Override
@@ -1,16 +1,30 @@
 package server;
 
 import java.sql.Connection;
+import java.sql.DataTruncation;
 import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -18,6 +32,7 @@ import java.sql.Blob;
 import Entities.*;
 import Utilities.GenericUtilties;
 import javafx.scene.image.Image;
+import reports.PDFGenerator;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -29,6 +44,27 @@ public class ServerConnSQL {
 
 	/** The Main JDBC Connection element, used to drive the communication. */
 	private static Connection conn;
+	
+	/** The cursor connection, used only to read long lists through server side cursors, FETCH_SIZE rows at a time, see Reopen. */
+	private static Connection cursorConn;
+	
+	/** The archive connection, used only by the order archiver so its moves run in transactions of their own, see Reopen. */
+	private static Connection archiveConn;
+	
+	/** The URL - Const address of the database. */
+	private static final String URL = "jdbc:mysql://localhost/midproject?useLegacyDatetimeCode=false&serverTimezone=Israel";
+	
+	/** The password of the database, kept to open again a connection the database closed. */
+	private static String password;
+	
+	/** The FETCH_SIZE - Const number of rows fetched at a time by a cursor. */
+	private static final int FETCH_SIZE = 100;
+	
+	/** The generator used for rendering report previews. */
+	private static final PDFGenerator PreviewGenerator = new PDFGenerator();
+
+	/** The lock that keeps the survey answers and their histogram counters written together. */
+	private static final Object HistogramLock = new Object();
 	// private String mySQLpassword = "123456";
 
 	/**
@@ -47,8 +83,15 @@ public class ServerConnSQL {
 		}
 
 		try {
-			conn = DriverManager.getConnection("jdbc:mysql://localhost/midproject?useLegacyDatetimeCode=false&serverTimezone=Israel","root",mySQLpassword);
+			password = mySQLpassword;
+			conn = DriverManager.getConnection(URL,"root",mySQLpassword);
+			cursorConn = Reopen(null, "&useCursorFetch=true", true);
+			archiveConn = Reopen(null, "", false);
 			System.out.println("SQL connection succeed");
+			ensureSchema();
+			WriteBehind.Start();
+			SessionRegistry.Start();
+			OrderArchiver.Start();
 			return true;
 		} catch (SQLException ex) {/* handle any errors */
 			System.out.println("SQLException: " + ex.getMessage());
@@ -57,6 +100,115 @@ public class ServerConnSQL {
 			return false;
 		}
 	}
+
+	/**
+	 * Creates the tables, columns and indexes that were added on top of the initial database, if they are missing.
+	 */
+	private static void ensureSchema() {
+		String[] tables = {
+				"CREATE TABLE IF NOT EXISTS report_previews (reportType VARCHAR(45) NOT NULL, branch VARCHAR(45) NOT NULL, "
+				+ "is_monthly INT NOT NULL, date DATE NOT NULL, preview MEDIUMBLOB, totals VARCHAR(255), "
+				+ "PRIMARY KEY (branch, is_monthly, date, reportType))",
+				"CREATE TABLE IF NOT EXISTS survey_histograms (survey_id INT NOT NULL, question INT NOT NULL, answer INT NOT NULL, "
+				+ "count INT NOT NULL DEFAULT 0, PRIMARY KEY (survey_id, question, answer))",
+				"CREATE TABLE IF NOT EXISTS orders_archive LIKE orders",
+				"CREATE TABLE IF NOT EXISTS order_item_archive LIKE order_item",
+				"CREATE TABLE IF NOT EXISTS order_new_item_archive LIKE order_new_item",
+				"CREATE TABLE IF NOT EXISTS new_item_spec_archive LIKE new_item_spec",
+				/*** the hot and archived orders are read by queries filtering each side, a UNION ALL view is materialized whole before MySQL 8.0.29 ***/
+				"DROP VIEW IF EXISTS orders_all, order_item_all, order_new_item_all, new_item_spec_all"
+				};
+		/*** table, column, definition - the hashes of the files moved into the blob store ***/
+		String[][] columns = {
+				{"items", "image_hash", "VARCHAR(64)"},
+				{"reports", "report_hash", "VARCHAR(64)"},
+				{"pdf_from_expert", "expert_hash", "VARCHAR(64)"},
+				{"pdf_from_expert", "answers_hash", "VARCHAR(64)"},
+				{"surveys_questions", "answer_key", "VARCHAR(36)"}
+				};
+		/*** table, index, columns [, kind] - the indexes of the account search, the order archiver, the archived order reads and the saved survey answers ***/
+		String[][] indexes = {
+				{"user_details", "idx_user_details_role", "role, user_id"},
+				{"user_details", "idx_user_details_first_name", "first_name"},
+				{"user_details", "idx_user_details_last_name", "last_name"},
+				{"user_details", "idx_user_details_id", "id"},
+				{"login_details", "idx_login_details_access", "access, user_id"},
+				{"branch_employees", "idx_branch_employees_branch", "branch_name, user_id"},
+				{"orders", "idx_orders_status_date", "status, order_date"},
+				{"orders_archive", "idx_orders_archive_user", "user_id"},
+				{"orders_archive", "idx_orders_archive_branch_date", "branch_name, order_date"},
+				{"surveys_questions", "idx_surveys_questions_answer_key", "answer_key", "UNIQUE"}
+				};
+		try {
+			for(String table : tables)
+				conn.prepareStatement(table).executeUpdate();
+			PreparedStatement exists = conn.prepareStatement("SELECT 1 FROM information_schema.columns "
+					+ "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?");
+			for(String[] column : columns)
+			{
+				exists.setString(1, column[0]);
+				exists.setString(2, column[1]);
+				if(!exists.executeQuery().next())
+					conn.prepareStatement("ALTER TABLE " + column[0] + " ADD COLUMN " + column[1] + " " + column[2]).executeUpdate();
+			}
+			exists = conn.prepareStatement("SELECT 1 FROM information_schema.statistics "
+					+ "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?");
+			for(String[] index : indexes)
+			{
+				exists.setString(1, index[0]);
+				exists.setString(2, index[1]);
+				if(!exists.executeQuery().next())
+					conn.prepareStatement("CREATE " + (index.length > 3 ? index[3] + " " : "") + "INDEX " + index[1] + " ON " + index[0] + " (" + index[2] + ")").executeUpdate();
+			}
+			/*** archived orders keep their ids, new orders are numbered after them (before MySQL 8.0 the counter restarts after the hot orders only) ***/
+			ResultSet archived = conn.prepareStatement("SELECT IFNULL(MAX(order_id), 0) + 1 FROM orders_archive").executeQuery();
+			if(archived.next())
+				conn.prepareStatement("ALTER TABLE orders AUTO_INCREMENT = " + archived.getLong(1)).executeUpdate();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			System.out.println("Schema update failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets a connection that is still open. The side connections may stay idle longer than the database keeps an idle
+	 * connection (wait_timeout), a connection the database closed meanwhile is opened again.
+	 *
+	 * @param connection the connection, null to open a new one
+	 * @param options the options added to the URL
+	 * @param autoCommit whether every statement commits by itself
+	 * @return the open connection
+	 * @throws SQLException the SQL exception
+	 */
+	private static synchronized Connection Reopen(Connection connection, String options, boolean autoCommit) throws SQLException {
+		if(connection != null && connection.isValid(2))
+			return connection;
+		if(connection != null)
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				/* already closed by the database */
+			}
+		Connection opened = DriverManager.getConnection(URL + options, "root", password);
+		opened.setAutoCommit(autoCommit);
+		return opened;
+	}
+
+	/**
+	 * Prepares a forward only statement on the cursor connection, its rows are fetched FETCH_SIZE at a time
+	 * so a long list is never held whole in memory. The statement must be closed once read.
+	 *
+	 * @param sql the query
+	 * @return the statement
+	 * @throws SQLException the SQL exception
+	 */
+	private static PreparedStatement Cursor(String sql) throws SQLException {
+		cursorConn = Reopen(cursorConn, "&useCursorFetch=true", true);
+		PreparedStatement stmt = cursorConn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		stmt.setFetchSize(FETCH_SIZE);
+		return stmt;
+	}
+
 	public static void importData() {
 		Server.Log("Database", "Executing importData");
 		String[] users = {
@@ -147,6 +299,43 @@ public class ServerConnSQL {
 
 	}
 
+	/**
+	 * Clears the logged in flags left by a previous run of the server.
+	 */
+	public void ResetLoggedIn() {
+		Server.Log("Database", "Executing ResetLoggedIn");
+		try {
+			PreparedStatement stmt = conn.prepareStatement("UPDATE login_details SET loggedin='0' WHERE loggedin='1'");
+			stmt.executeUpdate();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			Server.Log("Database", "Executing ResetLoggedIn: FAILED");
+		}
+	}
+
+	/**
+	 * Logging out operation of several users, in a single batch.
+	 *
+	 * @param usernames the usernames that asked to log out
+	 * @return true, if successful
+	 */
+	public boolean LoggedOut(Collection<String> usernames) {
+		Server.Log("Database", "Executing LoggedOut batch");
+		try {
+			PreparedStatement stmt = conn.prepareStatement("UPDATE login_details SET loggedin='0' WHERE user_id=?");
+			for (String username : usernames) {
+				stmt.setString(1, username);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+			return true;
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing LoggedOut batch: FAILED");
+			e.printStackTrace();
+			return false;
+		}
+	}
+
 	/**
 	 * Gets the cart items.
 	 *
@@ -191,13 +380,7 @@ public class ServerConnSQL {
 	            while (rs.next()) {
 	            	Image bufferImage;
 	            	image=rs.getBlob(7);
-	            	if (image == null)
-	            	{
-	            		stream = getClass().getResourceAsStream("/png/no-image.png");
-	            	}
-	            	else {
-	            		stream = image.getBinaryStream();
-	            	}
+	            	stream = ItemImage(rs, image);
 	            	/*** take sale price or regular price ***/
 	            	int price;
 	            	if(rs.getInt(8) == 1)
@@ -235,13 +418,7 @@ public class ServerConnSQL {
             	int price=0;
 	            while (rs2.next()) {
             	image=rs2.getBlob(7);
-            	if (image == null)
-            	{
-            		stream = getClass().getResourceAsStream("/png/no-image.png");
-            	}
-            	else {
-            		stream = image.getBinaryStream();
-            	}
+            	stream = ItemImage(rs2, image);
             	
             	itemInListlist = new ItemInList(stream.readAllBytes(),rs2.getInt(1),0,
             			rs2.getInt(3), rs2.getString(2),ItemType.valueOf(rs2.getString(5)),
@@ -284,6 +461,33 @@ public class ServerConnSQL {
 		 Server.Log("Database", "Executing getCartItems: SUCCESS");
 	}
 	
+	/**
+	 * Gets the total quantity of the items in a cart (catalog items and new items),
+	 * without loading the items themselves.
+	 *
+	 * @param username the username the owns the cart
+	 * @return the total quantity
+	 */
+	public int GetCartQuantity(String username) {
+		Server.Log("Database", "Executing GetCartQuantity");
+		PreparedStatement stmt;
+		ResultSet rs;
+		try {
+			stmt = conn.prepareStatement("SELECT (SELECT COALESCE(SUM(ci.quantity),0) FROM cart_item ci, items i "
+					+ "WHERE ci.item_id = i.item_id AND i.isAvailable = 1 AND ci.cart_id = (SELECT cart_id FROM carts WHERE user_id = ?)) + "
+					+ "(SELECT COALESCE(SUM(quantity),0) FROM cart_new_item WHERE cart_id = (SELECT cart_id FROM carts WHERE user_id = ?))");
+			stmt.setString(1, username);
+			stmt.setString(2, username);
+			rs = stmt.executeQuery();
+			if (rs.next())
+				return rs.getInt(1);
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing GetCartQuantity: FAILED");
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
 	/**
 	 * Removes the item by ID.
 	 *
@@ -331,15 +535,7 @@ public class ServerConnSQL {
 	            	//need to change blob to long blob 
 	            	Image bufferImage;
 	            	image=rs.getBlob(7);
-	            	if (image == null)
-	            	{
-	            		stream = getClass().getResourceAsStream("/png/no-image.png");
-	            		//stream =new FileInputStream("/png/no-image.png");
-	            	}
-	            	else {
-	            		stream = image.getBinaryStream();
-		            	//bufferImage = new Image(input);
-	            	}
+	            	stream = ItemImage(rs, image);
 	            	
 	            	item = new Item(rs.getInt(1), rs.getString(2), rs.getInt(3),CatalogType.valueOf(rs.getString(4)), 
 	            			ItemType.valueOf(rs.getString(5)), 
@@ -379,13 +575,7 @@ public class ServerConnSQL {
 				// need to change blob to long blob
 				Image bufferImage;
 				image = rs.getBlob(7);
-				if (image == null) {
-					stream = getClass().getResourceAsStream("/png/no-image.png");
-					// stream =new FileInputStream("/png/no-image.png");
-				} else {
-					stream = image.getBinaryStream();
-					// bufferImage = new Image(input);
-				}
+				stream = ItemImage(rs, image);
 
 				item = new Item(rs.getInt(1), rs.getString(2), rs.getInt(3), CatalogType.valueOf(rs.getString(4)),
 						ItemType.valueOf(rs.getString(5)),
@@ -398,6 +588,49 @@ public class ServerConnSQL {
 		}
 	}
 
+	/**
+	 * Gets the image of an item row, from the blob store once moved there, otherwise from the row itself.
+	 *
+	 * @param rs the result set, positioned on an items row
+	 * @param image the image column of the row
+	 * @return the image, the no-image picture if the item has none
+	 * @throws SQLException the SQL exception
+	 * @throws IOException Signals that the image in the blob store could not be read.
+	 */
+	private InputStream ItemImage(ResultSet rs, Blob image) throws SQLException, IOException {
+		String hash = rs.getString("image_hash");
+		if(hash != null)
+		{
+			byte[] stored = Server.Blobs.ReadAll(hash);
+			if(stored == null)
+				throw new IOException("Missing blob " + hash);
+			return new ByteArrayInputStream(stored);
+		}
+		if(image == null)
+			return getClass().getResourceAsStream("/png/no-image.png");
+		return image.getBinaryStream();
+	}
+
+	/**
+	 * Gets the content of a file column, from the blob store once moved there, otherwise from the column itself.
+	 *
+	 * @param hash the hash column of the row
+	 * @param blob the file column of the row
+	 * @return the content, null if there is none
+	 * @throws SQLException the SQL exception
+	 * @throws IOException Signals that the file could not be read.
+	 */
+	private static byte[] BlobContent(String hash, Blob blob) throws SQLException, IOException {
+		if(hash != null)
+		{
+			byte[] stored = Server.Blobs.ReadAll(hash);
+			if(stored == null)
+				throw new IOException("Missing blob " + hash);
+			return stored;
+		}
+		return blob == null ? null : blob.getBinaryStream().readAllBytes();
+	}
+
 	/**
 	 * Gets the branches.
 	 *
@@ -478,7 +711,7 @@ public class ServerConnSQL {
 		PreparedStatement stmt = null;
 		try {
 			stmt = conn.prepareStatement("INSERT INTO orders (user_id,payment_method,shipping_method,order_date,shipping_date,branch_name,greeting_card,total_price,status,address,city)"
-					+ " VALUES (?,?,?,?,?,?,?,?,?,?,?)");
+					+ " VALUES (?,?,?,?,?,?,?,?,?,?,?)", Statement.RETURN_GENERATED_KEYS);
 			stmt.setString(1, requestee);
 			stmt.setString(2, order.getPaymentMethod().toString());
 			stmt.setString(3, order.getShippingMethod().toString());
@@ -509,8 +742,7 @@ public class ServerConnSQL {
            	/*
            	 * 
            	 */
-           	stmt = conn.prepareStatement("SELECT MAX(order_id) FROM orders");
-           	ResultSet rs = stmt.executeQuery();
+           	ResultSet rs = stmt.getGeneratedKeys();
            	int orderID = -1;
            	while(rs.next())
            	{
@@ -630,7 +862,7 @@ public class ServerConnSQL {
 			if(role.equals("manager")) {
 				Server.Log("Database", "Executing GetOrdersByBranch: Manager");
 				stmt = conn.prepareStatement("SELECT * FROM orders WHERE branch_name = ? AND "
-						+ "status = 'pending_confirm' OR status = 'pending_cancel' ");
+						+ "status IN ('pending_confirm', 'pending_cancel')");
 				stmt.setString(1, branch_name);
 			}
 			else {
@@ -672,6 +904,35 @@ public class ServerConnSQL {
 
 	}
 
+	/**
+	 * Gets the number of orders waiting on the board of a branch, counted the same way GetOrdersByBranch lists them.
+	 *
+	 * @param branch_name - the branch name to look on
+	 * @param role - the role of the requester
+	 * @return the number of waiting orders
+	 */
+	public int GetPendingOrderCount(String branch_name, String role) {
+		Server.Log("Database", "Executing GetPendingOrderCount");
+		PreparedStatement stmt;
+		ResultSet rs;
+		try {
+			if(role.equals("manager"))
+				stmt = conn.prepareStatement("SELECT COUNT(*) FROM orders WHERE branch_name = ? AND "
+						+ "status IN ('pending_confirm', 'pending_cancel')");
+			else
+				stmt = conn.prepareStatement("SELECT COUNT(*) FROM orders WHERE branch_name = ? AND "
+						+ "status = 'confirmed' AND shipping_method='shipping'");
+			stmt.setString(1, branch_name);
+			rs = stmt.executeQuery();
+			if (rs.next())
+				return rs.getInt(1);
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing GetPendingOrderCount: FAILED");
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
 	/**
 	 * Gets the items of an order.
 	 *
@@ -867,18 +1128,18 @@ public class ServerConnSQL {
 	 * Gets all of the orders of a customer.
 	 *
 	 * @param username the username of the customer
-	 * @param customerOrders the collection of orders to be altered
+	 * @param customerOrders receives the orders as they are read
 	 */
-	public void GetAllCustomerOrders(String username, ArrayList<Order> customerOrders) {
+	public void GetAllCustomerOrders(String username, Consumer<Order> customerOrders) {
 		PreparedStatement stmt = null;
 		ResultSet rs1,rs2;
 		Order order;
 		ItemInList itemInList;
 		ArrayList<ItemInList> itemList ;
-		try {
-			stmt = conn.prepareStatement("SELECT * FROM orders WHERE user_id=?");
-			stmt.setString(1,username);
-           	rs1 = stmt.executeQuery();
+		try (PreparedStatement orders = Cursor("SELECT * FROM orders WHERE user_id=? UNION ALL SELECT * FROM orders_archive WHERE user_id=?")) {
+			orders.setString(1,username);
+			orders.setString(2,username);
+           	rs1 = orders.executeQuery();
            	while(rs1.next()) {
            		order = new Order();
            		order.setOrderID(String.valueOf(rs1.getInt(2)));
@@ -898,9 +1159,11 @@ public class ServerConnSQL {
                    		+"FROM items i, order_item oi "
                    		+"WHERE i.item_id = oi.item_id" 
                    		+" AND oi.order_id=? " 
-                   		+"AND i.item_id IN (SELECT item_id "
-                   		+"from order_item"
-                   		+" where order_id=?)");
+                   		+"UNION ALL SELECT i.name ,i.catalog_type,"
+                   		+"i.item_type,i.price, oi.quantity " 
+                   		+"FROM items i, order_item_archive oi "
+                   		+"WHERE i.item_id = oi.item_id" 
+                   		+" AND oi.order_id=?");
            		stmt.setInt(1,rs1.getInt(2));
            		stmt.setInt(2,rs1.getInt(2));
            		rs2 = stmt.executeQuery();
@@ -916,16 +1179,21 @@ public class ServerConnSQL {
            		}
 //////
            		
-           		stmt = conn.prepareStatement("SELECT new_item_id from order_new_item where order_id=?");
+           		stmt = conn.prepareStatement("SELECT new_item_id from order_new_item where order_id=? "
+           				+ "UNION ALL SELECT new_item_id from order_new_item_archive where order_id=?");
            		stmt.setInt(1,rs1.getInt(2));
+           		stmt.setInt(2,rs1.getInt(2));
            		rs2 = stmt.executeQuery();
            		ResultSet rs3;
            		while(rs2.next()) {
            			NewItem newItem=new NewItem() ;
            			newItem.setItem_id(rs2.getInt(1));
            			stmt = conn.prepareStatement("SELECT ni.new_item_name,oni.quantity,ni.price from order_new_item oni,new_items ni "
+           					+ "where ni.new_item_id=oni.new_item_id and ni.new_item_id=? "
+           					+ "UNION ALL SELECT ni.new_item_name,oni.quantity,ni.price from order_new_item_archive oni,new_items ni "
            					+ "where ni.new_item_id=oni.new_item_id and ni.new_item_id=?");
                		stmt.setInt(1,rs2.getInt(1));
+               		stmt.setInt(2,rs2.getInt(1));
                		rs3 = stmt.executeQuery();
                		rs3.next();
                		newItem.setItemName(rs3.getString(1));
@@ -935,9 +1203,10 @@ public class ServerConnSQL {
                		/// get all items of new item
                		
                		
-               	  stmt = conn.prepareStatement("select * from items where item_id in "
-  	            		+ "(select catalog_item_id from new_item_spec where new_item_id =?)");	
+               	  stmt = conn.prepareStatement("select i.* from items i, new_item_spec s where i.item_id = s.catalog_item_id and s.new_item_id =? "
+  	            		+ "UNION ALL select i.* from items i, new_item_spec_archive s where i.item_id = s.catalog_item_id and s.new_item_id =?");	
                	  stmt.setInt(1, rs2.getInt(1));
+               	  stmt.setInt(2, rs2.getInt(1));
                	  ResultSet rs5;
                	  rs5 = stmt.executeQuery();
                	  while(rs5.next()) {
@@ -949,9 +1218,12 @@ public class ServerConnSQL {
                		assemble.setPrice(rs5.getInt(3));
                		  
                		stmt = conn.prepareStatement("select quantity from new_item_spec where new_item_id= ? "
+      	            		+ " AND catalog_item_id = ? UNION ALL select quantity from new_item_spec_archive where new_item_id= ? "
       	            		+ " AND catalog_item_id = ?");	
                		stmt.setInt(1,rs2.getInt(1));
                		stmt.setInt(2,rs5.getInt(1));
+               		stmt.setInt(3,rs2.getInt(1));
+               		stmt.setInt(4,rs5.getInt(1));
                		ResultSet rs4;
                		rs4 = stmt.executeQuery();
                		rs4.next();
@@ -963,7 +1235,7 @@ public class ServerConnSQL {
            		}
            		/////           	
            		order.setItems(itemList);
-           		customerOrders.add(order);
+           		customerOrders.accept(order);
            	}
 
 		
@@ -976,6 +1248,64 @@ public class ServerConnSQL {
 	
 	}
 
+	/**
+	 * Moves a batch of the oldest completed and canceled orders, along with their items, into the archive tables.
+	 * The specs of a new item are moved along only once no cart and no hot order refers to it.
+	 * The whole batch is moved in a single transaction, so an order is always read whole from either side.
+	 *
+	 * @param before the orders made before this time are moved
+	 * @param batchSize the most orders moved at once
+	 * @return the number of orders moved, -1 if failed
+	 */
+	public int ArchiveOrders(Timestamp before, int batchSize) {
+		try {
+			archiveConn = Reopen(archiveConn, "", false);
+			PreparedStatement stmt = archiveConn.prepareStatement("SELECT order_id FROM orders WHERE status IN ('completed', 'canceled') "
+					+ "AND order_date < ? ORDER BY order_id LIMIT ? FOR UPDATE");
+			stmt.setTimestamp(1, before);
+			stmt.setInt(2, batchSize);
+			ResultSet rs = stmt.executeQuery();
+			StringBuilder ids = new StringBuilder();
+			int count = 0;
+			while(rs.next())
+			{
+				ids.append(count++ == 0 ? "" : ",").append(rs.getInt(1));
+			}
+			if(count == 0)
+			{
+				archiveConn.commit();
+				return 0;
+			}
+			String orderIds = "(" + ids + ")";
+			String unusedSpecs = "new_item_id IN (SELECT new_item_id FROM order_new_item WHERE order_id IN " + orderIds + ") "
+					+ "AND NOT EXISTS (SELECT 1 FROM order_new_item o WHERE o.new_item_id = s.new_item_id AND o.order_id NOT IN " + orderIds + ") "
+					+ "AND NOT EXISTS (SELECT 1 FROM cart_new_item c WHERE c.new_item_id = s.new_item_id)";
+			String[] moves = {
+					"INSERT INTO new_item_spec_archive SELECT s.* FROM new_item_spec s WHERE " + unusedSpecs,
+					"DELETE s FROM new_item_spec s WHERE " + unusedSpecs,
+					"INSERT INTO order_new_item_archive SELECT * FROM order_new_item WHERE order_id IN " + orderIds,
+					"DELETE FROM order_new_item WHERE order_id IN " + orderIds,
+					"INSERT INTO order_item_archive SELECT * FROM order_item WHERE order_id IN " + orderIds,
+					"DELETE FROM order_item WHERE order_id IN " + orderIds,
+					"INSERT INTO orders_archive SELECT * FROM orders WHERE order_id IN " + orderIds,
+					"DELETE FROM orders WHERE order_id IN " + orderIds
+					};
+			for(String move : moves)
+				archiveConn.prepareStatement(move).executeUpdate();
+			archiveConn.commit();
+			return count;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			try {
+				archiveConn.rollback();
+			} catch (SQLException e1) {
+				e1.printStackTrace();
+			}
+			Server.Log("Database", "Executing ArchiveOrders: FAILED");
+			return -1;
+		}
+	}
+
 	/**
 	 * Delete item from cart.
 	 *
@@ -1026,45 +1356,130 @@ public class ServerConnSQL {
 		Server.Log("Database", "Executing getNotification: SUCCESS");
 	}
 
+	/**
+	 * Gets the notifications of a username that are newer than a notification
+	 *
+	 * @param username - the username who request his notifications
+	 * @param lastId - the newest notification the user already has, 0 for all of them
+	 * @param notificationList the collection of notifications to be altered, oldest first
+	 */
+	public void GetNotificationsAfter(String username, int lastId, ArrayList<NotificationInTable> notificationList) {
+		Server.Log("Database", "Executing GetNotificationsAfter");
+		PreparedStatement stmt;
+		ResultSet rs;
+		try {
+			stmt = conn.prepareStatement("SELECT * FROM notifications WHERE user_id = ? AND notification_id > ? ORDER BY notification_id");
+			stmt.setString(1, username);
+			stmt.setInt(2, lastId);
+			rs = stmt.executeQuery();
+			while (rs.next()) {
+				notificationList.add(new NotificationInTable(rs.getInt(1), 
+						rs.getString(3), rs.getString(4), rs.getString(5)));
+			}
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing GetNotificationsAfter: FAILED");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets the number of unread notifications of a user.
+	 *
+	 * @param username - the owner of the notifications
+	 * @return an array where [0]: the number of unread notifications, [1]: the newest notification id of the user (0 if none)
+	 */
+	public int[] GetUnreadNotificationCount(String username) {
+		Server.Log("Database", "Executing GetUnreadNotificationCount");
+		PreparedStatement stmt;
+		ResultSet rs;
+		try {
+			stmt = conn.prepareStatement("SELECT COALESCE(SUM(status = 'unread'), 0), COALESCE(MAX(notification_id), 0) FROM notifications WHERE user_id = ?");
+			stmt.setString(1, username);
+			rs = stmt.executeQuery();
+			if (rs.next())
+				return new int[] {rs.getInt(1), rs.getInt(2)};
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing GetUnreadNotificationCount: FAILED");
+			e.printStackTrace();
+		}
+		return new int[] {0, 0};
+	}
+
 	/**
 	 * Sets a notification state into "read".
 	 *
 	 * @param username - the owner of the notification
 	 * @param num the number of the notification
+	 * @return true, if the notification was unread
 	 */
-	public void UpdateNotification(String username, int num) {
+	public boolean UpdateNotification(String username, int num) {
 		PreparedStatement stmt = null;
 		try {
-			stmt = conn.prepareStatement("UPDATE notifications SET status = 'read' WHERE notification_id = ? ");
+			stmt = conn.prepareStatement("UPDATE notifications SET status = 'read' WHERE notification_id = ? AND user_id = ? AND status = 'unread'");
 			stmt.setInt(1, num);
-			stmt.executeUpdate();
+			stmt.setString(2, username);
+			return stmt.executeUpdate() > 0;
 		} catch (SQLException e1) {
 			e1.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Sets notifications of a user into "read", in a single statement.
+	 *
+	 * @param username - the owner of the notifications
+	 * @param nums the numbers of the notifications
+	 * @return true, if successful
+	 */
+	public boolean MarkNotificationsRead(String username, Collection<Integer> nums) {
+		Server.Log("Database", "Executing MarkNotificationsRead");
+		StringBuilder in = new StringBuilder();
+		for (int i = 0; i < nums.size(); i++)
+			in.append(i == 0 ? "?" : ",?");
+		try {
+			PreparedStatement stmt = conn.prepareStatement("UPDATE notifications SET status = 'read' WHERE user_id = ? AND notification_id IN (" + in + ")");
+			stmt.setString(1, username);
+			int index = 2;
+			for (Integer num : nums)
+				stmt.setInt(index++, num);
+			stmt.executeUpdate();
+			return true;
+		} catch (SQLException e) {
+			Server.Log("Database", "Executing MarkNotificationsRead: FAILED");
+			e.printStackTrace();
+			return false;
 		}
 	}
 	
 	/**
 	 * Send Notification, Adds a new notification allocated to a user.
 	 *
-	 * @param notification - Instance of notification alert with all the data
+	 * @param notification - Instance of notification alert with all the data, its number is set to the id of the added notification
+	 * @return true, if the notification was added
 	 */
-	public void SendNotification(NotificationInTable notification) {
+	public boolean SendNotification(NotificationInTable notification) {
 		Server.Log("Database", "Executing SendNotification");
 		PreparedStatement stmt = null;
 		try {
 			stmt = conn.prepareStatement("INSERT INTO notifications "
 					+ "(user_id, from_role, content, status) VALUES "
-					+ "(?, ?, ?, ?)");
+					+ "(?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
 		 	stmt.setString(1, notification.getTo());
 		 	stmt.setString(2, notification.getFrom());
 		 	stmt.setString(3, notification.getContent());
 			stmt.setString(4, "unread");
 		 	stmt.executeUpdate();
+		 	ResultSet keys = stmt.getGeneratedKeys();
+		 	if(keys.next())
+		 		notification.setNotificationnumber(keys.getInt(1));
 		} catch (SQLException e1) {
 			Server.Log("Database", "Executing SendNotification: FAILED");
 			e1.printStackTrace();
+			return false;
 		}
 		Server.Log("Database", "Executing SendNotification: SUCCESS");
+		return true;
 	}
 
 	/**
@@ -1301,29 +1716,46 @@ public class ServerConnSQL {
 	 * Insert an item to a catalog.
 	 *
 	 * @param data - an item entity data
+	 * @return the id of the new item, -1 if it was not inserted
 	 */
-	public void InsertItem(Item data)
+	public int InsertItem(Item data)
+	{
+		return InsertItem(data, data.getImage() == null ? null : new ByteArrayInputStream(data.getImage()), data.getImage() == null ? 0 : data.getImage().length);
+	}
+	
+	/**
+	 * Insert an item to a catalog, the image is streamed into the blob store as it is read and the row holds its hash.
+	 *
+	 * @param data - an item entity data
+	 * @param image the image of the item, null if none
+	 * @param imageSize the size in bytes of the image
+	 * @return the id of the new item, -1 if it was not inserted
+	 */
+	public int InsertItem(Item data, InputStream image, long imageSize)
 	{
 		Server.Log("Database", "Executing InsertItem");
 		PreparedStatement stmt;
 		try 
 		{
-			stmt = conn.prepareStatement("INSERT INTO Items (name,price,catalog_type,item_type,color,image,is_sale,salePrice) VALUES (?,?,?,?,?,?,?,?)");
+			String hash = image == null ? null : Server.Blobs.Put(image, false);
+			stmt = conn.prepareStatement("INSERT INTO Items (name,price,catalog_type,item_type,color,image,is_sale,salePrice,image_hash) VALUES (?,?,?,?,?,?,?,?,?)", Statement.RETURN_GENERATED_KEYS);
 			stmt.setString(1, data.getName());
 			stmt.setInt(2, data.getPrice());
 			stmt.setString(3, data.getCatalogType().toString());
 			stmt.setString(4, data.getItemType().toString());
 			stmt.setString(5, data.getColor().toString());
-			if(data.getImage() != null)
-				stmt.setBlob(6, new ByteArrayInputStream(data.getImage()));
-			else
-				stmt.setNull(6,Types.BLOB);
+			stmt.setNull(6,Types.BLOB);
 			stmt.setInt(7, data.isOnSale() ? 1 : 0);
 			stmt.setInt(8, data.getSalePrice());
+			stmt.setString(9, hash);
 			stmt.executeUpdate();
-		} catch (SQLException e) {e.printStackTrace();		
+			ResultSet keys = stmt.getGeneratedKeys();
+			if(keys.next())
+				return keys.getInt(1);
+		} catch (SQLException | IOException e) {e.printStackTrace();		
 		Server.Log("Database", "Executing InsertItem: FAILED");
 		}
+		return -1;
 	}
 
 /**
@@ -1339,7 +1771,7 @@ public class ServerConnSQL {
 		PreparedStatement stmt;
 		try 
 		{
-			stmt = conn.prepareStatement("SELECT report FROM reports WHERE date = ? AND is_monthly = ? AND branch = (SELECT branch_name FROM branch_employees WHERE user_id = ?) AND reportType = ?");
+			stmt = conn.prepareStatement("SELECT report_hash, report FROM reports WHERE date = ? AND is_monthly = ? AND branch = (SELECT branch_name FROM branch_employees WHERE user_id = ?) AND reportType = ?");
 			stmt.setDate(1, reportDate);
 			stmt.setInt(2, isMonthly? 1 : 0);
 			stmt.setString(3, requester);
@@ -1348,7 +1780,7 @@ public class ServerConnSQL {
 			if(res.next())
 			{
 				try {
-					return res.getBlob(1).getBinaryStream().readAllBytes();
+					return BlobContent(res.getString(1), res.getBlob(2));
 				} catch (IOException e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
@@ -1374,7 +1806,7 @@ public class ServerConnSQL {
 		PreparedStatement stmt;
 		try 
 		{
-			stmt = conn.prepareStatement("SELECT report FROM reports WHERE date = ? AND is_monthly = ? AND branch = ? AND reportType = ?");
+			stmt = conn.prepareStatement("SELECT report_hash, report FROM reports WHERE date = ? AND is_monthly = ? AND branch = ? AND reportType = ?");
 			stmt.setDate(1, reportDate);
 			stmt.setInt(2, isMonthly? 1 : 0);
 			stmt.setString(3, branch);
@@ -1383,7 +1815,7 @@ public class ServerConnSQL {
 			if(res.next())
 			{
 				try {
-					return res.getBlob(1).getBinaryStream().readAllBytes();
+					return BlobContent(res.getString(1), res.getBlob(2));
 				} catch (IOException e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
@@ -1405,22 +1837,116 @@ public class ServerConnSQL {
 	 * @param pdf the pdf file containing the actual report
 	 */
 	public void InsertReport(ReportType reportType, boolean isMonthly, String branch, Date reportDate,byte[] pdf) {
+		InsertReport(reportType, isMonthly, branch, reportDate, pdf, null);
+	}
+	
+	/**
+	 * Insert a report along with its first page preview and key figures.
+	 *
+	 * @param reportType the report type [income,order,quarterly,ceo]
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch to report is made on
+	 * @param reportDate the report date (month or quarter)
+	 * @param pdf the pdf file containing the actual report
+	 * @param totals the key figures of the report [can be null]
+	 */
+	public void InsertReport(ReportType reportType, boolean isMonthly, String branch, Date reportDate,byte[] pdf,String totals) {
 		Server.Log("Database", "Executing InsertReport");
 		PreparedStatement stmt;
 		try 
 		{
-			stmt = conn.prepareStatement("INSERT INTO reports (reportType,report,branch,is_monthly,date) VALUES (?,?,?,?,?)");
+			/*** kept plain, a streamed report is read in parts ***/
+			String hash = Server.Blobs.Put(new ByteArrayInputStream(pdf), false);
+			stmt = conn.prepareStatement("INSERT INTO reports (reportType,report,branch,is_monthly,date,report_hash) VALUES (?,?,?,?,?,?)");
 			stmt.setString(1, reportType.toString());
-			stmt.setBlob(2, new ByteArrayInputStream(pdf));
+			stmt.setBytes(2, new byte[0]);
 			stmt.setString(3, branch);
 			stmt.setInt(4, isMonthly? 1:0);
 			stmt.setDate(5, reportDate);
+			stmt.setString(6, hash);
 			stmt.executeUpdate();
-		} catch (SQLException e) {e.printStackTrace();	
+		} catch (SQLException | IOException e) {e.printStackTrace();	
 		Server.Log("Database", "Executing InsertReport: FAILED");
+		return;
+		}
+		InsertReportPreview(reportType, isMonthly, branch, reportDate, PreviewGenerator.createPreview(pdf), totals);
+	}
+	
+	/**
+	 * Insert (or replace) the preview of a report.
+	 *
+	 * @param reportType the report type [income,order,quarterly,ceo]
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch to report is made on
+	 * @param reportDate the report date (month or quarter)
+	 * @param preview the first page preview as png [null if it could not be rendered, stored as an empty preview so it is not rendered again]
+	 * @param totals the key figures of the report [can be null]
+	 */
+	private void InsertReportPreview(ReportType reportType, boolean isMonthly, String branch, Date reportDate,byte[] preview,String totals) {
+		PreparedStatement stmt;
+		try 
+		{
+			stmt = conn.prepareStatement("REPLACE INTO report_previews (reportType,branch,is_monthly,date,preview,totals) VALUES (?,?,?,?,?,?)");
+			stmt.setString(1, reportType.toString());
+			stmt.setString(2, branch);
+			stmt.setInt(3, isMonthly? 1:0);
+			stmt.setDate(4, reportDate);
+			stmt.setBlob(5, new ByteArrayInputStream(preview != null ? preview : new byte[0]));
+			stmt.setString(6, totals);
+			stmt.executeUpdate();
+		} catch (SQLException e) {e.printStackTrace();	
+		Server.Log("Database", "Executing InsertReportPreview: FAILED");
 		}
 	}
 	
+	/**
+	 * Gets the previews of all the reports of a branch within a period,
+	 * reports that were stored before previews existed get their preview rendered once here,
+	 * a preview that could not be rendered is stored empty and listed without an image.
+	 *
+	 * @param isMonthly - true: monthly, false: quarterly
+	 * @param branch the branch the reports were made on
+	 * @param from the first report date (inclusive)
+	 * @param to the last report date (inclusive)
+	 * @return the report previews, ordered by date
+	 */
+	public ArrayList<ReportPreview> GetReportPreviews(boolean isMonthly, String branch, Date from, Date to) {
+		Server.Log("Database", "Executing GetReportPreviews");
+		ArrayList<ReportPreview> previews = new ArrayList<>();
+		ArrayList<ReportPreview> missing = new ArrayList<>();
+		PreparedStatement stmt;
+		try 
+		{
+			stmt = conn.prepareStatement("SELECT r.reportType, r.date, p.preview, p.totals FROM reports r LEFT JOIN report_previews p "
+					+ "ON p.branch = r.branch AND p.is_monthly = r.is_monthly AND p.date = r.date AND p.reportType = r.reportType "
+					+ "WHERE r.branch = ? AND r.is_monthly = ? AND r.date BETWEEN ? AND ? ORDER BY r.date, r.reportType");
+			stmt.setString(1, branch);
+			stmt.setInt(2, isMonthly? 1 : 0);
+			stmt.setDate(3, from);
+			stmt.setDate(4, to);
+			ResultSet rs = stmt.executeQuery();
+			while(rs.next())
+			{
+				Blob preview = rs.getBlob(3);
+				ReportPreview reportPreview = new ReportPreview(ReportType.valueOf(rs.getString(1)), isMonthly, branch, rs.getDate(2).toLocalDate(),
+						preview == null || preview.length() == 0 ? null : preview.getBytes(1, (int)preview.length()), rs.getString(4));
+				if(preview == null)
+					missing.add(reportPreview);
+				previews.add(reportPreview);
+			}
+		} catch (SQLException e) {e.printStackTrace();	
+		Server.Log("Database", "Executing GetReportPreviews: FAILED");
+		}
+		for(ReportPreview reportPreview : missing)
+		{
+			Date reportDate = Date.valueOf(reportPreview.getDate());
+			reportPreview.setPreview(PreviewGenerator.createPreview(
+					GetReportOfBranch(reportPreview.getReportType(), isMonthly, branch, reportDate)));
+			InsertReportPreview(reportPreview.getReportType(), isMonthly, branch, reportDate, reportPreview.getPreview(), reportPreview.getTotals());
+		}
+		return previews;
+	}
+	
 	/**
 	 * Gets the daily financial income for a branch.
 	 *
@@ -1439,16 +1965,22 @@ public class ServerConnSQL {
 		try 
 		{
 			//NET = [Orders Completed]COMPLETED + [Order Cancelled](CANCEL_PRICE - CANCEL_REFUNDS)
-			stmt = conn.prepareStatement("SELECT SUM(total_price) FROM orders WHERE status = 'completed' AND branch_name = ? AND DATE(order_date) = ?");
+			stmt = conn.prepareStatement("SELECT SUM(price) FROM (SELECT SUM(total_price) AS price FROM orders WHERE status = 'completed' AND branch_name = ? AND DATE(order_date) = ? "
+					+ "UNION ALL SELECT SUM(total_price) FROM orders_archive WHERE status = 'completed' AND branch_name = ? AND DATE(order_date) = ?) sides");
 			stmt.setString(1, branch);
 			stmt.setDate(2,date);
+			stmt.setString(3, branch);
+			stmt.setDate(4,date);
 			rs = stmt.executeQuery();
 			while (rs.next()) {
 				records[0] = rs.getInt(1);
 			}
-			stmt = conn.prepareStatement("SELECT SUM(total_price)-SUM(refund_zerli) FROM orders WHERE branch_name = ? AND status = 'canceled' AND DATE(order_date) = ?");
+			stmt = conn.prepareStatement("SELECT SUM(price)-SUM(refund) FROM (SELECT SUM(total_price) AS price, SUM(refund_zerli) AS refund FROM orders WHERE branch_name = ? AND status = 'canceled' AND DATE(order_date) = ? "
+					+ "UNION ALL SELECT SUM(total_price), SUM(refund_zerli) FROM orders_archive WHERE branch_name = ? AND status = 'canceled' AND DATE(order_date) = ?) sides");
 			stmt.setString(1, branch);
 			stmt.setDate(2,date);
+			stmt.setString(3, branch);
+			stmt.setDate(4,date);
 			rs = stmt.executeQuery();
 			while (rs.next()) {
 				records[1] = rs.getInt(1);
@@ -1481,11 +2013,16 @@ public class ServerConnSQL {
 		{
 			
 			/*stmt = conn.prepareStatement("SELECT COUNT(distinct order_id) FROM order_item WHERE item_id IN (SELECT item_id FROM items WHERE item_type = ?) AND order_id IN (SELECT order_id FROM orders WHERE DATE(order_date) BETWEEN CAST('2022-04-01' AS DATE) AND CAST('2022-04-31' AS DATE))");*/
-			stmt = conn.prepareStatement("SELECT COUNT(order_id) FROM order_item WHERE item_id IN (SELECT item_id FROM items WHERE item_type = ?) AND order_id IN (SELECT order_id FROM orders WHERE DATE(order_date) BETWEEN ? AND ? AND branch_name = ?)");
-			stmt.setString(1, t.toString());
-			stmt.setDate(2,a);
-			stmt.setDate(3, b);
-			stmt.setString(4, branch);
+			/*** an archived order is archived along with its items, each side is counted against its own orders ***/
+			stmt = conn.prepareStatement("SELECT SUM(count) FROM (SELECT COUNT(order_id) AS count FROM order_item WHERE item_id IN (SELECT item_id FROM items WHERE item_type = ?) AND order_id IN (SELECT order_id FROM orders WHERE DATE(order_date) BETWEEN ? AND ? AND branch_name = ?) "
+					+ "UNION ALL SELECT COUNT(order_id) FROM order_item_archive WHERE item_id IN (SELECT item_id FROM items WHERE item_type = ?) AND order_id IN (SELECT order_id FROM orders_archive WHERE DATE(order_date) BETWEEN ? AND ? AND branch_name = ?)) sides");
+			for(int side = 0; side < 2; side++)
+			{
+				stmt.setString(1 + side * 4, t.toString());
+				stmt.setDate(2 + side * 4, a);
+				stmt.setDate(3 + side * 4, b);
+				stmt.setString(4 + side * 4, branch);
+			}
 			ResultSet res = stmt.executeQuery();
 			if(res.next())
 			{
@@ -1562,17 +2099,15 @@ public class ServerConnSQL {
 	/**
 	 * Gets the complaints of a certain handler in status pending.
 	 *
-	 * @param complaints the complaints collection to be altered
+	 * @param complaints receives the complaints as they are read
 	 * @param handler the customer service employee who took the complaint
 	 */
-	public void GetComplaints(ArrayList<Complaint> complaints,String handler)
+	public void GetComplaints(Consumer<Complaint> complaints,String handler)
 	{
 		Server.Log("Database", "Executing GetComplaints");
-		PreparedStatement stmt;
 		ResultSet rs;
-		try
+		try (PreparedStatement stmt = Cursor("SELECT * FROM complaints WHERE response = 'pending' AND handler = ?"))
 		{
-			stmt = conn.prepareStatement("SELECT * FROM complaints WHERE response = 'pending' AND handler = ?");
 			stmt.setString(1, handler);
 			rs=stmt.executeQuery();
 			while(rs.next())
@@ -1584,7 +2119,7 @@ public class ServerConnSQL {
 				newComplaint.setComplain_time(rs.getTimestamp(5));
 				newComplaint.setBranch(rs.getString(7));
 				newComplaint.setIsNotNotified(rs.getInt(9));
-				complaints.add(newComplaint);
+				complaints.accept(newComplaint);
 			}
 		}
 		catch (SQLException e) {
@@ -1652,6 +2187,34 @@ public class ServerConnSQL {
 			Server.Log("Database", "Executing SetComplaintAlerted: FAILED");
 		}
 	}
+
+	/**
+	 * Sets complaints as alerted, in a single batch.
+	 *
+	 * @param ids the complaint ids
+	 * @return true, if successful
+	 */
+	public boolean SetComplaintsAlerted(Collection<Integer> ids)
+	{
+		Server.Log("Database", "Executing SetComplaintsAlerted");
+		try
+		{
+			PreparedStatement stmt = conn.prepareStatement("UPDATE complaints SET open = 0 WHERE complaint_id = ?");
+			for(Integer id : ids)
+			{
+				stmt.setInt(1, id);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+			return true;
+		}
+		catch(SQLException e)
+		{
+			e.printStackTrace();
+			Server.Log("Database", "Executing SetComplaintsAlerted: FAILED");
+			return false;
+		}
+	}
 	
 	/**
 	 * Issues a response to a complaint.
@@ -1776,23 +2339,21 @@ public class ServerConnSQL {
 	/**
 	 * Gets all of the customers information.
 	 *
-	 * @param customers the customers collection to be altered
+	 * @param customers receives the customers as they are read
 	 */
-	public void getAllCustomersInfo(ArrayList<AccountInfo> customers) {
+	public void getAllCustomersInfo(Consumer<AccountInfo> customers) {
 		Server.Log("Database", "Executing getAllCustomersInfo");
-		PreparedStatement stmt;
 		ResultSet rs;
-		try 
-		{
-			stmt = conn.prepareStatement("SELECT ud.user_id , ud.first_name , ud.last_name , ud.id , ld.access "
+		try (PreparedStatement stmt = Cursor("SELECT ud.user_id , ud.first_name , ud.last_name , ud.id , ld.access "
 					+ "FROM user_details ud,login_details ld "
-					+ "WHERE ud.user_id = ld.user_id AND ud.role = 'customer'");
+					+ "WHERE ud.user_id = ld.user_id AND ud.role = 'customer'"))
+		{
 			rs = stmt.executeQuery();
 			while (rs.next()) {
 				AccountInfo accountinfo = new AccountInfo(rs.getString(1), rs.getString(2), 
 						rs.getString(3), rs.getString(4));
 				accountinfo.setAccess(Access.valueOf(rs.getString(5)));
-				customers.add(accountinfo);
+				customers.accept(accountinfo);
 			}
 			
 		} 
@@ -1808,28 +2369,25 @@ public class ServerConnSQL {
 	/**
 	 * Gets all of the employees info.
 	 *
-	 * @param employees the employees collection to be altered
-	 * @param managerUserID the user id of the manager who asks the information
+	 * @param employees receives the employees as they are read
+	 * @param branch the branch of the manager who asks the information
 	 */
-	public void getAllEmployeesInfo(ArrayList<AccountInfo> employees,String managerUserID) {
+	public void getAllEmployeesInfo(Consumer<AccountInfo> employees,String branch) {
 		Server.Log("Database", "Executing getAllEmployeesInfo");
-		PreparedStatement stmt;
 		ResultSet rs;
-		try 
-		{
-			
-			stmt = conn.prepareStatement("SELECT ud.user_id , ud.first_name , ud.last_name , ud.id , ud.role "
+		try (PreparedStatement stmt = Cursor("SELECT ud.user_id , ud.first_name , ud.last_name , ud.id , ud.role "
 					+ "FROM user_details ud, login_details ld , branch_employees be "
 					+ "WHERE ud.role != 'customer' AND ud.role != 'manager' AND ud.role != 'ceo' "
 					+ "AND ud.user_id = ld.user_id AND ud.user_id = be.user_id "
-					+ "AND be.branch_name = (SELECT branch_name FROM branch_employees WHERE user_id = ?)");
-			stmt.setString(1, managerUserID);
+					+ "AND be.branch_name = ?"))
+		{
+			stmt.setString(1, branch);
 			rs = stmt.executeQuery();
 			while (rs.next()) {
 				AccountInfo accountinfo = new AccountInfo(rs.getString(1), rs.getString(2), 
 						rs.getString(3), rs.getString(4));
 				accountinfo.setRole(Roles.valueOf(rs.getString(5)));
-				employees.add(accountinfo);
+				employees.accept(accountinfo);
 			}
 		} 
 		catch (SQLException e) 
@@ -1840,6 +2398,91 @@ public class ServerConnSQL {
 		Server.Log("Database", "Executing getAllEmployeesInfo: SUCCESS");
 	}
 
+	/**
+	 * Searches the customer or employee accounts, a page at a time ordered by user id.
+	 * The search text is matched as a prefix of the user id, first name, last name and national id, each through its own index,
+	 * and a page starts right after the user id of the previous one, so every page costs the same however many accounts there are.
+	 *
+	 * @param query the search text, filters and cursor
+	 * @param pageSize the page size
+	 * @param branch the branch the employees are searched in, not used for customers
+	 * @return the page of matching accounts, null if failed
+	 */
+	public AccountPage SearchAccounts(AccountQuery query, int pageSize, String branch) {
+		Server.Log("Database", "Executing SearchAccounts");
+		StringBuilder sql = new StringBuilder("SELECT ud.user_id , ud.first_name , ud.last_name , ud.id , ld.access , ud.role "
+				+ "FROM user_details ud JOIN login_details ld ON ud.user_id = ld.user_id ");
+		ArrayList<Object> args = new ArrayList<>();
+		String text = query.getText() == null ? "" : query.getText().trim();
+		if(!text.isEmpty())
+		{
+			/*** each prefix match is an index range, the union holds only the matching user ids ***/
+			String prefix = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+			sql.append("JOIN (SELECT user_id FROM user_details WHERE user_id LIKE ? "
+					+ "UNION SELECT user_id FROM user_details WHERE first_name LIKE ? "
+					+ "UNION SELECT user_id FROM user_details WHERE last_name LIKE ? "
+					+ "UNION SELECT user_id FROM user_details WHERE id LIKE ?) m ON m.user_id = ud.user_id ");
+			for(int i = 0; i < 4; i++)
+				args.add(prefix);
+		}
+		if(query.isEmployees())
+		{
+			sql.append("JOIN branch_employees be ON be.user_id = ud.user_id AND be.branch_name = ? "
+					+ "WHERE ud.role != 'customer' AND ud.role != 'manager' AND ud.role != 'ceo' ");
+			args.add(branch);
+			if(query.getRole() != null)
+			{
+				sql.append("AND ud.role = ? ");
+				args.add(query.getRole().toString());
+			}
+		}
+		else
+		{
+			sql.append("WHERE ud.role = 'customer' ");
+			if(query.getAccess() != null)
+			{
+				sql.append("AND ld.access = ? ");
+				args.add(query.getAccess().toString());
+			}
+		}
+		if(query.getAfter() != null)
+		{
+			sql.append("AND ud.user_id > ? ");
+			args.add(query.getAfter());
+		}
+		sql.append("ORDER BY ud.user_id LIMIT ?");
+		args.add(pageSize + 1);
+		ArrayList<AccountInfo> accounts = new ArrayList<>();
+		try
+		{
+			PreparedStatement stmt = conn.prepareStatement(sql.toString());
+			for(int i = 0; i < args.size(); i++)
+				stmt.setObject(i + 1, args.get(i));
+			ResultSet rs = stmt.executeQuery();
+			while (rs.next()) {
+				AccountInfo accountinfo = new AccountInfo(rs.getString(1), rs.getString(2), 
+						rs.getString(3), rs.getString(4));
+				accountinfo.setAccess(Access.valueOf(rs.getString(5)));
+				accountinfo.setRole(Roles.valueOf(rs.getString(6)));
+				accounts.add(accountinfo);
+			}
+		} 
+		catch (SQLException e) 
+		{
+			e.printStackTrace();
+			Server.Log("Database", "Executing SearchAccounts: FAILED");
+			return null;
+		}
+		/*** the extra row only tells there is a next page ***/
+		String next = null;
+		if(accounts.size() > pageSize)
+		{
+			accounts.remove(pageSize);
+			next = accounts.get(pageSize - 1).getUserID();
+		}
+		return new AccountPage(accounts, next);
+	}
+
 	/**
 	 * Update a customer's account access level.
 	 *
@@ -1982,29 +2625,222 @@ public class ServerConnSQL {
 	 * @param survey the survey with the answers
 	 */
 	public void SaveSurveyAnswers(Survey survey) {
-		Server.Log("Database", "Executing Save Survey Answers");
-		PreparedStatement stmt;
+		SaveSurveyAnswers(Map.of(UUID.randomUUID().toString(), survey), null);
+	}
+
+	/**
+	 * Save the answers of several surveys, in a single batch.
+	 * Every survey is saved once under its answer key, a survey whose key was saved already is skipped,
+	 * so surveys saved again after a crash are neither inserted nor counted twice.
+	 * When the batch fails the surveys are saved one at a time, so a survey the database refuses does not hold back the others.
+	 *
+	 * @param surveys the filled surveys, mapped by answer key
+	 * @param refused receives the keys of the surveys the database refused for their data, these never save [can be null]
+	 * @return true, if all the surveys but the refused ones are saved
+	 */
+	public boolean SaveSurveyAnswers(Map<String, Survey> surveys, Collection<String> refused) {
+		Server.Log("Database", "Executing Save Survey Answers batch");
+		synchronized (HistogramLock) {
+		Map<String, Survey> unsaved;
 		try 
 		{
-			
-				stmt = conn.prepareStatement("insert into midproject.surveys_questions ( survey_id,survey_content,answer_for_question_1,answer_for_question_2,answer_for_question_3,answer_for_question_4,answer_for_question_5,answer_for_question_6) values(?,?,?,?,?,?,?,?)");
-				
-				stmt.setInt(1, survey.getId());
-				stmt.setString(2, survey.getContent());
-				stmt.setInt(3, survey.getAnswers()[0]);
-				stmt.setInt(4, survey.getAnswers()[1]);
-				stmt.setInt(5, survey.getAnswers()[2]);
-				stmt.setInt(6, survey.getAnswers()[3]);
-				stmt.setInt(7, survey.getAnswers()[4]);
-				stmt.setInt(8, survey.getAnswers()[5]);
-				stmt.executeUpdate();
-	
+			unsaved = UnsavedSurveyAnswers(surveys);
+			if(unsaved.isEmpty())
+				return true;
+			InsertSurveyAnswers(unsaved);
 		} catch (SQLException e) 
 		{
 			e.printStackTrace();
-			Server.Log("Database", "Executing Save Survey Answers: FAILED");
-		}		
-		Server.Log("Database", "Executing Save Survey Answers: SUCCESS");
+			Server.Log("Database", "Executing Save Survey Answers batch: FAILED");
+			return SaveSurveyAnswersOneByOne(surveys, refused);
+		}
+		CountSurveyAnswers(unsaved.values());
+		return true;
+		}
+	}
+
+	/**
+	 * Saves the surveys of a failed batch one at a time, must be called under the histogram lock.
+	 * Surveys the batch saved before it failed are only counted.
+	 *
+	 * @param surveys the surveys of the batch, mapped by answer key
+	 * @param refused receives the keys of the surveys the database refused [can be null]
+	 * @return true, if all the surveys but the refused ones are saved
+	 */
+	private boolean SaveSurveyAnswersOneByOne(Map<String, Survey> surveys, Collection<String> refused) {
+		Map<String, Survey> unsaved;
+		try 
+		{
+			unsaved = UnsavedSurveyAnswers(surveys);
+		} catch (SQLException e) 
+		{
+			return false;
+		}
+		ArrayList<Survey> saved = new ArrayList<>();
+		for (Map.Entry<String, Survey> survey : surveys.entrySet())
+			if(!unsaved.containsKey(survey.getKey()))
+				saved.add(survey.getValue());
+		boolean result = true;
+		for (Map.Entry<String, Survey> survey : unsaved.entrySet()) {
+			try 
+			{
+				InsertSurveyAnswers(Map.of(survey.getKey(), survey.getValue()));
+				saved.add(survey.getValue());
+			} catch (SQLException e) 
+			{
+				if(e instanceof SQLIntegrityConstraintViolationException || e instanceof SQLDataException || e instanceof DataTruncation)
+				{
+					Server.Log("Database", "Survey answers " + survey.getKey() + " of survey " + survey.getValue().getId() + " refused: " + e.getMessage());
+					if(refused != null)
+						refused.add(survey.getKey());
+				}
+				else
+					result = false;
+			}
+		}
+		if(!saved.isEmpty())
+			CountSurveyAnswers(saved);
+		return result;
+	}
+
+	/**
+	 * Leaves out the surveys whose answer key was saved already.
+	 *
+	 * @param surveys the surveys, mapped by answer key
+	 * @return the surveys that are not saved yet, mapped by answer key
+	 * @throws SQLException the SQL exception
+	 */
+	private Map<String, Survey> UnsavedSurveyAnswers(Map<String, Survey> surveys) throws SQLException {
+		HashSet<String> saved = new HashSet<>();
+		StringBuilder keys = new StringBuilder();
+		for (int i = 0; i < surveys.size(); i++)
+			keys.append(i == 0 ? "?" : ",?");
+		PreparedStatement stmt = conn.prepareStatement("SELECT answer_key FROM midproject.surveys_questions WHERE answer_key IN (" + keys + ")");
+		int i = 1;
+		for (String key : surveys.keySet())
+			stmt.setString(i++, key);
+		ResultSet rs = stmt.executeQuery();
+		while (rs.next())
+			saved.add(rs.getString(1));
+		LinkedHashMap<String, Survey> unsaved = new LinkedHashMap<>(surveys);
+		unsaved.keySet().removeAll(saved);
+		return unsaved;
+	}
+
+	/**
+	 * Inserts the answers of several surveys in a single batch.
+	 *
+	 * @param surveys the surveys, mapped by answer key
+	 * @throws SQLException the SQL exception
+	 */
+	private void InsertSurveyAnswers(Map<String, Survey> surveys) throws SQLException {
+		PreparedStatement stmt = conn.prepareStatement("insert into midproject.surveys_questions ( answer_key,survey_id,survey_content,answer_for_question_1,answer_for_question_2,answer_for_question_3,answer_for_question_4,answer_for_question_5,answer_for_question_6) values(?,?,?,?,?,?,?,?,?)");
+		for (Map.Entry<String, Survey> survey : surveys.entrySet()) {
+			stmt.setString(1, survey.getKey());
+			stmt.setInt(2, survey.getValue().getId());
+			stmt.setString(3, survey.getValue().getContent());
+			for (int i = 0; i < 6; i++)
+				stmt.setInt(4 + i, survey.getValue().getAnswers()[i]);
+			stmt.addBatch();
+		}
+		stmt.executeBatch();
+	}
+
+	/**
+	 * Adds the answers of several surveys to the histogram counters, one update per bucket that changed.
+	 * A survey whose counters were not built yet is skipped, its counters are built from all of its answers on the first read.
+	 *
+	 * @param surveys the filled surveys that were saved
+	 */
+	private void CountSurveyAnswers(Collection<Survey> surveys) {
+		HashMap<String, int[]> buckets = new HashMap<>();
+		for (Survey survey : surveys)
+			for (int i = 0; i < 6; i++) {
+				int answer = survey.getAnswers()[i];
+				if(answer >= 1 && answer <= 10)
+					buckets.computeIfAbsent(survey.getId() + ":" + (i + 1) + ":" + answer, k -> new int[1])[0]++;
+			}
+		try 
+		{
+			PreparedStatement stmt = conn.prepareStatement("UPDATE survey_histograms SET count = count + ? WHERE survey_id = ? AND question = ? AND answer = ?");
+			for (Map.Entry<String, int[]> bucket : buckets.entrySet()) {
+				String[] key = bucket.getKey().split(":");
+				stmt.setInt(1, bucket.getValue()[0]);
+				stmt.setInt(2, Integer.parseInt(key[0]));
+				stmt.setInt(3, Integer.parseInt(key[1]));
+				stmt.setInt(4, Integer.parseInt(key[2]));
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		} catch (SQLException e) 
+		{
+			/*** the answers are saved, the counters of these surveys are rebuilt on their next read ***/
+			e.printStackTrace();
+			Server.Log("Database", "Executing Count Survey Answers: FAILED");
+			for (Survey survey : surveys)
+				DropSurveyHistogram(survey.getId());
+		}
+	}
+
+	/**
+	 * Drops the histogram counters of a survey, so they are rebuilt from its answers on the next read.
+	 *
+	 * @param surveyId the survey id
+	 */
+	private void DropSurveyHistogram(int surveyId) {
+		try 
+		{
+			PreparedStatement stmt = conn.prepareStatement("DELETE FROM survey_histograms WHERE survey_id = ?");
+			stmt.setInt(1, surveyId);
+			stmt.executeUpdate();
+		} catch (SQLException e) 
+		{
+			e.printStackTrace();
+			Server.Log("Database", "Executing Drop Survey Histogram: FAILED");
+		}
+	}
+
+	/**
+	 * Rebuilds the histogram counters of a survey from all of its answers.
+	 * Used for the surveys that were answered before the counters existed, or whose counters failed to update.
+	 *
+	 * @param surveyId the survey id
+	 * @param listOfSurveyAnswers the counters to fill, 6 questions of 10 answers
+	 * @return true, if successful
+	 */
+	public boolean RebuildSurveyHistogram(int surveyId, ArrayList<int[]> listOfSurveyAnswers) {
+		Server.Log("Database", "Executing Rebuild Survey Histogram");
+		synchronized (HistogramLock) {
+		try 
+		{
+			PreparedStatement stmt = conn.prepareStatement("SELECT answer_for_question_1,answer_for_question_2,answer_for_question_3,answer_for_question_4,answer_for_question_5,answer_for_question_6 FROM midproject.surveys_questions where survey_id=?");
+			stmt.setInt(1, surveyId);
+			ResultSet rs = stmt.executeQuery();
+			while(rs.next())
+				for (int i = 0; i < 6; i++) {
+					int answer = rs.getInt(i + 1);
+					if(answer >= 1 && answer <= 10)
+						listOfSurveyAnswers.get(i)[answer - 1]++;
+				}
+			stmt = conn.prepareStatement("REPLACE INTO survey_histograms (survey_id, question, answer, count) VALUES " 
+					+ String.join(",", Collections.nCopies(60, "(?,?,?,?)")));
+			int index = 1;
+			for (int i = 0; i < 6; i++)
+				for (int j = 0; j < 10; j++) {
+					stmt.setInt(index++, surveyId);
+					stmt.setInt(index++, i + 1);
+					stmt.setInt(index++, j + 1);
+					stmt.setInt(index++, listOfSurveyAnswers.get(i)[j]);
+				}
+			stmt.executeUpdate();
+			return true;
+		} catch (SQLException e) 
+		{
+			e.printStackTrace();
+			Server.Log("Database", "Executing Rebuild Survey Histogram: FAILED");
+			return false;
+		}
+		}
 	}
 
 	/**
@@ -2021,19 +2857,22 @@ public class ServerConnSQL {
 		ResultSet rs;
 		try 
 		{
-			stmt = conn.prepareStatement("SELECT survey_content,answer_for_question_1,answer_for_question_2,answer_for_question_3,answer_for_question_4,answer_for_question_5,answer_for_question_6 FROM midproject.surveys_questions where survey_id=?");
+			/*** 60 counters instead of all of the answers ***/
+			stmt = conn.prepareStatement("SELECT s.survey_content, h.question, h.answer, h.count FROM midproject.surveys s "
+					+ "LEFT JOIN survey_histograms h ON h.survey_id = s.survey_id WHERE s.survey_id=?");
 			stmt.setInt(1,survey.getId());
 			rs = stmt.executeQuery();
+			boolean built = false;
 			while(rs.next())
 			{
 				survey.setContent(rs.getString(1));
-				listOfSurveyAnswers.get(0)[rs.getInt(2)-1]++;
-				listOfSurveyAnswers.get(1)[rs.getInt(3)-1]++;
-				listOfSurveyAnswers.get(2)[rs.getInt(4)-1]++;
-				listOfSurveyAnswers.get(3)[rs.getInt(5)-1]++;
-				listOfSurveyAnswers.get(4)[rs.getInt(6)-1]++;
-				listOfSurveyAnswers.get(5)[rs.getInt(7)-1]++;
+				if(rs.getObject(2) == null)
+					continue;
+				built = true;
+				listOfSurveyAnswers.get(rs.getInt(2)-1)[rs.getInt(3)-1] = rs.getInt(4);
 			}
+			if(!built)
+				RebuildSurveyHistogram(survey.getId(), listOfSurveyAnswers);
 		} catch (SQLException e) 
 		{
 			e.printStackTrace(); 
@@ -2052,19 +2891,35 @@ public class ServerConnSQL {
 	 * @param the pdfs byte data
 	 */
 	public void SavePDF(String userName, Survey survey,ArrayList<byte[]> Data) {
+		SavePDF(userName, survey, new ByteArrayInputStream(Data.get(0)), Data.get(0).length, new ByteArrayInputStream(Data.get(1)), Data.get(1).length);
+	}
+
+	/**
+	 * Save PDF, the pdf files are streamed into the blob store as they are read and the row holds their hashes.
+	 *
+	 * @param userName the expert's username
+	 * @param survey the survey that the pdf report is allocated to
+	 * @param histogram the pdf with the survey answers
+	 * @param histogramSize the size in bytes of the pdf with the survey answers
+	 * @param expert the pdf of the expert
+	 * @param expertSize the size in bytes of the pdf of the expert
+	 */
+	public void SavePDF(String userName, Survey survey, InputStream histogram, long histogramSize, InputStream expert, long expertSize) {
 		Server.Log("Database", "Executing Save PDF");
 		PreparedStatement stmt;
 		try 
 		{
-			//Set PDF survey result
-			Blob blob1 = new javax.sql.rowset.serial.SerialBlob(Data.get(1));//expertPDF
-			Blob blob2 = new javax.sql.rowset.serial.SerialBlob(Data.get(0));//histoframPDF
-			stmt = conn.prepareStatement("insert into midproject.pdf_from_expert (survey_id,expert_name,survey_content,pdf_file_from_expert,pdf_with_survey_answers) values(?,?,?,?,?)");
+			/*** kept plain, the pdfs are streamed in parts ***/
+			String expertHash = Server.Blobs.Put(expert, false);
+			String answersHash = Server.Blobs.Put(histogram, false);
+			stmt = conn.prepareStatement("insert into midproject.pdf_from_expert (survey_id,expert_name,survey_content,pdf_file_from_expert,pdf_with_survey_answers,expert_hash,answers_hash) values(?,?,?,?,?,?,?)");
 			stmt.setInt(1, survey.getId());
 			stmt.setString(2,userName);
 			stmt.setString(3,survey.getContent());
-			stmt.setBlob(4, blob1);
-			stmt.setBlob(5, blob2);
+			stmt.setBytes(4, new byte[0]);
+			stmt.setBytes(5, new byte[0]);
+			stmt.setString(6, expertHash);
+			stmt.setString(7, answersHash);
 			stmt.executeUpdate();
 			
 			//Set ready to original survey
@@ -2131,14 +2986,14 @@ public class ServerConnSQL {
 		PreparedStatement stmt = null;
 		ResultSet rs;
 		try {
-			stmt = conn.prepareStatement("SELECT pdf_file_from_expert,pdf_with_survey_answers FROM midproject.pdf_from_expert WHERE survey_content = ?");
+			stmt = conn.prepareStatement("SELECT expert_hash,pdf_file_from_expert,answers_hash,pdf_with_survey_answers FROM midproject.pdf_from_expert WHERE survey_content = ?");
            	stmt.setString(1, content);
 			rs = stmt.executeQuery();
            	while(rs.next()) {
            		try
            		{
-           			pdfs.add(rs.getBlob(1).getBinaryStream().readAllBytes());
-           			pdfs.add(rs.getBlob(2).getBinaryStream().readAllBytes());
+           			pdfs.add(BlobContent(rs.getString(1), rs.getBlob(2)));
+           			pdfs.add(BlobContent(rs.getString(3), rs.getBlob(4)));
            		}
            		catch(Exception e)
            		{
@@ -2155,6 +3010,101 @@ public class ServerConnSQL {
 		return pdfs;
 	}
 	
+	/**
+	 * Reads a part of a large file, only that part is read from the blob store (or from the database, until moved).
+	 *
+	 * @param target the file kind
+	 * @param key the key of the file, see StreamTarget
+	 * @param offset the offset of the part in the file
+	 * @param length the length of the part
+	 * @return the part, shorter than the length at the end of the file, null if there is no such file
+	 */
+	public byte[] ReadStreamChunk(StreamTarget target, Object[] key, long offset, int length)
+	{
+		Server.Log("Database", "Executing ReadStreamChunk");
+		try {
+			PreparedStatement stmt;
+			switch (target) {
+			case Report:
+				stmt = conn.prepareStatement("SELECT report_hash, IF(report_hash IS NULL, SUBSTRING(report, ?, ?), NULL) FROM reports WHERE reportType = ? AND is_monthly = ? AND branch = ? AND date = ?");
+				stmt.setString(3, key[0].toString());
+				stmt.setInt(4, (boolean)key[1] ? 1 : 0);
+				stmt.setString(5, (String)key[2]);
+				stmt.setDate(6, Date.valueOf((java.time.LocalDate)key[3]));
+				break;
+			case ExpertSummary:
+			case SurveyResults:
+				String column = target == StreamTarget.ExpertSummary ? "pdf_file_from_expert" : "pdf_with_survey_answers";
+				String hash = target == StreamTarget.ExpertSummary ? "expert_hash" : "answers_hash";
+				stmt = conn.prepareStatement("SELECT " + hash + ", IF(" + hash + " IS NULL, SUBSTRING(" + column 
+						+ ", ?, ?), NULL) FROM midproject.pdf_from_expert WHERE survey_id = ?");
+				stmt.setInt(3, (int)key[0]);
+				break;
+			default:
+				return null;
+			}
+			stmt.setLong(1, offset + 1);
+			stmt.setInt(2, length);
+			ResultSet rs = stmt.executeQuery();
+			if(rs.next())
+				return rs.getString(1) != null ? Server.Blobs.Read(rs.getString(1), offset, length) : rs.getBytes(2);
+		}catch (SQLException e) 
+		{
+			e.printStackTrace();
+			Server.Log("Database", "Executing ReadStreamChunk: FAILED");
+		}
+		return null;
+	}
+	
+	/**
+	 * Moves the files of a column into the blob store, one row at a time.
+	 * Once a file is stored its hash is set and the column is emptied, in a single update
+	 * that only applies while the row was not moved meanwhile.
+	 *
+	 * @param table the table
+	 * @param keyColumn the key column of the table
+	 * @param column the file column
+	 * @param hashColumn the hash column of the file column
+	 * @param compress whether the files are compressed in the store
+	 * @return the number of files moved
+	 */
+	public int MoveBlobsToStore(String table, String keyColumn, String column, String hashColumn, boolean compress)
+	{
+		Server.Log("Database", "Executing MoveBlobsToStore " + table + "." + column);
+		ArrayList<Object> keys = new ArrayList<>();
+		int moved = 0;
+		try {
+			ResultSet rs = conn.prepareStatement("SELECT " + keyColumn + " FROM " + table + " WHERE " + hashColumn + " IS NULL AND OCTET_LENGTH(" + column + ") > 0").executeQuery();
+			while(rs.next())
+				keys.add(rs.getObject(1));
+			PreparedStatement read = conn.prepareStatement("SELECT " + column + " FROM " + table + " WHERE " + keyColumn + " = ? AND " + hashColumn + " IS NULL");
+			PreparedStatement update = conn.prepareStatement("UPDATE " + table + " SET " + hashColumn + " = ?, " + column + " = ? WHERE " + keyColumn + " = ? AND " + hashColumn + " IS NULL");
+			for(Object key : keys)
+			{
+				read.setObject(1, key);
+				rs = read.executeQuery();
+				if(!rs.next() || rs.getBlob(1) == null)
+					continue;
+				String hash;
+				try (InputStream file = rs.getBlob(1).getBinaryStream()) {
+					hash = Server.Blobs.Put(file, compress);
+				} catch (IOException e) {
+					e.printStackTrace();
+					Server.Log("Database", "Executing MoveBlobsToStore " + table + "." + column + " " + key + ": FAILED");
+					continue;
+				}
+				update.setString(1, hash);
+				update.setBytes(2, new byte[0]);
+				update.setObject(3, key);
+				moved += update.executeUpdate();
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			Server.Log("Database", "Executing MoveBlobsToStore " + table + "." + column + ": FAILED");
+		}
+		return moved;
+	}
+	
 	/**
 	 * Gets the ready surveys (that have an expert report on them).
 	 *
@@ -2166,15 +3116,14 @@ public class ServerConnSQL {
 		PreparedStatement stmt = null;
 		ResultSet rs;
 		try {
-			stmt = conn.prepareStatement("SELECT survey_id,survey_content,pdf_file_from_expert,pdf_with_survey_answers FROM midproject.pdf_from_expert");
+			/*** only the sizes of the pdf files, the files are streamed by ReadStream ***/
+			stmt = conn.prepareStatement("SELECT survey_id,survey_content,OCTET_LENGTH(pdf_file_from_expert),OCTET_LENGTH(pdf_with_survey_answers),expert_hash,answers_hash FROM midproject.pdf_from_expert");
            	rs = stmt.executeQuery();
-           	while(rs.next()) {
-           		try {
-					surveyData.add(new SurveyResult(rs.getInt(1),rs.getString(2),rs.getBlob(3).getBinaryStream().readAllBytes(),rs.getBlob(4).getBinaryStream().readAllBytes()));
-				} catch (IOException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
+           	while(rs.next())
+           	{
+           		int expertSize = rs.getString(5) != null ? (int)Server.Blobs.Size(rs.getString(5)) : rs.getInt(3);
+           		int answersSize = rs.getString(6) != null ? (int)Server.Blobs.Size(rs.getString(6)) : rs.getInt(4);
+				surveyData.add(new SurveyResult(rs.getInt(1),rs.getString(2),expertSize,answersSize));
            	}
 		}catch (SQLException e) 
 		{
@@ -0,0 +1,237 @@
+package server;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import Entities.Access;
+import Entities.Roles;
+import ocsf.server.ConnectionToClient;
+
+/**
+ * The Class SessionRegistry keeps a session for every connected client.
+ * Once a client has logged in, its session holds the user, role and access returned by the authentication,
+ * and the branch of the user once it was asked for, so the operations of that connection
+ * do not look them up in the database on every request.
+ * Every request (and the client's heartbeat) marks the session as seen as soon as its connection thread reads it,
+ * before it waits behind the requests of other clients, a session that was not seen
+ * for HEARTBEAT_TIMEOUT is treated as a dead connection: the connection is closed and the user is logged out,
+ * so a client that crashed or lost its network does not leave its user logged in.
+ */
+public class SessionRegistry {
+
+	/** The HEARTBEAT_TIMEOUT - Const time in milliseconds a session may stay unseen before its connection is dropped. */
+	private static final long HEARTBEAT_TIMEOUT = 90000;
+
+	/** The SWEEP_INTERVAL - Const time in milliseconds between two sweeps for dead connections. */
+	private static final long SWEEP_INTERVAL = 15000;
+
+	/** The sessions of the connected clients. */
+	private static final ConcurrentHashMap<ConnectionToClient, Session> sessions = new ConcurrentHashMap<>();
+
+	/** The sweeper - the thread that drops the dead connections, null until started. */
+	private static volatile ScheduledExecutorService sweeper;
+
+	/**
+	 * Starts the registry, called once the database is connected.
+	 * A session does not survive a server restart, so the logged in flags left by the previous run are cleared.
+	 */
+	public static void Start()
+	{
+		synchronized (SessionRegistry.class) {
+			if(sweeper != null)
+				return;
+			Server.SqlServerManager.ResetLoggedIn();
+			sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "session-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		sweeper.scheduleWithFixedDelay(SessionRegistry::Sweep, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Marks the session of a connection as seen, creating it on the first request of the connection.
+	 *
+	 * @param client the connection a request was received from
+	 */
+	public static void Touch(ConnectionToClient client)
+	{
+		sessions.computeIfAbsent(client, c -> new Session()).lastSeen = System.currentTimeMillis();
+	}
+
+	/**
+	 * Binds the user that has just logged in to the connection that is being handled.
+	 * A user that was still bound to that connection is logged out.
+	 *
+	 * @param user the user
+	 * @param role the role returned by the authentication
+	 * @param access the access returned by the authentication
+	 */
+	public static void Bind(String user, Roles role, Access access)
+	{
+		Session session = Current();
+		if(session == null)
+			return;
+		String previous;
+		synchronized (session) {
+			previous = session.user;
+			session.user = user;
+			session.role = role;
+			session.access = access;
+			session.branch = null;
+		}
+		if(previous != null && !previous.equals(user))
+			WriteBehind.LoggedOut(previous);
+	}
+
+	/**
+	 * Unbinds the user of the connection that is being handled, called when the user logs out.
+	 */
+	public static void Unbind()
+	{
+		Session session = Current();
+		if(session == null)
+			return;
+		synchronized (session) {
+			session.user = null;
+			session.role = null;
+			session.access = null;
+			session.branch = null;
+		}
+	}
+
+	/**
+	 * Drops the session of a connection that was closed, logging out its user.
+	 *
+	 * @param client the connection
+	 */
+	public static void Drop(ConnectionToClient client)
+	{
+		Session session = sessions.remove(client);
+		if(session == null)
+			return;
+		String user;
+		synchronized (session) {
+			user = session.user;
+			session.user = null;
+		}
+		if(user != null)
+		{
+			Server.Log("Sessions", "Connection of " + user + " was dropped, logging out");
+			WriteBehind.LoggedOut(user);
+		}
+	}
+
+	/**
+	 * Gets the role of a user from the session of the connection that is being handled.
+	 *
+	 * @param user the user the request was made for
+	 * @return the role, null if the connection is not bound to that user
+	 */
+	public static Roles Role(String user)
+	{
+		Session session = Current();
+		if(session == null)
+			return null;
+		synchronized (session) {
+			return user != null && user.equals(session.user) ? session.role : null;
+		}
+	}
+
+	/**
+	 * Gets the access of a user from the session of the connection that is being handled.
+	 *
+	 * @param user the user the request was made for
+	 * @return the access, null if the connection is not bound to that user
+	 */
+	public static Access Access(String user)
+	{
+		Session session = Current();
+		if(session == null)
+			return null;
+		synchronized (session) {
+			return user != null && user.equals(session.user) ? session.access : null;
+		}
+	}
+
+	/**
+	 * Gets the branch of a user.
+	 * The branch is read from the database once per session and then answered from the session,
+	 * a user that is not bound to the connection that is being handled is read from the database every time.
+	 *
+	 * @param user the user the request was made for
+	 * @return the branch of the user
+	 */
+	public static String Branch(String user)
+	{
+		Session session = Current();
+		if(session != null)
+			synchronized (session) {
+				if(user != null && user.equals(session.user))
+				{
+					if(session.branch == null)
+						session.branch = Server.SqlServerManager.GetBranch(user);
+					return session.branch;
+				}
+			}
+		return Server.SqlServerManager.GetBranch(user);
+	}
+
+	/**
+	 * Gets the session of the connection that is being handled.
+	 * Every request is handled on the thread of the connection it was received from.
+	 *
+	 * @return the session, null when not called while handling a request
+	 */
+	private static Session Current()
+	{
+		Thread thread = Thread.currentThread();
+		return thread instanceof ConnectionToClient ? sessions.get(thread) : null;
+	}
+
+	/**
+	 * Drops the sessions that were not seen for HEARTBEAT_TIMEOUT, or whose connection thread has ended.
+	 */
+	private static void Sweep()
+	{
+		long now = System.currentTimeMillis();
+		for(Map.Entry<ConnectionToClient, Session> entry : sessions.entrySet())
+		{
+			ConnectionToClient client = entry.getKey();
+			if(client.isAlive() && now - entry.getValue().lastSeen < HEARTBEAT_TIMEOUT)
+				continue;
+			Drop(client);
+			try {
+				client.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * The Class Session is the state of a single connection, guarded by its own lock.
+	 */
+	private static class Session {
+
+		/** The time the connection was last seen. */
+		private volatile long lastSeen;
+
+		/** The user bound to the connection, null until logged in. */
+		private String user;
+
+		/** The role of the user. */
+		private Roles role;
+
+		/** The access of the user. */
+		private Access access;
+
+		/** The branch of the user, null until asked for. */
+		private String branch;
+	}
+}
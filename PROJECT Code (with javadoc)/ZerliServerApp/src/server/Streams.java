@@ -0,0 +1,214 @@
+package server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Entities.StreamTarget;
+
+/**
+ * The Class Streams is the server side of the transfer of large files in parts.
+ * A download is read part by part from the database, each part by its own request, the requester asks for
+ * the next part only once it got the previous one.
+ * An upload is written part by part into a temporary file, each part is answered once it is stored,
+ * the operation the upload was made for then streams the file into the database and deletes it.
+ * Since every part is a request of its own, the requests of other clients are handled between the parts
+ * instead of waiting for the whole file.
+ */
+public class Streams {
+
+	/** The MAX_CHUNK - Const largest part in bytes that is sent or received in a single request. */
+	public static final int MAX_CHUNK = 1024 * 1024;
+
+	/** The UPLOAD_TIMEOUT - Const time in milliseconds an upload may stay idle before it is discarded. */
+	private static final long UPLOAD_TIMEOUT = 10 * 60 * 1000;
+
+	/** The upload ids. */
+	private static final AtomicInteger ids = new AtomicInteger();
+
+	/** The uploads in progress, mapped by upload id. */
+	private static final ConcurrentHashMap<Integer, Upload> uploads = new ConcurrentHashMap<>();
+
+	/**
+	 * Reads a part of a large file.
+	 *
+	 * @param target the file kind
+	 * @param key the key of the file, see StreamTarget
+	 * @param offset the offset of the part in the file
+	 * @param length the length of the part, at most MAX_CHUNK
+	 * @return the part, shorter than the length at the end of the file, null if there is no such file
+	 */
+	public static byte[] Read(StreamTarget target, Object[] key, long offset, int length)
+	{
+		if(offset < 0 || length <= 0)
+			return null;
+		return Server.SqlServerManager.ReadStreamChunk(target, key, offset, Math.min(length, MAX_CHUNK));
+	}
+
+	/**
+	 * Opens an upload.
+	 *
+	 * @param owner the user that uploads the file
+	 * @param size the size in bytes of the file
+	 * @return the upload id, -1 if failed
+	 */
+	public static int Open(String owner, long size)
+	{
+		Expire();
+		if(size < 0)
+			return -1;
+		try {
+			File file = File.createTempFile("zerli-upload", ".part");
+			file.deleteOnExit();
+			int id = ids.incrementAndGet();
+			uploads.put(id, new Upload(owner, file, size));
+			return id;
+		} catch (IOException e) {
+			e.printStackTrace();
+			Server.Log("Streams", "Opening an upload: FAILED");
+			return -1;
+		}
+	}
+
+	/**
+	 * Writes the next part of an upload, parts must arrive in order.
+	 *
+	 * @param owner the user that uploads the file
+	 * @param id the upload id
+	 * @param offset the offset of the part in the file
+	 * @param chunk the part
+	 * @return true, if the part was stored
+	 */
+	public static boolean Write(String owner, int id, long offset, byte[] chunk)
+	{
+		Upload upload = uploads.get(id);
+		if(upload == null || !upload.owner.equals(owner) || chunk.length > MAX_CHUNK)
+			return false;
+		synchronized (upload) {
+			if(offset != upload.received || upload.received + chunk.length > upload.size)
+				return false;
+			try (FileChannel channel = FileChannel.open(upload.file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				ByteBuffer buffer = ByteBuffer.wrap(chunk);
+				while(buffer.hasRemaining())
+					channel.write(buffer);
+			} catch (IOException e) {
+				e.printStackTrace();
+				Server.Log("Streams", "Writing upload " + id + ": FAILED");
+				return false;
+			}
+			upload.received += chunk.length;
+			upload.touched = System.currentTimeMillis();
+		}
+		return true;
+	}
+
+	/**
+	 * Takes a complete upload, to be streamed into the database by the operation it was made for.
+	 * An upload that is not complete is discarded.
+	 *
+	 * @param owner the user that uploaded the file
+	 * @param id the upload id
+	 * @return the upload, null if there is no such complete upload
+	 */
+	public static Upload Take(String owner, int id)
+	{
+		Upload upload = uploads.get(id);
+		if(upload == null || !upload.owner.equals(owner) || !uploads.remove(id, upload))
+			return null;
+		synchronized (upload) {
+			if(upload.received == upload.size)
+				return upload;
+		}
+		upload.Delete();
+		return null;
+	}
+
+	/**
+	 * Discards the uploads that were left idle for UPLOAD_TIMEOUT.
+	 */
+	private static void Expire()
+	{
+		long now = System.currentTimeMillis();
+		uploads.entrySet().removeIf(entry -> {
+			if(now - entry.getValue().touched < UPLOAD_TIMEOUT)
+				return false;
+			entry.getValue().Delete();
+			return true;
+		});
+	}
+
+	/**
+	 * The Class Upload is a file that is being uploaded into a temporary file.
+	 */
+	public static class Upload {
+
+		/** The user that uploads the file. */
+		private final String owner;
+
+		/** The temporary file. */
+		private final File file;
+
+		/** The size in bytes of the file. */
+		private final long size;
+
+		/** The number of bytes received so far. */
+		private long received;
+
+		/** The time the upload was last written to. */
+		private volatile long touched = System.currentTimeMillis();
+
+		/**
+		 * Instantiates a new upload.
+		 *
+		 * @param owner the user that uploads the file
+		 * @param file the temporary file
+		 * @param size the size in bytes of the file
+		 */
+		Upload(String owner, File file, long size)
+		{
+			this.owner = owner;
+			this.file = file;
+			this.size = size;
+		}
+
+		/**
+		 * Gets the size.
+		 *
+		 * @return the size in bytes of the file
+		 */
+		public long getSize()
+		{
+			return size;
+		}
+
+		/**
+		 * Opens the uploaded file for reading.
+		 *
+		 * @return the input stream of the file
+		 * @throws IOException Signals that the file could not be opened.
+		 */
+		public InputStream Open() throws IOException
+		{
+			return new FileInputStream(file);
+		}
+
+		/**
+		 * Deletes the temporary file.
+		 */
+		public void Delete()
+		{
+			try {
+				Files.deleteIfExists(file.toPath());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,514 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import Entities.Survey;
+
+/**
+ * The Class WriteBehind queues the writes of the requests that are not answered
+ * (notification read marks, complaint alerts, log outs and survey answers) instead of running them on the request path.
+ * Repeated writes are coalesced (a notification read twice, a user logged out twice) and the queue is flushed
+ * in batches every FLUSH_INTERVAL or once FLUSH_THRESHOLD writes are waiting.
+ * Every queued write is first appended to a local journal, so writes that were not flushed yet are replayed
+ * after a crash. The journal is forced to the disk by the flusher once for all the writes appended since the last sync,
+ * and rewritten with the writes still waiting after every flush. A write is applied at least once, the survey answers
+ * are saved under a key of their own so that answers applied again after a crash are skipped.
+ * Reads that depend on a queued write call Flush first.
+ */
+public class WriteBehind {
+
+	/** The FLUSH_INTERVAL - Const milliseconds between flushes. */
+	private static final long FLUSH_INTERVAL = 500;
+
+	/** The FLUSH_THRESHOLD - Const number of waiting writes that triggers a flush right away. */
+	private static final int FLUSH_THRESHOLD = 100;
+
+	/** The journal path - the file of the writes that were not flushed yet. */
+	static File journalPath = new File("write-behind.journal");
+
+	/** The record types of the journal, ANSWERS records of older journals carry no answer key. */
+	private static final byte READ = 1, ALERTED = 2, LOGGED_OUT = 3, ANSWERS = 4, KEYED_ANSWERS = 5;
+
+	/** The waiting notification read marks, mapped by user. */
+	private static LinkedHashMap<String, LinkedHashSet<Integer>> reads = new LinkedHashMap<>();
+
+	/** The waiting complaint alerts. */
+	private static LinkedHashSet<Integer> alerted = new LinkedHashSet<>();
+
+	/** The waiting log outs. */
+	private static LinkedHashSet<String> loggedOut = new LinkedHashSet<>();
+
+	/** The waiting survey answers, mapped by answer key. */
+	private static LinkedHashMap<String, Survey> answers = new LinkedHashMap<>();
+
+	/** The number of waiting writes. */
+	private static int waiting = 0;
+
+	/** The journal file stream, null until started. */
+	private static FileOutputStream journalFile;
+
+	/** The journal. */
+	private static DataOutputStream journal;
+
+	/** The journal generation - counts the rewrites, a sync of a journal that was rewritten meanwhile is not needed. */
+	private static int journalGeneration = 0;
+
+	/** The sync pending - a sync of the journal is scheduled on the flusher. */
+	private static boolean syncPending = false;
+
+	/** The flusher - the thread flushing the queue. */
+	private static volatile ScheduledExecutorService flusher;
+
+	/** The flush lock - a single flush runs at a time. */
+	private static final Object flushLock = new Object();
+
+	/**
+	 * Starts the queue once the database is connected, the writes left in the journal by a previous run are flushed first.
+	 */
+	public static void Start()
+	{
+		synchronized (WriteBehind.class) {
+			if(flusher != null)
+				return;
+			Replay();
+			OpenJournal(true);
+			flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "write-behind");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		Flush();
+		flusher.scheduleWithFixedDelay(WriteBehind::Flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the queue without flushing it, the waiting writes that were synced stay in the journal and are replayed on the next start.
+	 */
+	static void Stop()
+	{
+		ScheduledExecutorService stopped;
+		synchronized (WriteBehind.class) {
+			stopped = flusher;
+			flusher = null;
+		}
+		if(stopped == null)
+			return;
+		stopped.shutdownNow();
+		try {
+			stopped.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (WriteBehind.class) {
+			try {
+				if(journal != null)
+					journal.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			journal = null;
+			journalFile = null;
+			syncPending = false;
+			reads = new LinkedHashMap<>();
+			alerted = new LinkedHashSet<>();
+			loggedOut = new LinkedHashSet<>();
+			answers = new LinkedHashMap<>();
+			waiting = 0;
+		}
+	}
+
+	/**
+	 * Queues a notification read mark.
+	 *
+	 * @param user the owner of the notification
+	 * @param id the notification id
+	 */
+	public static void MarkRead(String user, int id)
+	{
+		if(!Started())
+		{
+			Server.SqlServerManager.MarkNotificationsRead(user, List.of(id));
+			return;
+		}
+		boolean flushNow = false;
+		synchronized (WriteBehind.class) {
+			if(reads.computeIfAbsent(user, u -> new LinkedHashSet<>()).add(id))
+				flushNow = Queued(READ, user, id, null);
+		}
+		if(flushNow)
+			flusher.execute(WriteBehind::Flush);
+	}
+
+	/**
+	 * Queues a complaint alert.
+	 *
+	 * @param id the complaint id
+	 */
+	public static void SetComplaintAlerted(int id)
+	{
+		if(!Started())
+		{
+			Server.SqlServerManager.SetComplaintsAlerted(List.of(id));
+			return;
+		}
+		boolean flushNow = false;
+		synchronized (WriteBehind.class) {
+			if(alerted.add(id))
+				flushNow = Queued(ALERTED, null, id, null);
+		}
+		if(flushNow)
+			flusher.execute(WriteBehind::Flush);
+	}
+
+	/**
+	 * Queues a log out.
+	 *
+	 * @param user the user that logged out
+	 */
+	public static void LoggedOut(String user)
+	{
+		if(!Started())
+		{
+			Server.SqlServerManager.LoggedOut(List.of(user));
+			return;
+		}
+		boolean flushNow = false;
+		synchronized (WriteBehind.class) {
+			if(loggedOut.add(user))
+				flushNow = Queued(LOGGED_OUT, user, 0, null);
+		}
+		if(flushNow)
+			flusher.execute(WriteBehind::Flush);
+	}
+
+	/**
+	 * Queues the answers of a filled survey.
+	 *
+	 * @param survey the filled survey
+	 */
+	public static void SaveSurveyAnswers(Survey survey)
+	{
+		if(!Started())
+		{
+			Server.SqlServerManager.SaveSurveyAnswers(survey);
+			return;
+		}
+		boolean flushNow;
+		String key = UUID.randomUUID().toString();
+		synchronized (WriteBehind.class) {
+			answers.put(key, survey);
+			flushNow = Queued(KEYED_ANSWERS, key, 0, survey);
+		}
+		if(flushNow)
+			flusher.execute(WriteBehind::Flush);
+	}
+
+	/**
+	 * Flushes the waiting writes to the database in batches.
+	 * Writes of a batch that failed stay queued and are retried on the next flush, but for survey answers the database refused.
+	 */
+	public static void Flush()
+	{
+		synchronized (flushLock) {
+			LinkedHashMap<String, LinkedHashSet<Integer>> flushReads;
+			LinkedHashSet<Integer> flushAlerted;
+			LinkedHashSet<String> flushLoggedOut;
+			LinkedHashMap<String, Survey> flushAnswers;
+			synchronized (WriteBehind.class) {
+				if(waiting == 0)
+					return;
+				flushReads = reads;
+				flushAlerted = alerted;
+				flushLoggedOut = loggedOut;
+				flushAnswers = answers;
+				reads = new LinkedHashMap<>();
+				alerted = new LinkedHashSet<>();
+				loggedOut = new LinkedHashSet<>();
+				answers = new LinkedHashMap<>();
+				waiting = 0;
+			}
+			int count = flushAlerted.size() + flushLoggedOut.size() + flushAnswers.size();
+			for(Map.Entry<String, LinkedHashSet<Integer>> read : flushReads.entrySet())
+			{
+				count += read.getValue().size();
+				if(Server.SqlServerManager.MarkNotificationsRead(read.getKey(), read.getValue()))
+					read.getValue().clear();
+			}
+			flushReads.values().removeIf(LinkedHashSet::isEmpty);
+			if(!flushAlerted.isEmpty() && Server.SqlServerManager.SetComplaintsAlerted(flushAlerted))
+				flushAlerted.clear();
+			if(!flushLoggedOut.isEmpty() && Server.SqlServerManager.LoggedOut(flushLoggedOut))
+				flushLoggedOut.clear();
+			ArrayList<String> refused = new ArrayList<>();
+			if(!flushAnswers.isEmpty() && Server.SqlServerManager.SaveSurveyAnswers(flushAnswers, refused))
+				flushAnswers.clear();
+			flushAnswers.keySet().removeAll(refused);
+
+			synchronized (WriteBehind.class) {
+				/*** failed writes go back to the front of the queue ***/
+				for(Map.Entry<String, LinkedHashSet<Integer>> read : reads.entrySet())
+					flushReads.computeIfAbsent(read.getKey(), u -> new LinkedHashSet<>()).addAll(read.getValue());
+				flushAlerted.addAll(alerted);
+				flushLoggedOut.addAll(loggedOut);
+				flushAnswers.putAll(answers);
+				reads = flushReads;
+				alerted = flushAlerted;
+				loggedOut = flushLoggedOut;
+				answers = flushAnswers;
+				waiting = answers.size() + alerted.size() + loggedOut.size();
+				for(LinkedHashSet<Integer> ids : reads.values())
+					waiting += ids.size();
+				RewriteJournal();
+			}
+			Server.Log("Write Behind", "Flushed " + count + " writes, " + waiting + " waiting");
+		}
+	}
+
+	/**
+	 * Checks whether the queue was started.
+	 *
+	 * @return true, if started
+	 */
+	private static boolean Started()
+	{
+		return flusher != null;
+	}
+
+	/**
+	 * Journals and counts a write that was added to the queue, must be called under the class lock.
+	 *
+	 * @param type the record type
+	 * @param user the user of the write (READ, LOGGED_OUT) or the answer key (KEYED_ANSWERS)
+	 * @param id the id of the write (READ, ALERTED)
+	 * @param survey the survey of the write (KEYED_ANSWERS)
+	 * @return true, if FLUSH_THRESHOLD writes are waiting and the queue should be flushed right away
+	 */
+	private static boolean Queued(byte type, String user, int id, Survey survey)
+	{
+		Journal(type, user, id, survey);
+		return ++waiting == FLUSH_THRESHOLD;
+	}
+
+	/**
+	 * Appends a write to the journal, must be called under the class lock.
+	 * The record is written whole or not at all, and forced to the disk by the next sync of the flusher.
+	 *
+	 * @param type the record type
+	 * @param user the user of the write (READ, LOGGED_OUT) or the answer key (KEYED_ANSWERS)
+	 * @param id the id of the write (READ, ALERTED)
+	 * @param survey the survey of the write (KEYED_ANSWERS)
+	 */
+	private static void Journal(byte type, String user, int id, Survey survey)
+	{
+		if(journal == null)
+			return;
+		try {
+			ByteArrayOutputStream record = new ByteArrayOutputStream();
+			Write(new DataOutputStream(record), type, user, id, survey);
+			record.writeTo(journal);
+			if(!syncPending && flusher != null)
+			{
+				syncPending = true;
+				flusher.execute(WriteBehind::SyncJournal);
+			}
+		} catch (IOException e) {
+			Server.Log("Write Behind", "Writing the journal: FAILED");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Forces the writes appended to the journal since the last sync to the disk, runs on the flusher.
+	 * The disk is synced outside the class lock, so the requests keep queueing writes meanwhile.
+	 */
+	private static void SyncJournal()
+	{
+		FileDescriptor fd;
+		int generation;
+		synchronized (WriteBehind.class) {
+			syncPending = false;
+			if(journal == null)
+				return;
+			try {
+				journal.flush();
+				fd = journalFile.getFD();
+			} catch (IOException e) {
+				Server.Log("Write Behind", "Writing the journal: FAILED");
+				e.printStackTrace();
+				return;
+			}
+			generation = journalGeneration;
+		}
+		try {
+			fd.sync();
+		} catch (IOException e) {
+			synchronized (WriteBehind.class) {
+				/*** a journal that was rewritten meanwhile was synced by the rewrite ***/
+				if(generation != journalGeneration)
+					return;
+			}
+			Server.Log("Write Behind", "Syncing the journal: FAILED");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Opens the journal for appending, must be called under the class lock.
+	 *
+	 * @param append true to keep the records in the journal
+	 */
+	private static void OpenJournal(boolean append)
+	{
+		try {
+			journalFile = new FileOutputStream(journalPath, append);
+			journal = new DataOutputStream(new BufferedOutputStream(journalFile));
+		} catch (IOException e) {
+			Server.Log("Write Behind", "Opening the journal: FAILED");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes a single record.
+	 *
+	 * @param out the stream
+	 * @param type the record type
+	 * @param user the user of the write or the answer key
+	 * @param id the id of the write
+	 * @param survey the survey of the write
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void Write(DataOutputStream out, byte type, String user, int id, Survey survey) throws IOException
+	{
+		out.writeByte(type);
+		switch (type) {
+		case READ:
+			out.writeUTF(user);
+			out.writeInt(id);
+			break;
+		case ALERTED:
+			out.writeInt(id);
+			break;
+		case LOGGED_OUT:
+			out.writeUTF(user);
+			break;
+		case KEYED_ANSWERS:
+			out.writeUTF(user);
+			out.writeInt(survey.getId());
+			out.writeBoolean(survey.getContent() != null);
+			if(survey.getContent() != null)
+				out.writeUTF(survey.getContent());
+			for(int answer : survey.getAnswers())
+				out.writeInt(answer);
+			break;
+		}
+	}
+
+	/**
+	 * Rewrites the journal with the writes that are still waiting, must be called under the class lock.
+	 * The records go to a temporary file that replaces the journal once it is on the disk,
+	 * so a crash in the middle leaves the previous journal whole.
+	 */
+	private static void RewriteJournal()
+	{
+		if(journal == null)
+			return;
+		File temp = new File(journalPath.getPath() + ".tmp");
+		try {
+			journal.close();
+			journalGeneration++;
+			try (FileOutputStream tempFile = new FileOutputStream(temp, false)) {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(tempFile));
+				for(Map.Entry<String, LinkedHashSet<Integer>> read : reads.entrySet())
+					for(int id : read.getValue())
+						Write(out, READ, read.getKey(), id, null);
+				for(int id : alerted)
+					Write(out, ALERTED, null, id, null);
+				for(String user : loggedOut)
+					Write(out, LOGGED_OUT, user, 0, null);
+				for(Map.Entry<String, Survey> survey : answers.entrySet())
+					Write(out, KEYED_ANSWERS, survey.getKey(), 0, survey.getValue());
+				out.flush();
+				tempFile.getFD().sync();
+			}
+			Files.move(temp.toPath(), journalPath.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Server.Log("Write Behind", "Rewriting the journal: FAILED");
+			e.printStackTrace();
+		}
+		OpenJournal(true);
+	}
+
+	/**
+	 * Queues the writes left in the journal by a previous run, a record cut by a crash ends the replay.
+	 */
+	private static void Replay()
+	{
+		if(!journalPath.exists())
+			return;
+		int replayed = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalPath)))) {
+			while(true)
+			{
+				byte type = in.readByte();
+				switch (type) {
+				case READ:
+					String user = in.readUTF();
+					reads.computeIfAbsent(user, u -> new LinkedHashSet<>()).add(in.readInt());
+					break;
+				case ALERTED:
+					alerted.add(in.readInt());
+					break;
+				case LOGGED_OUT:
+					loggedOut.add(in.readUTF());
+					break;
+				case ANSWERS:
+				case KEYED_ANSWERS:
+					String key = type == KEYED_ANSWERS ? in.readUTF() : UUID.randomUUID().toString();
+					Survey survey = new Survey();
+					survey.setId(in.readInt());
+					if(type == ANSWERS || in.readBoolean())
+						survey.setContent(in.readUTF());
+					for(int i = 0; i < survey.getAnswers().length; i++)
+						survey.getAnswers()[i] = in.readInt();
+					answers.put(key, survey);
+					break;
+				default:
+					throw new EOFException();
+				}
+				replayed++;
+			}
+		} catch (EOFException e) {
+			/* end of the journal */
+		} catch (IOException e) {
+			Server.Log("Write Behind", "Reading the journal: FAILED");
+			e.printStackTrace();
+		}
+		waiting = answers.size() + alerted.size() + loggedOut.size();
+		for(LinkedHashSet<Integer> ids : reads.values())
+			waiting += ids.size();
+		Server.Log("Write Behind", "Replayed " + replayed + " writes from the journal");
+	}
+}
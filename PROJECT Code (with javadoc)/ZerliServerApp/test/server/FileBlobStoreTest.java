@@ -0,0 +1,102 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class FileBlobStoreTest checks that a stored file read in parts, the way it is streamed, adds up to the file,
+ * whether it was stored plain or compressed.
+ */
+class FileBlobStoreTest {
+
+	/** The PART - the length of a part, as streamed. */
+	private static final int PART = 64 * 1024;
+
+	/** The root directory of the store. */
+	@TempDir
+	File root;
+
+	/** The store. */
+	private FileBlobStore store;
+
+	/** The file - a few parts and a partial one. */
+	private byte[] file;
+
+	/**
+	 * Creates the store and the file.
+	 */
+	@BeforeEach
+	void create() {
+		store = new FileBlobStore(root);
+		file = new byte[3 * PART + 1234];
+		new Random(47).nextBytes(file);
+	}
+
+	/**
+	 * Reads a stored file part after part, as it is streamed.
+	 *
+	 * @param hash the hash of the file
+	 * @return the parts, joined
+	 */
+	private byte[] readInParts(String hash) {
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		byte[] part;
+		while((part = store.Read(hash, read.size(), PART)).length > 0)
+			read.writeBytes(part);
+		return read.toByteArray();
+	}
+
+	/**
+	 * The parts of a plain file add up to the file.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void plainFileReadsInParts() throws Exception {
+		String hash = store.Put(new ByteArrayInputStream(file), false);
+		assertEquals(file.length, store.Size(hash));
+		assertArrayEquals(file, readInParts(hash));
+	}
+
+	/**
+	 * The parts of a compressed file add up to the file, the first part inflates it once into a plain file.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void compressedFileReadsInParts() throws Exception {
+		String hash = store.Put(new ByteArrayInputStream(file), true);
+		File plain = new File(new File(root, hash.substring(0, 2)), hash);
+		assertEquals(file.length, store.Size(hash));
+		assertArrayEquals(Arrays.copyOfRange(file, PART, 2 * PART), store.Read(hash, PART, PART));
+		assertTrue(plain.exists());
+		assertArrayEquals(file, readInParts(hash));
+		assertArrayEquals(file, store.ReadAll(hash));
+	}
+
+	/**
+	 * A part that runs past the end is cut at the end, a part past the end is empty, a missing file has no parts.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void partsAtTheEnd() throws Exception {
+		String hash = store.Put(new ByteArrayInputStream(file), false);
+		assertArrayEquals(Arrays.copyOfRange(file, file.length - 10, file.length), store.Read(hash, file.length - 10, PART));
+		assertEquals(0, store.Read(hash, file.length, PART).length);
+		assertNull(store.Read("0".repeat(64), 0, PART));
+		assertNull(store.Read(hash, -1, PART));
+	}
+}
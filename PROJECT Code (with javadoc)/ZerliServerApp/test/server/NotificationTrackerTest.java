@@ -0,0 +1,112 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import Entities.NotificationInTable;
+
+/**
+ * The Class NotificationTrackerTest checks that the unread count neither loses nor double counts
+ * a notification that is sent while the count is read from the database.
+ */
+class NotificationTrackerTest {
+
+	/** The database manager the tests replace. */
+	private final ServerConnSQL database = Server.SqlServerManager;
+
+	/**
+	 * Restores the database manager.
+	 */
+	@AfterEach
+	void restore() {
+		Server.SqlServerManager = database;
+	}
+
+	/**
+	 * A notification sent while a full sync reads the database is counted after the sync.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void sentDuringFullSyncIsNotLost() throws Exception {
+		String user = "tracker-during";
+		Thread[] sender = new Thread[1];
+		Server.SqlServerManager = new ServerConnSQL() {
+			@Override
+			public void GetNotificationsAfter(String username, int lastId, ArrayList<NotificationInTable> notificationList) {
+				notificationList.add(new NotificationInTable(1, "service", "first", "unread"));
+				/*** notification 2 is inserted after this read, its Sent lands while the sync holds the inbox ***/
+				sender[0] = new Thread(() -> NotificationTracker.Sent(user, 2));
+				sender[0].start();
+				while(sender[0].getState() != Thread.State.BLOCKED && sender[0].isAlive())
+					Thread.onSpinWait();
+			}
+		};
+		NotificationTracker.Sync(user, null);
+		sender[0].join();
+		assertEquals(2, NotificationTracker.Unread(user));
+	}
+
+	/**
+	 * A notification that the full sync already read is not counted again by its Sent.
+	 */
+	@Test
+	void sentCoveredByFullSyncIsNotCountedTwice() {
+		String user = "tracker-covered";
+		Server.SqlServerManager = new ServerConnSQL() {
+			@Override
+			public void GetNotificationsAfter(String username, int lastId, ArrayList<NotificationInTable> notificationList) {
+				notificationList.add(new NotificationInTable(1, "service", "first", "unread"));
+				notificationList.add(new NotificationInTable(2, "service", "second", "unread"));
+			}
+		};
+		NotificationTracker.Sync(user, null);
+		/*** notification 2 was inserted before the read, its Sent arrives after it ***/
+		NotificationTracker.Sent(user, 2);
+		assertEquals(2, NotificationTracker.Unread(user));
+	}
+
+	/**
+	 * Only the notifications newer than the count from the database are counted by Sent.
+	 */
+	@Test
+	void sentAfterCountIsCountedOnce() {
+		String user = "tracker-count";
+		Server.SqlServerManager = new ServerConnSQL() {
+			@Override
+			public int[] GetUnreadNotificationCount(String username) {
+				return new int[] {3, 7};
+			}
+		};
+		assertEquals(3, NotificationTracker.Unread(user));
+		NotificationTracker.Sent(user, 7);
+		assertEquals(3, NotificationTracker.Unread(user));
+		NotificationTracker.Sent(user, 8);
+		assertEquals(4, NotificationTracker.Unread(user));
+	}
+
+	/**
+	 * Read marks that were not flushed yet are applied to the count and to the synced notifications.
+	 */
+	@Test
+	void readMarksAreOverlaid() {
+		String user = "tracker-read";
+		Server.SqlServerManager = new ServerConnSQL() {
+			@Override
+			public void GetNotificationsAfter(String username, int lastId, ArrayList<NotificationInTable> notificationList) {
+				for(NotificationInTable notification : List.of(new NotificationInTable(4, "service", "a", "unread"),
+						new NotificationInTable(5, "service", "b", "unread")))
+					notificationList.add(notification);
+			}
+		};
+		NotificationTracker.Sync(user, null);
+		NotificationTracker.Read(user, 4);
+		assertEquals(1, NotificationTracker.Unread(user));
+		assertEquals(1, NotificationTracker.Sync(user, null).getAdded().stream().filter(n -> n.getStatus().equals("unread")).count());
+	}
+}
@@ -0,0 +1,250 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import Entities.Survey;
+
+/**
+ * The Class WriteBehindTest checks that the writes left in the journal are replayed after a crash,
+ * whichever point the crash hit, and that survey answers are saved once.
+ */
+class WriteBehindTest {
+
+	/** The database manager the tests replace. */
+	private final ServerConnSQL database = Server.SqlServerManager;
+
+	/** The journal path the tests replace. */
+	private final File journal = WriteBehind.journalPath;
+
+	/** The directory of the test journal. */
+	@TempDir
+	File directory;
+
+	/** The database is up - while false every write fails. */
+	private volatile boolean up;
+
+	/** The survey answers the database saved, mapped by answer key. */
+	private final Map<String, Survey> saved = new LinkedHashMap<>();
+
+	/** The answer keys of every save, in order. */
+	private final List<String> keys = new ArrayList<>();
+
+	/** The other writes the database applied. */
+	private final List<String> applied = new ArrayList<>();
+
+	/**
+	 * Replaces the database manager with one that keeps the writes in memory, and saves answers once per key like the database.
+	 */
+	@BeforeEach
+	void stub() {
+		WriteBehind.journalPath = new File(directory, "write-behind.journal");
+		Server.SqlServerManager = new ServerConnSQL() {
+			@Override
+			public synchronized boolean SaveSurveyAnswers(Map<String, Survey> surveys, Collection<String> refused) {
+				if(!up)
+					return false;
+				for(Map.Entry<String, Survey> survey : surveys.entrySet())
+				{
+					keys.add(survey.getKey());
+					if("refused".equals(survey.getValue().getContent()))
+						refused.add(survey.getKey());
+					else
+						saved.putIfAbsent(survey.getKey(), survey.getValue());
+				}
+				return true;
+			}
+
+			@Override
+			public synchronized boolean MarkNotificationsRead(String username, Collection<Integer> nums) {
+				if(up)
+					applied.add("read " + username + " " + nums);
+				return up;
+			}
+
+			@Override
+			public synchronized boolean SetComplaintsAlerted(Collection<Integer> ids) {
+				if(up)
+					applied.add("alerted " + ids);
+				return up;
+			}
+
+			@Override
+			public synchronized boolean LoggedOut(Collection<String> usernames) {
+				if(up)
+					applied.add("logged out " + usernames);
+				return up;
+			}
+		};
+	}
+
+	/**
+	 * Stops the queue and restores the database manager and the journal path.
+	 */
+	@AfterEach
+	void restore() {
+		WriteBehind.Stop();
+		Server.SqlServerManager = database;
+		WriteBehind.journalPath = journal;
+	}
+
+	/**
+	 * Builds a filled survey.
+	 *
+	 * @param id the survey id
+	 * @param content the survey content
+	 * @return the survey
+	 */
+	private static Survey survey(int id, String content) {
+		Survey survey = new Survey();
+		survey.setId(id);
+		survey.setContent(content);
+		for(int i = 0; i < 6; i++)
+			survey.getAnswers()[i] = i + 1;
+		return survey;
+	}
+
+	/**
+	 * Queues writes while the database is down and crashes.
+	 *
+	 * @param surveys the surveys to queue
+	 */
+	private void queueAndCrash(Survey... surveys) {
+		up = false;
+		WriteBehind.Start();
+		for(Survey survey : surveys)
+			WriteBehind.SaveSurveyAnswers(survey);
+		WriteBehind.Stop();
+	}
+
+	/**
+	 * Every kind of write that was waiting at the crash is applied on the next start.
+	 */
+	@Test
+	void waitingWritesAreReplayed() {
+		up = false;
+		WriteBehind.Start();
+		WriteBehind.MarkRead("replayed", 4);
+		WriteBehind.SetComplaintAlerted(7);
+		WriteBehind.LoggedOut("replayed");
+		WriteBehind.SaveSurveyAnswers(survey(3, "content"));
+		WriteBehind.Stop();
+
+		up = true;
+		WriteBehind.Start();
+		assertEquals(List.of("read replayed [4]", "alerted [7]", "logged out [replayed]"), applied);
+		assertEquals(1, saved.size());
+		Survey replayed = saved.values().iterator().next();
+		assertEquals(3, replayed.getId());
+		assertEquals("content", replayed.getContent());
+		assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, replayed.getAnswers());
+	}
+
+	/**
+	 * Answers saved right before a crash that kept the journal from being rewritten are replayed under the same key,
+	 * so the database skips them instead of saving them twice.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void answersSavedBeforeTheRewriteAreNotSavedTwice() throws Exception {
+		queueAndCrash(survey(3, "content"));
+		byte[] beforeFlush = Files.readAllBytes(WriteBehind.journalPath.toPath());
+
+		up = true;
+		WriteBehind.Start();
+		WriteBehind.Stop();
+		assertEquals(0, WriteBehind.journalPath.length());
+		/*** the crash hit between the save and the rewrite ***/
+		Files.write(WriteBehind.journalPath.toPath(), beforeFlush);
+		WriteBehind.Start();
+
+		assertEquals(2, keys.size());
+		assertEquals(keys.get(0), keys.get(1));
+		assertEquals(1, saved.size());
+	}
+
+	/**
+	 * A record cut by a crash ends the replay, the whole records before it are applied.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void cutRecordEndsTheReplay() throws Exception {
+		queueAndCrash(survey(1, "first"), survey(2, "second"));
+		try (RandomAccessFile file = new RandomAccessFile(WriteBehind.journalPath, "rw")) {
+			file.setLength(file.length() - 3);
+		}
+
+		up = true;
+		WriteBehind.Start();
+		assertEquals(1, saved.size());
+		assertEquals(1, saved.values().iterator().next().getId());
+	}
+
+	/**
+	 * A temporary journal left by a crash in the middle of a rewrite is ignored, and replaced by the next rewrite.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	void cutRewriteLeavesTheJournalWhole() throws Exception {
+		queueAndCrash(survey(1, "first"));
+		File temp = new File(WriteBehind.journalPath.getPath() + ".tmp");
+		Files.write(temp.toPath(), new byte[] {5, 0});
+
+		up = true;
+		WriteBehind.Start();
+		assertEquals(1, saved.size());
+		assertFalse(temp.exists());
+		assertEquals(0, WriteBehind.journalPath.length());
+	}
+
+	/**
+	 * Answers the database refused are dropped, they neither hold back the answers of the same flush nor are retried.
+	 */
+	@Test
+	void refusedAnswersAreNotRetried() {
+		queueAndCrash(survey(1, "refused"), survey(2, "second"));
+
+		up = true;
+		WriteBehind.Start();
+		WriteBehind.SaveSurveyAnswers(survey(3, "third"));
+		WriteBehind.Flush();
+		assertEquals(3, keys.size());
+		assertEquals(2, saved.size());
+		assertEquals(0, WriteBehind.journalPath.length());
+	}
+
+	/**
+	 * A survey without content is journaled and replayed.
+	 */
+	@Test
+	void answersWithoutContentAreReplayed() {
+		queueAndCrash(survey(5, null));
+
+		up = true;
+		WriteBehind.Start();
+		assertEquals(1, saved.size());
+		Survey replayed = saved.values().iterator().next();
+		assertEquals(5, replayed.getId());
+		assertNull(replayed.getContent());
+		assertEquals(6, replayed.getAnswers()[5]);
+	}
+}